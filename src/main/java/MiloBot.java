@@ -1,6 +1,9 @@
+import commands.CommandExecutor;
 import commands.CommandHandler;
 import commands.CommandLoader;
+import commands.LeaseManager;
 import commands.games.blackjack.BlackjackPlayCmd;
+import commands.games.wordle.WordleSessionRouter;
 import database.DatabaseManager;
 import database.queries.PrefixTableQueries;
 import database.queries.UserTableQueries;
@@ -10,6 +13,8 @@ import events.OnUserUpdateNameEvent;
 import events.guild.OnGuildJoinEvent;
 import events.guild.OnGuildLeaveEvent;
 import games.Blackjack;
+import games.WordleDictionary;
+import games.WordleSolver;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.JDABuilder;
@@ -18,10 +23,16 @@ import net.dv8tion.jda.api.requests.GatewayIntent;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import utility.CommandTracker;
 import utility.Config;
+import utility.MessageDispatcher;
+import utility.Metrics;
+import utility.MetricsServer;
+import utility.Paginator;
 
 import javax.security.auth.login.LoginException;
 import java.awt.*;
+import java.io.IOException;
 import java.sql.Connection;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -46,8 +57,20 @@ public class MiloBot {
 		}
 		// create tables if necessary
 		manager.createAllTables();
+		// finish the running commands and close the pooled database connections when the bot stops
+		CommandTracker commandTracker = CommandTracker.getInstance();
+		CommandExecutor commandExecutor = CommandExecutor.getInstance();
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			commandExecutor.close();
+			commandTracker.close();
+			manager.close();
+		}));
 		// loads the config file
 		Config config = Config.getInstance();
+		// loads the wordle words and starts the pool of the solver before the event threads and the command workers can
+		// ask for them at the same time
+		WordleDictionary.getInstance();
+		WordleSolver.getInstance();
 
 		JDA bot = JDABuilder.createDefault(config.botToken,
 						GatewayIntent.GUILD_MEMBERS, GatewayIntent.GUILD_EMOJIS, GatewayIntent.GUILD_VOICE_STATES,
@@ -55,10 +78,12 @@ public class MiloBot {
 						GatewayIntent.DIRECT_MESSAGE_TYPING, GatewayIntent.DIRECT_MESSAGE_REACTIONS, GatewayIntent.GUILD_MESSAGE_REACTIONS)
 				.setActivity(Activity.watching("Morbius"))
 				.addEventListeners(new CommandHandler(), new OnGuildJoinEvent(), new OnGuildLeaveEvent(),
-						new OnReadyEvent(), new OnUserUpdateNameEvent(), new OnButtonInteractionEvent())
+						new OnReadyEvent(), new OnUserUpdateNameEvent(), new OnButtonInteractionEvent(),
+						WordleSessionRouter.getInstance())
 				.build().awaitReady();
 
 		CommandLoader.loadAllCommands(bot);
+		startMetricsServer(config);
 
 		loadPrefixes(manager, config, bot);
 		updateUserNames(manager, bot);
@@ -68,6 +93,37 @@ public class MiloBot {
 		timer.schedule(clearBlackjackInstances, 1000 * 60 * 60, 1000 * 60 * 60);
 	}
 
+	/**
+	 * Registers the gauges of the in-memory registries and serves the metrics, if a metrics port is configured.
+	 */
+	private static void startMetricsServer(@NotNull Config config) {
+		Metrics metrics = Metrics.getInstance();
+		metrics.registerGauge("blackjack_games", "The blackjack games that are being played.",
+				() -> BlackjackPlayCmd.blackjackGames.size());
+		metrics.registerGauge("wordle_games", "The wordle games that are being played.",
+				() -> WordleSessionRouter.getInstance().size());
+		metrics.registerGauge("wordle_races", "The wordle races that are running.",
+				() -> WordleSessionRouter.getInstance().getRaces());
+		metrics.registerGauge("paginators", "The paginators that can still be paged through.",
+				() -> Paginator.paginatorInstances.size());
+		metrics.registerGauge("command_executor_pending", "The commands that are waiting or running.",
+				() -> CommandExecutor.getInstance().getPending());
+		metrics.registerGauge("leases", "The cooldowns and game instances that are held.",
+				() -> LeaseManager.getInstance().size());
+		metrics.registerGauge("log_queue", "The log messages that wait to be sent.",
+				() -> MessageDispatcher.getInstance().getQueuedLogs());
+		if (config.metricsPort <= 0) {
+			return;
+		}
+		try {
+			MetricsServer server = new MetricsServer(config.metricsHost, config.metricsPort);
+			server.start();
+			Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+		} catch (IOException e) {
+			logger.error(String.format("Failed to start the metrics server: %s", e.getMessage()));
+		}
+	}
+
 	/**
 	 * Clears blackjack instances that haven't been used for 15 minutes every hour.
 	 */
@@ -112,7 +168,7 @@ public class MiloBot {
 				logEmbed.setColor(Color.green);
 				logEmbed.setFooter(dtf.format(LocalDateTime.now()));
 				logEmbed.setDescription(String.format("Removed %d blackjack instances.", instancesToRemove.size()));
-				logs.sendMessageEmbeds(logEmbed.build()).queue();
+				MessageDispatcher.getInstance().sendLog(logs.sendMessageEmbeds(logEmbed.build()));
 			}
 		};
 	}
@@ -122,7 +178,8 @@ public class MiloBot {
 	 */
 	private static void loadPrefixes(@NotNull DatabaseManager manager, Config config, @NotNull JDA bot) {
 		List<Guild> guilds = bot.getGuilds();
-		ArrayList<String> result = manager.query(PrefixTableQueries.getAllPrefixes, DatabaseManager.QueryTypes.RETURN);
+		Set<String> result = new HashSet<>(manager.queryList(PrefixTableQueries.getAllPrefixes,
+				row -> row.getString("serverId")));
 		for (Guild guild : guilds) {
 			String id = guild.getId();
 			if (!result.contains(id)) {
@@ -138,13 +195,11 @@ public class MiloBot {
 	 */
 	private static void updateUserNames(@NotNull DatabaseManager manager, @NotNull JDA bot) {
 		List<Guild> guilds = bot.getGuilds();
-		ArrayList<String> result = manager.query(UserTableQueries.getAllUserIdsAndNames, DatabaseManager.QueryTypes.RETURN);
 		HashMap<String, String> users = new HashMap<>();
-		for (int i = 0; i < result.size(); i += 2) {
-			if (!(i + 2 == result.size() && users.containsKey(result.get(i)))) {
-				users.put(result.get(i), result.get(i + 1));
-			}
-		}
+		manager.stream(UserTableQueries.getAllUserIdsAndNames, row -> {
+			users.put(row.getString("userId"), row.getString("name"));
+			return true;
+		});
 		for (Guild guild : guilds) {
 			List<Member> members = new ArrayList<>();
 			guild.loadMembers().onSuccess(loadedMembers -> {
@@ -1,7 +1,5 @@
 package commands;
 
-import database.DatabaseManager;
-import database.queries.CommandTrackerTableQueries;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Guild;
@@ -12,14 +10,15 @@ import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEve
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.interactions.components.buttons.Button;
 import org.jetbrains.annotations.NotNull;
+import utility.CommandTracker;
+import utility.ComponentId;
 import utility.EmbedUtils;
+import utility.MessageDispatcher;
 
-import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Basic implementation of a command.
@@ -67,24 +66,24 @@ public abstract class Command {
 	public int instanceTime = 0;
 
 	/**
-	 * The permissions needed to use the command.
+	 * The time in seconds the command may run before it is interrupted, 0 to use the default timeout.
 	 */
-	public HashMap<String, Permission> permissions = new HashMap<>();
+	public long timeout = 0;
 
 	/**
-	 * A map that maps a users name to time when they can use the command again.
+	 * The permissions needed to use the command.
 	 */
-	public HashMap<String, OffsetDateTime> cooldownMap = new HashMap<>();
+	public HashMap<String, Permission> permissions = new HashMap<>();
 
 	/**
-	 * A map that maps a users' id to the time when they can open another game instance.
+	 * A list of all the sub commands this command has.
 	 */
-	public HashMap<String, OffsetDateTime> gameInstanceMap = new HashMap<>();
+	public ArrayList<Command> subCommands = new ArrayList<>();
 
 	/**
-	 * A list of all the sub commands this command has.
+	 * The compiled form of the command, made when the commands are loaded.
 	 */
-	public ArrayList<Command> subCommands = new ArrayList<>();
+	CommandDescriptor descriptor;
 
 	/**
 	 * The default constructor for a command.
@@ -93,6 +92,16 @@ public abstract class Command {
 
 	}
 
+	/**
+	 * @return the compiled form of the command, compiled now if the command wasn't loaded
+	 */
+	public CommandDescriptor getDescriptor() {
+		if (descriptor == null) {
+			descriptor = new CommandDescriptor(this, commandName);
+		}
+		return descriptor;
+	}
+
 	/**
 	 * The default implementation for every command.
 	 */
@@ -116,10 +125,9 @@ public abstract class Command {
 		boolean flagPresent = false;
 		// checks if --help flag is present as an argument
 		if (args.contains("--help")) {
-			EmbedBuilder embedBuilder = generateHelp(commandName, commandDescription, commandArgs, aliases, flags, cooldown, subCommands,
-					event.getGuild(), event.getAuthor());
+			EmbedBuilder embedBuilder = generateHelp(event.getGuild(), event.getAuthor());
 			event.getChannel().sendMessageEmbeds(embedBuilder.build()).setActionRow(
-					Button.secondary(event.getAuthor().getId() + ":delete", "Delete")).queue();
+					Button.secondary(ComponentId.encode(event.getAuthor().getId(), "delete"), "Delete")).queue();
 			flagPresent = true;
 		}
 		// checks if the --stats flag is present as an argument
@@ -131,235 +139,91 @@ public abstract class Command {
 	}
 
 	/**
-	 * Checks if the user is using the command again before the cooldown is over.
+	 * Checks if the user is using the command again before the cooldown is over, and starts the cooldown if not.
+	 *
+	 * @return the seconds until the user can use the command again, 0 if they can use it now
 	 */
-	public boolean checkCooldown(@NotNull MessageReceivedEvent event, @NotNull HashMap<String, OffsetDateTime> cooldownMap) {
-		OffsetDateTime currentTime = event.getMessage().getTimeCreated();
-		String authorId = event.getAuthor().getId();
-		OffsetDateTime newAvailableTime = event.getMessage().getTimeCreated().plusSeconds(cooldown);
-		if (cooldownMap.containsKey(authorId)) {
-			OffsetDateTime availableTime = cooldownMap.get(authorId);
-			if (currentTime.isBefore(availableTime)) {
-				long waitTime = availableTime.toEpochSecond() - currentTime.toEpochSecond();
-				event.getChannel().sendTyping().queue();
-				event.getChannel().sendMessage(String.format("You can use this command again in %d seconds.", waitTime))
-						.queue();
-				return true;
-			} else {
-				cooldownMap.remove(authorId);
-			}
-		} else {
-			cooldownMap.put(authorId, newAvailableTime);
-		}
-		return false;
+	public long checkCooldown(long userId) {
+		return LeaseManager.getInstance().acquire(this, LeaseManager.Type.COOLDOWN, userId, cooldown);
 	}
 
 	/**
-	 * Checks if the user is using the command again when its only allowed to have 1 instance open.
+	 * Checks if the user already has an instance of the command open, and opens one if not.
+	 * The instance is closed after the instance time or once {@link #closeInstance(long)} is called.
+	 *
+	 * @return the seconds until the user can open another instance, 0 if they can open one now
 	 */
-	public boolean checkInstanceOpen(@NotNull MessageReceivedEvent event, @NotNull HashMap<String, OffsetDateTime> gameInstanceMap, String commandName) {
-		OffsetDateTime currentTime = event.getMessage().getTimeCreated();
-		String authorId = event.getAuthor().getId();
-		OffsetDateTime newAvailableTime = event.getMessage().getTimeCreated().plusSeconds(instanceTime);
-		if (gameInstanceMap.containsKey(authorId)) {
-			OffsetDateTime availableTime = gameInstanceMap.get(authorId);
-			if (currentTime.isBefore(availableTime)) {
-				long waitTime = availableTime.toEpochSecond() - currentTime.toEpochSecond();
-				event.getChannel().sendTyping().queue();
-				event.getChannel().sendMessage(String.format("You can only have 1 %s game open at the same time. " +
-								"Finish your %s game or wait %d seconds.", commandName, commandName, waitTime))
-						.queue();
-				return true;
-			} else {
-				gameInstanceMap.remove(authorId);
-			}
-		} else {
-			gameInstanceMap.put(authorId, newAvailableTime);
-		}
-		return false;
+	public long checkInstanceOpen(long userId) {
+		return LeaseManager.getInstance().acquire(this, LeaseManager.Type.INSTANCE, userId, instanceTime);
+	}
+
+	/**
+	 * Closes the instance the user has open, so they can open another one right away.
+	 */
+	public void closeInstance(long userId) {
+		LeaseManager.getInstance().release(this, LeaseManager.Type.INSTANCE, userId);
 	}
 
 	/**
 	 * Updates the command tracker for a specific user;
 	 */
 	public void updateCommandTrackerUser(String commandName, String userId) {
-		DatabaseManager manager = DatabaseManager.getInstance();
-		ArrayList<String> query = manager.query(CommandTrackerTableQueries.checkIfCommandUsageUserTracked, DatabaseManager.QueryTypes.RETURN, commandName, userId);
-		if (query.size() == 0) {
-			manager.query(CommandTrackerTableQueries.addCommandUsageUserToTracker, DatabaseManager.QueryTypes.UPDATE, commandName, userId, "1");
-		} else {
-			ArrayList<String> result = manager.query(CommandTrackerTableQueries.checkCommandUsageUserAmount, DatabaseManager.QueryTypes.RETURN, commandName, userId);
-			String newAmount = Integer.toString(Integer.parseInt(result.get(0)) + 1);
-			manager.query(CommandTrackerTableQueries.updateCommandUsageUserAmount, DatabaseManager.QueryTypes.UPDATE, newAmount, commandName, userId);
-		}
+		CommandTracker.getInstance().increment(commandName, userId);
 	}
 
 	/**
 	 * Generates a message with the stats of that specific command.
 	 */
 	public void generateStats(@NotNull MessageReceivedEvent event, String commandName) {
-		DatabaseManager manager = DatabaseManager.getInstance();
-		System.out.println(commandName);
-		ArrayList<String> personalAmount = manager.query(CommandTrackerTableQueries.checkCommandUsageUserAmount, DatabaseManager.QueryTypes.RETURN, commandName, event.getAuthor().getId());
-		ArrayList<String> globalAmount = manager.query(CommandTrackerTableQueries.checkCommandUsageGlobalAmount, DatabaseManager.QueryTypes.RETURN, commandName);
+		CommandTracker tracker = CommandTracker.getInstance();
+		long personalAmount = tracker.getUserAmount(commandName, event.getAuthor().getId());
+		long globalAmount = tracker.getGlobalAmount(commandName);
 
 		EmbedBuilder stats = new EmbedBuilder();
 		EmbedUtils.styleEmbed(stats, event.getAuthor());
 		stats.setTitle(String.format("Stats for %s", commandName));
-		stats.addField("Personal Usages", String.format("You have used this command %d times.", Integer.parseInt(personalAmount.get(0))), false);
-		stats.addField("Global Usages", String.format("This command has been used a total of %d times.", Integer.parseInt(globalAmount.get(0))), false);
+		stats.addField("Personal Usages", String.format("You have used this command %d times.", personalAmount), false);
+		stats.addField("Global Usages", String.format("This command has been used a total of %d times.", globalAmount), false);
 
-		event.getChannel().sendTyping().queue();
+		MessageDispatcher.getInstance().sendTyping(event.getChannel());
 		event.getChannel().sendMessageEmbeds(stats.build()).setActionRow(
-				Button.secondary(event.getAuthor().getId() + ":delete", "Delete")).queue();
+				Button.secondary(ComponentId.encode(event.getAuthor().getId(), "delete"), "Delete")).queue();
 	}
 
 	/**
 	 * Generates a standard help message for when the command is called with the --help flag.
 	 */
-	public EmbedBuilder generateHelp(String commandName, String commandDescription, String @NotNull [] commandArgs,
-									 String @NotNull [] aliases, String[] flags, int cooldown,
-									 @NotNull ArrayList<Command> subCommands, @NotNull Guild guild, @NotNull User author) {
+	public EmbedBuilder generateHelp(@NotNull Guild guild, @NotNull User author) {
 		String prefix = CommandHandler.prefixes.get(guild.getId());
-
-		EmbedBuilder info = new EmbedBuilder();
+		EmbedBuilder info = new EmbedBuilder(getDescriptor().getHelp(prefix));
 		EmbedUtils.styleEmbed(info, author);
-		info.setTitle(commandName);
-		info.setDescription(commandDescription);
-
-		StringBuilder argumentsText = getArgumentsText(commandName, commandArgs, prefix);
-		info.addField(
-				"Usage",
-				argumentsText.toString(),
-				false
-		);
-
-		if (!(subCommands.size() == 0)) {
-			StringBuilder subCommandsText = getSubCommandsText(commandName, subCommands, prefix);
-			info.addField("Sub Commands", subCommandsText.toString(), false);
-		}
-
-		if (!(aliases.length == 0)) {
-			StringBuilder aliasesText = new StringBuilder();
-			for (int i = 0; i < aliases.length; i++) {
-				aliasesText.append('`').append(aliases[i]).append('`');
-				if (!(i + 1 == flags.length)) {
-					aliasesText.append(", ");
-				}
-			}
-			info.addField("Aliases", aliasesText.toString(), false);
-		}
-
-		if (!(flags.length == 0)) {
-			StringBuilder flagsText = new StringBuilder();
-			for (int i = 0; i < flags.length; i++) {
-				flagsText.append('`').append(flags[i]).append('`');
-				if (!(i + 1 == flags.length)) {
-					flagsText.append(", ");
-				}
-			}
-			info.addField("Flags", flagsText.toString(), false);
-		}
-
-		if (cooldown > 0) {
-			info.addField("Cooldown", String.format("%d seconds.", cooldown), false);
-		}
-
-		if (!permissions.isEmpty()) {
-			StringBuilder permissionsText = new StringBuilder();
-			permissions.forEach((s, permission) -> permissionsText.append("`").append(s).append("`"));
-			info.addField("Permissions", permissionsText.toString(), false);
-		}
-
 		return info;
 	}
 
-	/**
-	 * Builds a String that explains the sub commands a command has.
-	 */
-	@NotNull
-	private StringBuilder getSubCommandsText(String commandName, @NotNull ArrayList<Command> subCommands, String prefix) {
-		StringBuilder subCommandsText = new StringBuilder();
-		for (Command subCommand : subCommands) {
-			subCommandsText.append("\n`").append(prefix).append(String.format("%s ", commandName)).append(subCommand.commandName);
-			if (!(subCommand.commandArgs.length == 0)) {
-				for (int y = 0; y < subCommand.commandArgs.length; y++) {
-					subCommandsText.append(String.format(" {%s}", subCommand.commandArgs[y]));
-				}
-			}
-			subCommandsText.append("`\n").append(subCommand.commandDescription);
-		}
-		return subCommandsText;
-	}
-
-	/**
-	 * Builds a String that explains the usage of a command.
-	 */
-	@NotNull
-	private StringBuilder getArgumentsText(String commandName, String @NotNull [] commandArgs, String prefix) {
-		StringBuilder argumentsText = new StringBuilder();
-		if (commandArgs.length == 0) {
-			argumentsText.append("`").append(prefix).append(commandName).append("`");
-		} else {
-			argumentsText.append("`").append(prefix).append(commandName).append(" ");
-			for (int i = 0; i < commandArgs.length; i++) {
-				argumentsText.append("{").append(commandArgs[i]).append("}");
-				if (!(i + 1 == commandArgs.length)) {
-					argumentsText.append(" ");
-				}
-			}
-			argumentsText.append('`');
-			argumentsText.append("\n Arguments marked with * are optional, " +
-					"arguments marked with ** accept multiple inputs.");
-		}
-		return argumentsText;
-	}
-
 	/**
 	 * Generates and sends a message for when the command has been improperly used.
 	 */
-	public void sendCommandUsage(@NotNull MessageReceivedEvent event, String commandName, String @NotNull [] commandArgs) {
+	public void sendCommandUsage(@NotNull MessageReceivedEvent event) {
 		String prefix = CommandHandler.prefixes.get(event.getGuild().getId());
-		String consumerId = event.getAuthor().getId();
 
 		EmbedBuilder info = new EmbedBuilder();
 		EmbedUtils.styleEmbed(info, event.getAuthor());
 		info.setTitle("Missing required arguments");
-		info.setDescription(getArgumentsText(commandName, commandArgs, prefix));
+		info.setDescription(getDescriptor().getUsage(prefix));
 
-		event.getChannel().sendTyping().queue();
+		MessageDispatcher.getInstance().sendTyping(event.getChannel());
 		event.getChannel().sendMessageEmbeds(info.build()).setActionRow(
-				Button.secondary(event.getAuthor().getId() + ":delete", "Delete")).queue();
+				Button.secondary(ComponentId.encode(event.getAuthor().getId(), "delete"), "Delete")).queue();
 	}
 
 	/**
 	 * Generates and sends a message for when the parent command has been called without a sub command.
 	 */
-	public void sendCommandExplanation(@NotNull MessageReceivedEvent event, String commandName,
-									   @NotNull ArrayList<Command> subCommands, String prefix) {
-		EmbedBuilder embed = new EmbedBuilder();
+	public void sendCommandExplanation(@NotNull MessageReceivedEvent event, String prefix) {
+		EmbedBuilder embed = new EmbedBuilder(getDescriptor().getExplanation(prefix));
 		EmbedUtils.styleEmbed(embed, event.getAuthor());
-		embed.setTitle(commandName);
-		embed.setDescription("This is the base command for all wordle related commands. Please use any of the " +
-				"commands listed below.");
-		embed.addField("Sub Commands", getSubCommandsText(commandName, subCommands, prefix).toString(), false);
 		event.getChannel().sendMessageEmbeds(embed.build()).setActionRow(
-				Button.secondary(event.getAuthor().getId() + ":delete", "Delete")).queue();
-	}
-
-	/**
-	 * Calculates the required amount of arguments a command has.
-	 *
-	 * @return the required amount of arguments
-	 */
-	public int calculateRequiredArgs(String @NotNull [] commandArgs) {
-		int requiredArgs = 0;
-		for (String commandArg : commandArgs) {
-			if (!commandArg.contains("*")) {
-				requiredArgs += 1;
-			}
-		}
-		return requiredArgs;
+				Button.secondary(ComponentId.encode(event.getAuthor().getId(), "delete"), "Delete")).queue();
 	}
 
 	/**
@@ -367,8 +231,7 @@ public abstract class Command {
 	 *
 	 * @return true if the user has the required permissions, false otherwise.
 	 */
-	public boolean checkRequiredPermissions(@NotNull Event event, @NotNull HashMap<String, Permission> permissions) {
-		AtomicBoolean hasPermission = new AtomicBoolean(false);
+	public boolean checkRequiredPermissions(@NotNull Event event) {
 		Member member = null;
 		if(event instanceof MessageReceivedEvent) {
 			member = ((MessageReceivedEvent) event).getMember();
@@ -376,18 +239,9 @@ public abstract class Command {
 			member = ((SlashCommandInteractionEvent) event).getMember();
 		}
 		if (member == null) {
-			hasPermission.set(false);
-			return hasPermission.get();
-		}
-		if (permissions.isEmpty()) {
-			hasPermission.set(true);
-		} else {
-			Member finalMember = member;
-			permissions.forEach((s, p) -> {
-				hasPermission.set(finalMember.getPermissions().contains(p));
-			});
+			return false;
 		}
-		return hasPermission.get();
+		return getDescriptor().hasPermissions(member);
 	}
 
 	/**
@@ -436,10 +290,12 @@ public abstract class Command {
 		EmbedUtils.styleEmbed(embed, user);
 		if(event instanceof MessageReceivedEvent) {
 			((MessageReceivedEvent) event).getChannel().sendMessageEmbeds(embed.build()).setActionRow(
-					Button.secondary(((MessageReceivedEvent) event).getAuthor().getId() + ":delete", "Delete")).queue();
+					Button.secondary(ComponentId.encode(((MessageReceivedEvent) event).getAuthor().getId(), "delete"),
+							"Delete")).queue();
 		} else {
 			((SlashCommandInteractionEvent) event).replyEmbeds(embed.build()).addActionRow(
-					Button.secondary(((SlashCommandInteractionEvent) event).getUser().getId() + ":delete", "Delete")).queue();
+					Button.secondary(ComponentId.encode(((SlashCommandInteractionEvent) event).getUser().getId(),
+							"delete"), "Delete")).queue();
 		}
 	}
 
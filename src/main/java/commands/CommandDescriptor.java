@@ -0,0 +1,188 @@
+package commands;
+
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Everything about a command that doesn't change after the commands are loaded: the amount of required arguments, the
+ * required permissions as a bitmask and the help, usage and explanation texts.
+ * The texts contain the prefix of the guild, so they are rendered once per prefix and cached until a prefix changes.
+ * The cached embeds aren't styled, a copy is styled for the user that asked for it.
+ */
+public class CommandDescriptor {
+
+	private final String name;
+	private final String description;
+	private final String[] commandArgs;
+	private final String[] aliases;
+	private final String[] flags;
+	private final int cooldown;
+	private final List<Command> subCommands;
+	private final List<String> permissionNames;
+	private final int requiredArgs;
+	private final long permissionBits;
+	private final Map<String, Rendered> renderedByPrefix;
+
+	/**
+	 * @param name the full name of the command, including the name of its parent
+	 */
+	CommandDescriptor(@NotNull Command command, @NotNull String name) {
+		this.name = name;
+		this.description = command.commandDescription;
+		this.commandArgs = command.commandArgs.clone();
+		this.aliases = command.aliases.clone();
+		this.flags = command.flags.clone();
+		this.cooldown = command.cooldown;
+		this.subCommands = List.copyOf(command.subCommands);
+		this.permissionNames = List.copyOf(command.permissions.keySet());
+		this.permissionBits = Permission.getRaw(command.permissions.values());
+		int required = 0;
+		for (String commandArg : commandArgs) {
+			if (!commandArg.contains("*")) {
+				required++;
+			}
+		}
+		this.requiredArgs = required;
+		this.renderedByPrefix = new ConcurrentHashMap<>();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the amount of arguments that aren't marked as optional
+	 */
+	public int getRequiredArgs() {
+		return requiredArgs;
+	}
+
+	/**
+	 * @return true if the member has every permission the command requires
+	 */
+	public boolean hasPermissions(@NotNull Member member) {
+		return permissionBits == 0 || (Permission.getRaw(member.getPermissions()) & permissionBits) == permissionBits;
+	}
+
+	/**
+	 * @return the help of the command for the --help flag and the help command
+	 */
+	public @NotNull MessageEmbed getHelp(@NotNull String prefix) {
+		return render(prefix).help;
+	}
+
+	/**
+	 * @return how the command is used, with all its arguments
+	 */
+	public @NotNull String getUsage(@NotNull String prefix) {
+		return render(prefix).usage;
+	}
+
+	/**
+	 * @return the explanation of a parent command that lists its sub commands
+	 */
+	public @NotNull MessageEmbed getExplanation(@NotNull String prefix) {
+		return render(prefix).explanation;
+	}
+
+	/**
+	 * Forgets the texts of every prefix, they are rendered again the next time they are needed.
+	 */
+	public void clearRendered() {
+		renderedByPrefix.clear();
+	}
+
+	private Rendered render(String prefix) {
+		return renderedByPrefix.computeIfAbsent(prefix, p -> new Rendered(renderHelp(p), renderUsage(p),
+				renderExplanation(p)));
+	}
+
+	private @NotNull MessageEmbed renderHelp(String prefix) {
+		EmbedBuilder info = new EmbedBuilder();
+		info.setTitle(name);
+		info.setDescription(description);
+		info.addField("Usage", renderUsage(prefix), false);
+		if (!subCommands.isEmpty()) {
+			info.addField("Sub Commands", renderSubCommands(prefix), false);
+		}
+		if (aliases.length > 0) {
+			info.addField("Aliases", joinCode(List.of(aliases)), false);
+		}
+		if (flags.length > 0) {
+			info.addField("Flags", joinCode(List.of(flags)), false);
+		}
+		if (cooldown > 0) {
+			info.addField("Cooldown", String.format("%d seconds.", cooldown), false);
+		}
+		if (!permissionNames.isEmpty()) {
+			info.addField("Permissions", joinCode(permissionNames), false);
+		}
+		return info.build();
+	}
+
+	private @NotNull String renderUsage(String prefix) {
+		StringBuilder argumentsText = new StringBuilder();
+		argumentsText.append("`").append(prefix).append(name);
+		if (commandArgs.length == 0) {
+			return argumentsText.append("`").toString();
+		}
+		for (String commandArg : commandArgs) {
+			argumentsText.append(" {").append(commandArg).append("}");
+		}
+		argumentsText.append('`');
+		argumentsText.append("\n Arguments marked with * are optional, " +
+				"arguments marked with ** accept multiple inputs.");
+		return argumentsText.toString();
+	}
+
+	private @NotNull String renderSubCommands(String prefix) {
+		StringBuilder subCommandsText = new StringBuilder();
+		for (Command subCommand : subCommands) {
+			subCommandsText.append("\n`").append(prefix).append(name).append(' ').append(subCommand.commandName);
+			for (String commandArg : subCommand.commandArgs) {
+				subCommandsText.append(String.format(" {%s}", commandArg));
+			}
+			subCommandsText.append("`\n").append(subCommand.commandDescription);
+		}
+		return subCommandsText.toString();
+	}
+
+	private MessageEmbed renderExplanation(String prefix) {
+		EmbedBuilder embed = new EmbedBuilder();
+		embed.setTitle(name);
+		embed.setDescription(String.format("This is the base command for all %s related commands. Please use any of " +
+				"the commands listed below.", name));
+		if (!subCommands.isEmpty()) {
+			embed.addField("Sub Commands", renderSubCommands(prefix), false);
+		}
+		return embed.build();
+	}
+
+	private static @NotNull String joinCode(@NotNull List<String> values) {
+		List<String> quoted = new ArrayList<>(values.size());
+		for (String value : values) {
+			quoted.add(String.format("`%s`", value));
+		}
+		return String.join(", ", quoted);
+	}
+
+	private static class Rendered {
+		private final MessageEmbed help;
+		private final String usage;
+		private final MessageEmbed explanation;
+
+		private Rendered(MessageEmbed help, String usage, MessageEmbed explanation) {
+			this.help = help;
+			this.usage = usage;
+			this.explanation = explanation;
+		}
+	}
+}
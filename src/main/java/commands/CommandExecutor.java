@@ -0,0 +1,177 @@
+package commands;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utility.Config;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs commands and button clicks on a bounded pool of worker threads, so a slow command never holds up the thread that
+ * dispatches JDA events.
+ * The work of a single user runs in the order it was submitted, one task at a time, while the work of different users
+ * runs in parallel. Work is rejected when too many tasks are waiting, and a task is interrupted once it runs too long.
+ * The next task of the user only starts once an interrupted task has actually stopped.
+ * This class is a singleton.
+ */
+public class CommandExecutor {
+
+	final static Logger logger = LoggerFactory.getLogger(CommandExecutor.class);
+
+	private static CommandExecutor instance;
+
+	private final ThreadPoolExecutor workers;
+	private final ScheduledExecutorService timeouts;
+	// the last task of every user that has work waiting or running, new work of the user is chained onto it
+	private final ConcurrentHashMap<String, CompletableFuture<Void>> userTails;
+	private final AtomicInteger pending;
+	private final int queueSize;
+	private final long defaultTimeout;
+
+	/**
+	 * A private constructor since this class is a singleton.
+	 */
+	private CommandExecutor() {
+		Config config = Config.getInstance();
+		AtomicInteger threadCount = new AtomicInteger(0);
+		this.workers = new ThreadPoolExecutor(config.commandExecutorThreads, config.commandExecutorThreads,
+				60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			Thread thread = new Thread(runnable, String.format("command-worker-%d", threadCount.incrementAndGet()));
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.timeouts = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "command-timeouts");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.userTails = new ConcurrentHashMap<>();
+		this.pending = new AtomicInteger(0);
+		this.queueSize = config.commandExecutorQueueSize;
+		this.defaultTimeout = config.commandTimeout;
+	}
+
+	/**
+	 * Get the only existing instance of this class.
+	 *
+	 * @return The instance of this class.
+	 */
+	public static CommandExecutor getInstance() {
+		if (instance == null) {
+			instance = new CommandExecutor();
+		}
+		return instance;
+	}
+
+	/**
+	 * Runs the work of the user after all the work the user submitted before, with the default timeout.
+	 *
+	 * @see #submit(String, String, long, Runnable)
+	 */
+	public boolean submit(@NotNull String userId, @NotNull String name, @NotNull Runnable work) {
+		return submit(userId, name, 0, work);
+	}
+
+	/**
+	 * Runs the work of the user after all the work the user submitted before.
+	 *
+	 * @param name    the name of the work for the logs
+	 * @param timeout the seconds the work may run before it is interrupted, 0 for the default timeout
+	 * @return false if the work was rejected because the bot is busy
+	 */
+	public boolean submit(@NotNull String userId, @NotNull String name, long timeout, @NotNull Runnable work) {
+		if (pending.incrementAndGet() > queueSize) {
+			pending.decrementAndGet();
+			logger.warn(String.format("Rejected %s of user %s, %d tasks are already waiting.", name, userId, queueSize));
+			return false;
+		}
+		long seconds = timeout > 0 ? timeout : defaultTimeout;
+		CompletableFuture<Void> finished = new CompletableFuture<>();
+		CompletableFuture<Void> previous = userTails.put(userId, finished);
+		if (previous == null) {
+			previous = CompletableFuture.completedFuture(null);
+		}
+		previous.thenCompose(ignored -> execute(userId, name, seconds, work)).whenComplete((ignored, e) -> {
+			if (e != null) {
+				logger.error(String.format("Failed to execute %s of user %s: %s", name, userId, e.getMessage()));
+			}
+			pending.decrementAndGet();
+			// forget the user once their last task is done
+			userTails.remove(userId, finished);
+			finished.complete(null);
+		});
+		return true;
+	}
+
+	/**
+	 * Runs the work on a worker thread. The timeout starts once the work starts, so time spent waiting behind other
+	 * work doesn't count, and interrupts the worker thread when it is up.
+	 *
+	 * @return a future that completes once the work has returned, also after it timed out, so the next task of the user
+	 * never runs next to it. It never completes exceptionally so the next task of the user always runs
+	 */
+	private @NotNull CompletableFuture<Void> execute(String userId, String name, long seconds, Runnable work) {
+		CompletableFuture<Void> done = new CompletableFuture<>();
+		workers.execute(() -> {
+			Thread worker = Thread.currentThread();
+			// guarded by itself, so the timeout can't interrupt the thread once it has moved on to other work
+			AtomicBoolean running = new AtomicBoolean(true);
+			Future<?> timeout = timeouts.schedule(() -> {
+				synchronized (running) {
+					if (running.get()) {
+						worker.interrupt();
+						logger.warn(String.format("Interrupted %s of user %s after %d seconds, the next work of " +
+								"the user waits until it stops.", name, userId, seconds));
+					}
+				}
+			}, seconds, TimeUnit.SECONDS);
+			try {
+				work.run();
+			} catch (RuntimeException e) {
+				logger.error(String.format("Failed to execute %s of user %s: %s", name, userId, e.getMessage()), e);
+			} finally {
+				timeout.cancel(false);
+				synchronized (running) {
+					running.set(false);
+				}
+				// clear the interrupt of a timeout the work didn't notice
+				Thread.interrupted();
+				done.complete(null);
+			}
+		});
+		return done;
+	}
+
+	/**
+	 * @return the amount of tasks that are waiting or running
+	 */
+	public int getPending() {
+		return pending.get();
+	}
+
+	/**
+	 * Stops taking new work and waits a short while for the running work to finish.
+	 */
+	public void close() {
+		workers.shutdown();
+		timeouts.shutdownNow();
+		try {
+			if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+				workers.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			workers.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+}
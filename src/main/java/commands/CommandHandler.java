@@ -4,17 +4,19 @@ import database.DatabaseManager;
 import database.queries.DailiesTableQueries;
 import database.queries.PrefixTableQueries;
 import database.queries.UserTableQueries;
+import net.dv8tion.jda.api.entities.MessageChannel;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import utility.MessageDispatcher;
+import utility.Metrics;
 import utility.User;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Handles the incoming commands.
@@ -23,22 +25,28 @@ import java.util.stream.Collectors;
  */
 public class CommandHandler extends ListenerAdapter {
 
-	public final static HashMap<String, String> prefixes = new HashMap<>();
+	// read on the event threads and changed by the prefix command on the command workers
+	public final static ConcurrentHashMap<String, String> prefixes = new ConcurrentHashMap<>();
+	public final static String busyMessage = "The bot is busy right now, try again in a moment.";
+	private final static String slowDownMessage = "You're using commands too fast, slow down.";
 	private final static Logger logger = LoggerFactory.getLogger(CommandHandler.class);
 	private final User user;
 	private final DatabaseManager manager;
+	private final CommandExecutor commandExecutor;
+	private final RateLimiter rateLimiter;
+	private final Metrics metrics;
 
 	public CommandHandler() {
 		this.user = User.getInstance();
 		this.manager = DatabaseManager.getInstance();
+		this.commandExecutor = CommandExecutor.getInstance();
+		this.rateLimiter = RateLimiter.getInstance();
+		this.metrics = Metrics.getInstance();
 		// loads all the prefixes into a map
-		ArrayList<String> query = manager.query(PrefixTableQueries.getAllPrefixes, DatabaseManager.QueryTypes.RETURN);
-		for (int i = 0; i < query.size(); i += 2) {
-			prefixes.put(query.get(i), query.get(i + 1));
-			if (i == query.size()) {
-				break;
-			}
-		}
+		manager.stream(PrefixTableQueries.getAllPrefixes, row -> {
+			prefixes.put(row.getString("serverId"), row.getString("prefix"));
+			return true;
+		});
 	}
 
 	@Override
@@ -48,85 +56,80 @@ public class CommandHandler extends ListenerAdapter {
 			return;
 		}
 
-		String guildId = event.getGuild().getId();
-		List<String> receivedMessage = Arrays.stream(event.getMessage().getContentRaw().split("\\s+"))
-				.map(String::toLowerCase).collect(Collectors.toList());
-		AtomicBoolean commandFound = new AtomicBoolean(false);
-		String prefix = prefixes.get(guildId);
-		// check if the message starts with the prefix
-		if (receivedMessage.get(0).startsWith(prefix)) {
-			CommandLoader.commandList.keySet().stream().takeWhile(i -> !commandFound.get()).forEach(strings -> {
-				if (receivedMessage.size() == 0) {
-					return;
-				}
-				if (strings.contains(receivedMessage.get(0).toLowerCase(Locale.ROOT).replaceFirst(prefix, ""))) {
-					// stops the loop
-					commandFound.set(true);
-
-					receivedMessage.remove(0);
-					Command command = CommandLoader.commandList.get(strings);
-					String fullCommandName = command.commandName;
-					// check if the user is calling to a subcommand of this command
-					if (receivedMessage.size() > 0) {
-						for (Command subCommand : command.subCommands) {
-							if (receivedMessage.get(0).toLowerCase(Locale.ROOT).equals(subCommand.commandName)) {
-								receivedMessage.remove(0);
-								command = subCommand;
-								fullCommandName += String.format(" %s", subCommand.commandName);
-								break;
-							}
-						}
-					}
-					// check for flags if one or multiple arguments are present
-					if (receivedMessage.size() > 0) {
-						if (command.checkForFlags(event, receivedMessage, fullCommandName, command.commandDescription,
-								command.commandArgs, command.aliases, command.flags, command.cooldown, command.subCommands)) {
-							return;
-						}
-					}
-					// check if the author has the required permissions
-					if (!command.checkRequiredPermissions(event, command.permissions)) {
-						command.sendMissingPermissions(event, command.commandName, command.permissions, prefix);
-						return;
-					}
-					// check if the command is a parent command
-					if (command instanceof ParentCmd) {
-						command.sendCommandExplanation(event, command.commandName, command.subCommands, prefix);
-						return;
-					}
-					// check if all required args are present
-					if (command.calculateRequiredArgs(command.commandArgs) > receivedMessage.size()) {
-						command.sendCommandUsage(event, command.commandName, command.commandArgs);
-						return;
-					}
-					// check for potential cooldown
-					if (command.cooldown > 0) {
-						boolean onCooldown = command.checkCooldown(event, command.cooldownMap);
-						if (onCooldown) {
-							return;
-						}
-					}
-					// check for single instance
-					if (command.singleInstance) {
-						boolean instanceOpen = command.checkInstanceOpen(event, command.gameInstanceMap, command.commandName);
-						if (instanceOpen) {
-							return;
-						}
-					}
-					// update the tracker
-					String userId = event.getAuthor().getId();
-					command.updateCommandTrackerUser(fullCommandName, userId);
-					// check if this user exists in the database otherwise add it
-					if (!user.checkIfUserExists(userId)) {
-						addUserToDatabase(event.getAuthor());
-					}
-					user.updateExperience(userId, 10, event.getAuthor().getAsMention(), event.getChannel());
-					// execute the command
-					command.executeCommand(event, receivedMessage);
-					logger.info(String.format("Executed command: %s | Author: %s.", fullCommandName,
-							event.getAuthor().getName()));
-				}
-			});
+		long started = System.nanoTime();
+		String content = event.getMessage().getContentRaw();
+		String prefix = prefixes.get(event.getGuild().getId());
+		// most messages are chat, so check the prefix before anything is allocated
+		if (!content.regionMatches(true, 0, prefix, 0, prefix.length())) {
+			return;
+		}
+		int nameEnd = MessageTokenizer.tokenEnd(content, prefix.length());
+		Command command = CommandLoader.commandIndex.getCommand(content.substring(prefix.length(), nameEnd));
+		if (command == null) {
+			return;
+		}
+		// reject spam before the arguments are read or the database is touched
+		long authorId = event.getAuthor().getIdLong();
+		if (rateLimiter.acquire(event.getGuild().getIdLong(), authorId, command) != null) {
+			// tell the user at most once per window, so spam doesn't turn into a reply per message
+			if (rateLimiter.shouldWarn(authorId)) {
+				event.getChannel().sendMessage(slowDownMessage).queue();
+			}
+			return;
+		}
+		List<String> receivedMessage = MessageTokenizer.tokenize(content, nameEnd);
+		String fullCommandName = command.commandName;
+		// check if the user is calling to a subcommand of this command
+		if (receivedMessage.size() > 0) {
+			Command subCommand = CommandLoader.commandIndex.getSubCommand(command, receivedMessage.get(0));
+			if (subCommand != null) {
+				receivedMessage = receivedMessage.subList(1, receivedMessage.size());
+				command = subCommand;
+				fullCommandName += String.format(" %s", subCommand.commandName);
+			}
+		}
+		long parsed = System.nanoTime();
+		metrics.recordCommand(fullCommandName, Metrics.Stage.PARSE, parsed - started);
+		// check for flags if one or multiple arguments are present
+		if (receivedMessage.size() > 0) {
+			if (command.checkForFlags(event, receivedMessage, fullCommandName, command.commandDescription,
+					command.commandArgs, command.aliases, command.flags, command.cooldown, command.subCommands)) {
+				return;
+			}
+		}
+		// check if the author has the required permissions
+		if (!command.checkRequiredPermissions(event)) {
+			command.sendMissingPermissions(event, command.commandName, command.permissions, prefix);
+			return;
+		}
+		// check if the command is a parent command
+		if (command instanceof ParentCmd) {
+			command.sendCommandExplanation(event, prefix);
+			return;
+		}
+		// check if all required args are present
+		if (command.getDescriptor().getRequiredArgs() > receivedMessage.size()) {
+			command.sendCommandUsage(event);
+			return;
+		}
+		// check for potential cooldown and single instance
+		String leaseMessage = checkLeases(command, authorId);
+		if (leaseMessage != null) {
+			MessageDispatcher.getInstance().sendTyping(event.getChannel());
+			event.getChannel().sendMessage(leaseMessage).queue();
+			return;
+		}
+		metrics.recordCommand(fullCommandName, Metrics.Stage.CHECKS, System.nanoTime() - parsed);
+		Command finalCommand = command;
+		String finalCommandName = fullCommandName;
+		List<String> finalArgs = receivedMessage;
+		boolean accepted = runCommand(finalCommand, fullCommandName, event.getAuthor(), event.getChannel(), () -> {
+			finalCommand.executeCommand(event, finalArgs);
+			logger.info(String.format("Executed command: %s | Author: %s.", finalCommandName,
+					event.getAuthor().getName()));
+		});
+		if (!accepted) {
+			event.getChannel().sendMessage(busyMessage).queue();
 		}
 	}
 
@@ -136,43 +139,108 @@ public class CommandHandler extends ListenerAdapter {
 		if (event.getGuild() == null) {
 			return;
 		}
-		AtomicBoolean commandFound = new AtomicBoolean(false);
-		CommandLoader.commandList.keySet().stream().takeWhile(i -> !commandFound.get()).forEach(strings -> {
-			if (strings.contains(event.getName()) || strings.contains(event.getSubcommandName())) {
-				commandFound.set(true);
-				Command command = CommandLoader.commandList.get(strings);
-				String fullCommandName = command.commandName;
-				if(event.getSubcommandName() != null) {
-					for (Command subCommand : command.subCommands) {
-						if (event.getSubcommandName().toLowerCase(Locale.ROOT).equals(subCommand.commandName)) {
-							command = subCommand;
-							fullCommandName += String.format(" %s", subCommand.commandName);
-							break;
-						}
-					}
-				} else {
-					command = CommandLoader.commandList.get(strings);
-				}
-				String prefix = prefixes.get(event.getGuild().getId());
-				if (!command.checkRequiredPermissions(event, command.permissions)) {
-					command.sendMissingPermissions(event, command.commandName, command.permissions, prefix);
-					return;
-				}
-				if (!user.checkIfUserExists(event.getUser().getId())) {
-					addUserToDatabase(event.getUser());
+		long started = System.nanoTime();
+		Command command = CommandLoader.commandIndex.getCommand(event.getName());
+		if (command == null) {
+			return;
+		}
+		long userId = event.getUser().getIdLong();
+		if (rateLimiter.acquire(event.getGuild().getIdLong(), userId, command) != null) {
+			if (rateLimiter.shouldWarn(userId)) {
+				event.reply(slowDownMessage).setEphemeral(true).queue();
+			}
+			return;
+		}
+		String fullCommandName = command.commandName;
+		if (event.getSubcommandName() != null) {
+			Command subCommand = CommandLoader.commandIndex.getSubCommand(command, event.getSubcommandName());
+			if (subCommand != null) {
+				command = subCommand;
+				fullCommandName += String.format(" %s", subCommand.commandName);
+			}
+		}
+		long parsed = System.nanoTime();
+		metrics.recordCommand(fullCommandName, Metrics.Stage.PARSE, parsed - started);
+		String prefix = prefixes.get(event.getGuild().getId());
+		if (!command.checkRequiredPermissions(event)) {
+			command.sendMissingPermissions(event, command.commandName, command.permissions, prefix);
+			return;
+		}
+		String leaseMessage = checkLeases(command, userId);
+		if (leaseMessage != null) {
+			event.reply(leaseMessage).setEphemeral(true).queue();
+			return;
+		}
+		metrics.recordCommand(fullCommandName, Metrics.Stage.CHECKS, System.nanoTime() - parsed);
+		Command finalCommand = command;
+		boolean accepted = runCommand(finalCommand, fullCommandName, event.getUser(), event.getChannel(),
+				() -> finalCommand.executeSlashCommand(event));
+		if (!accepted) {
+			event.reply(busyMessage).setEphemeral(true).queue();
+		}
+	}
+
+	/**
+	 * Checks the cooldown and the single instance of the command, and starts them if the user may use the command.
+	 *
+	 * @return the message to send to the user if they can't use the command yet, null if they can
+	 */
+	private String checkLeases(@NotNull Command command, long userId) {
+		if (command.cooldown > 0) {
+			long waitTime = command.checkCooldown(userId);
+			if (waitTime > 0) {
+				return String.format("You can use this command again in %d seconds.", waitTime);
+			}
+		}
+		if (command.singleInstance) {
+			long waitTime = command.checkInstanceOpen(userId);
+			if (waitTime > 0) {
+				return String.format("You can only have 1 %s game open at the same time. " +
+						"Finish your %s game or wait %d seconds.", command.commandName, command.commandName, waitTime);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Hands the command to the command workers, where the tracker is updated, the user is added to the database if
+	 * needed and awarded experience before the command is executed. The event thread never waits on the database.
+	 * The time of the database work and of the command itself are recorded separately.
+	 *
+	 * @return false if the bot is too busy to run the command
+	 */
+	private boolean runCommand(@NotNull Command command, String fullCommandName,
+							   net.dv8tion.jda.api.entities.@NotNull User author, MessageChannel channel,
+							   Runnable execution) {
+		String userId = author.getId();
+		boolean accepted = commandExecutor.submit(userId, fullCommandName, command.timeout, () -> {
+			long started = System.nanoTime();
+			try {
+				command.updateCommandTrackerUser(fullCommandName, userId);
+				if (!manager.exists(UserTableQueries.selectUser, userId)) {
+					addUserToDatabase(author);
 				}
-				command.executeSlashCommand(event);
-				command.updateCommandTrackerUser(fullCommandName, event.getUser().getId());
-				user.updateExperience(event.getUser().getId(), 10, event.getUser().getAsMention(), event.getChannel());
+				user.updateExperience(userId, 10, author.getAsMention(), channel);
+				long updated = System.nanoTime();
+				metrics.recordCommand(fullCommandName, Metrics.Stage.DATABASE, updated - started);
+				execution.run();
+				metrics.recordCommand(fullCommandName, Metrics.Stage.EXECUTE, System.nanoTime() - updated);
+			} catch (RuntimeException e) {
+				metrics.countCommandError(fullCommandName);
+				throw e;
 			}
 		});
-
+		if (accepted) {
+			metrics.countCommand(fullCommandName);
+		}
+		return accepted;
 	}
 
 	private void addUserToDatabase(net.dv8tion.jda.api.entities.User user) {
 		String userId = user.getId();
 		manager.query(UserTableQueries.addUser, DatabaseManager.QueryTypes.UPDATE, userId,
 				user.getName(), "0", "1", "0");
+		this.user.addToRanking(userId, 0);
 		manager.query(DailiesTableQueries.addUserDaily, DatabaseManager.QueryTypes.UPDATE, userId);
 	}
 
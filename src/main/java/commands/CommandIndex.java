@@ -0,0 +1,97 @@
+package commands;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Looks up commands by their name or one of their aliases, and subcommands by the command they belong to and their name.
+ * The index is built once when the commands are loaded and can't be changed afterwards, so it is shared by the prefix
+ * and slash dispatch and the help command without locking.
+ */
+public class CommandIndex {
+
+	private final List<Command> commands;
+	private final Map<String, Command> commandsByName;
+	private final Map<Command, Map<String, Command>> subCommandsByName;
+
+	/**
+	 * Indexes the commands, every name and alias has to be unique.
+	 *
+	 * @throws IllegalArgumentException if two commands share a name or alias
+	 */
+	public CommandIndex(@NotNull List<Command> commands) {
+		this.commands = List.copyOf(commands);
+		Map<String, Command> commandsByName = new HashMap<>();
+		Map<Command, Map<String, Command>> subCommandsByName = new IdentityHashMap<>();
+		for (Command command : commands) {
+			command.descriptor = new CommandDescriptor(command, command.commandName);
+			put(commandsByName, command.commandName, command);
+			for (String alias : command.aliases) {
+				put(commandsByName, alias, command);
+			}
+			if (!command.subCommands.isEmpty()) {
+				Map<String, Command> subCommands = new HashMap<>();
+				for (Command subCommand : command.subCommands) {
+					subCommand.descriptor = new CommandDescriptor(subCommand,
+							String.format("%s %s", command.commandName, subCommand.commandName));
+					put(subCommands, subCommand.commandName, subCommand);
+				}
+				subCommandsByName.put(command, Map.copyOf(subCommands));
+			}
+		}
+		this.commandsByName = Map.copyOf(commandsByName);
+		this.subCommandsByName = Collections.unmodifiableMap(subCommandsByName);
+	}
+
+	private static void put(@NotNull Map<String, Command> index, @NotNull String name, @NotNull Command command) {
+		Command previous = index.putIfAbsent(name.toLowerCase(Locale.ROOT), command);
+		if (previous != null && previous != command) {
+			throw new IllegalArgumentException(String.format("%s is used by both %s and %s.", name,
+					previous.commandName, command.commandName));
+		}
+	}
+
+	/**
+	 * @return the command with this name or alias, or null if there is none
+	 */
+	public @Nullable Command getCommand(@NotNull String name) {
+		return commandsByName.get(name.toLowerCase(Locale.ROOT));
+	}
+
+	/**
+	 * @return the subcommand of the command with this name, or null if there is none
+	 */
+	public @Nullable Command getSubCommand(@NotNull Command command, @NotNull String name) {
+		Map<String, Command> subCommands = subCommandsByName.get(command);
+		if (subCommands == null) {
+			return null;
+		}
+		return subCommands.get(name.toLowerCase(Locale.ROOT));
+	}
+
+	/**
+	 * Forgets the help texts of every command and sub command, this is needed when a prefix changes.
+	 */
+	public void clearRendered() {
+		for (Command command : commands) {
+			command.getDescriptor().clearRendered();
+			for (Command subCommand : command.subCommands) {
+				subCommand.getDescriptor().clearRendered();
+			}
+		}
+	}
+
+	/**
+	 * @return every command in the order they were loaded in
+	 */
+	public List<Command> getCommands() {
+		return commands;
+	}
+}
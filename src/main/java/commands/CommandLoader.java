@@ -2,6 +2,8 @@ package commands;
 
 import commands.bot.StatusCmd;
 import commands.bot.bug.BugCmd;
+import commands.botadmin.QueryStatsCmd;
+import commands.botadmin.RateLimitStatsCmd;
 import commands.botadmin.RemoveUserCmd;
 import commands.dnd.encounter.EncounterCmd;
 import commands.economy.DailyCmd;
@@ -19,16 +21,14 @@ import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
 import net.dv8tion.jda.api.requests.restaction.CommandListUpdateAction;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Loads in every command.
  */
 public class CommandLoader {
 
-    public static Map<List<String>, Command> commandList = new HashMap<>();
+    public static CommandIndex commandIndex = new CommandIndex(List.of());
 
     public static void loadAllCommands(JDA bot) {
         ArrayList<Command> commands = new ArrayList<>();
@@ -46,12 +46,10 @@ public class CommandLoader {
         commands.add(new WalletCmd());
         commands.add(new DailyCmd());
         commands.add(new RemoveUserCmd());
+        commands.add(new QueryStatsCmd());
+        commands.add(new RateLimitStatsCmd());
 
-        for (Command c : commands) {
-            ArrayList<String> keys = new ArrayList<>(List.of(c.aliases));
-            keys.add(c.commandName);
-            commandList.put(keys, c);
-        }
+        commandIndex = new CommandIndex(commands);
 
         CommandListUpdateAction slashCommands = bot.updateCommands();
 
@@ -86,9 +84,15 @@ public class CommandLoader {
                                         new Choice("total games played", "totalGamesPlayed"),
                                         new Choice("highest streak", "highestStreak"),
                                         new Choice("current streak", "currentStreak")
-                                )),
-                        new SubcommandData("play", "Play a game of wordle."),
-                        new SubcommandData("stats", "View your own blackjack statistics.")));
+                                ))
+                                .addOption(OptionType.BOOLEAN, "server", "Only show the members of this server.", false),
+                        new SubcommandData("play", "Play a game of wordle.")
+                                .addOption(OptionType.BOOLEAN, "hard", "Guesses have to use the letters you found.", false),
+                        new SubcommandData("stats", "View your own blackjack statistics."),
+                        new SubcommandData("solve", "Suggests the next guess for the results of a wordle game.")
+                                .addOption(OptionType.STRING, "guesses", "The guesses and their results, for example: crane bgybb.", false)
+                                .addOption(OptionType.BOOLEAN, "hard", "Only suggest guesses that are allowed in hard mode.", false),
+                        new SubcommandData("race", "Start a wordle race in this channel, the first to guess the word wins.")));
 
         slashCommands.addCommands(Commands.slash("bug", "Add bugs to the bots issue tracker, or view them.")
                 .addSubcommands(List.of(
@@ -109,7 +113,13 @@ public class CommandLoader {
         slashCommands.addCommands(Commands.slash("blackjack", "Blackjack brought to discord").addSubcommands(
                 new SubcommandData("play", "Play a game of blackjack on discord.")
                         .addOption(OptionType.INTEGER, "bet", "The amount of Morbcoins you want to bet.", false),
-                new SubcommandData("stats", "View your own blackjack statistics.")
+                new SubcommandData("stats", "View your own blackjack statistics."),
+                new SubcommandData("leaderboard", "View the blackjack leaderboards.")
+                        .addOptions(new OptionData(OptionType.STRING, "leaderboard", "The leaderboard you want to view.", true).addChoices(
+                                new Choice("total earnings", "totalEarnings"),
+                                new Choice("total wins", "totalWins")
+                        ))
+                        .addOption(OptionType.BOOLEAN, "server", "Only show the members of this server.", false)
         ));
 
         slashCommands.addCommands(Commands.slash("daily", "Collect your daily reward."));
@@ -0,0 +1,139 @@
+package commands;
+
+import org.jetbrains.annotations.NotNull;
+import utility.TimingWheel;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the cooldowns and open game instances of users, shared by the prefix and the slash commands.
+ * A lease is held by a user for a command until it expires or is released. Expired leases are removed by a hashed
+ * timing wheel that ticks once a second, so only the users that recently used a command take up memory.
+ * This class is a singleton.
+ */
+public class LeaseManager {
+
+	private static final int wheelSize = 512;
+	private static final long tickNanos = TimeUnit.SECONDS.toNanos(1);
+
+	private static LeaseManager instance;
+
+	private final ConcurrentHashMap<Key, Lease> leases;
+	private final TimingWheel<Key> wheel;
+
+	/**
+	 * A private constructor since this class is a singleton.
+	 */
+	private LeaseManager() {
+		this.leases = new ConcurrentHashMap<>();
+		this.wheel = new TimingWheel<>("lease-wheel", wheelSize, tickNanos, this::expire);
+	}
+
+	/**
+	 * Get the only existing instance of this class.
+	 *
+	 * @return The instance of this class.
+	 */
+	public static LeaseManager getInstance() {
+		if (instance == null) {
+			instance = new LeaseManager();
+		}
+		return instance;
+	}
+
+	/**
+	 * The kinds of leases a user can hold on a command.
+	 */
+	public enum Type {
+		COOLDOWN,
+		INSTANCE
+	}
+
+	/**
+	 * Gives the user a lease on the command if they don't hold one yet.
+	 *
+	 * @return 0 if the lease was acquired, otherwise the seconds until the lease the user holds expires
+	 */
+	public long acquire(@NotNull Command command, @NotNull Type type, long userId, long seconds) {
+		Key key = new Key(command, type, userId);
+		long now = System.nanoTime();
+		Lease lease = new Lease(now + TimeUnit.SECONDS.toNanos(seconds));
+		Lease current = leases.compute(key, (k, old) -> old != null && old.expiresAt - now > 0 ? old : lease);
+		if (current != lease) {
+			return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(current.expiresAt - now + tickNanos - 1));
+		}
+		// the lease is removed on the first tick after it expired
+		wheel.schedule(key, lease.expiresAt);
+		return 0;
+	}
+
+	/**
+	 * Releases the lease of the user before it expires.
+	 */
+	public void release(@NotNull Command command, @NotNull Type type, long userId) {
+		leases.remove(new Key(command, type, userId));
+	}
+
+	/**
+	 * @return the amount of leases that are held
+	 */
+	public int size() {
+		return leases.size();
+	}
+
+	/**
+	 * Removes the lease if it expired, leases that were released early are already gone.
+	 *
+	 * @return false if the lease expires after a later turn of the wheel
+	 */
+	private boolean expire(@NotNull Key key, long now) {
+		Lease lease = leases.get(key);
+		if (lease == null) {
+			return true;
+		}
+		if (lease.expiresAt - now <= 0) {
+			leases.remove(key, lease);
+			return true;
+		}
+		return false;
+	}
+
+	private static class Key {
+		private final Command command;
+		private final Type type;
+		private final long userId;
+
+		private Key(Command command, Type type, long userId) {
+			this.command = command;
+			this.type = type;
+			this.userId = userId;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) o;
+			return userId == key.userId && command == key.command && type == key.type;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(System.identityHashCode(command), type, userId);
+		}
+	}
+
+	private static class Lease {
+		private final long expiresAt;
+
+		private Lease(long expiresAt) {
+			this.expiresAt = expiresAt;
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package commands;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.RandomAccess;
+
+/**
+ * Splits the content of a message on whitespace without a regex.
+ * The handler reads the command name first and only tokenizes the arguments once a command is found, so chat that
+ * merely starts with the prefix is thrown away without building a list. The arguments are only the offsets of the
+ * tokens in the content, a token is made into a lowercase string the first time it is read.
+ */
+final class MessageTokenizer {
+
+	private MessageTokenizer() {
+	}
+
+	/**
+	 * @return the index right after the token that starts at the index
+	 */
+	static int tokenEnd(@NotNull String content, int start) {
+		int end = start;
+		while (end < content.length() && !isWhitespace(content.charAt(end))) {
+			end++;
+		}
+		return end;
+	}
+
+	/**
+	 * @return the lowercase tokens from the index up to the end of the content, as a view over the content that can't
+	 * be changed
+	 */
+	static @NotNull List<String> tokenize(@NotNull String content, int start) {
+		return new Tokens(content, start);
+	}
+
+	/**
+	 * The same characters as {@code \s} in a regex.
+	 */
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+
+	/**
+	 * The tokens of a message, found by their offsets when the list is made and read lazily.
+	 */
+	static final class Tokens extends AbstractList<String> implements RandomAccess {
+
+		private final String content;
+		// the start and end of every token, one after the other
+		private final int[] offsets;
+		private final String[] tokens;
+		private final int size;
+
+		private Tokens(@NotNull String content, int start) {
+			this.content = content;
+			int[] found = new int[8];
+			int amount = 0;
+			int index = start;
+			while (index < content.length()) {
+				if (isWhitespace(content.charAt(index))) {
+					index++;
+					continue;
+				}
+				int end = tokenEnd(content, index);
+				if (amount * 2 == found.length) {
+					found = Arrays.copyOf(found, found.length * 2);
+				}
+				found[amount * 2] = index;
+				found[amount * 2 + 1] = end;
+				amount++;
+				index = end;
+			}
+			this.offsets = found;
+			this.size = amount;
+			this.tokens = new String[amount];
+		}
+
+		@Override
+		public String get(int index) {
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException(String.format("Index %d is out of bounds for %d tokens.", index,
+						size));
+			}
+			String token = tokens[index];
+			if (token == null) {
+				token = content.substring(offsets[index * 2], offsets[index * 2 + 1]).toLowerCase(Locale.ROOT);
+				tokens[index] = token;
+			}
+			return token;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Only reads the tokens that can be the string, so looking for a flag doesn't lowercase every argument.
+		 */
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof String)) {
+				return false;
+			}
+			String value = (String) o;
+			for (int i = 0; i < size; i++) {
+				// lowercasing only changes the length of a token with letters outside of ascii
+				if (tokens[i] == null && length(i) != value.length() && isAscii(i)) {
+					continue;
+				}
+				if (get(i).equals(value)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private int length(int index) {
+			return offsets[index * 2 + 1] - offsets[index * 2];
+		}
+
+		private boolean isAscii(int index) {
+			for (int i = offsets[index * 2]; i < offsets[index * 2 + 1]; i++) {
+				if (content.charAt(i) > 127) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
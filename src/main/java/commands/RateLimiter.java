@@ -0,0 +1,261 @@
+package commands;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utility.Config;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the amount of commands with token buckets for the whole bot, every guild, every user and every command.
+ * A command takes a token from each of its buckets, starting with the bucket of the user so a single spammer only
+ * empties their own bucket. Idle buckets are full and are dropped, so only recently active guilds and users are kept.
+ * This class is a singleton.
+ */
+public class RateLimiter {
+
+	final static Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+	private static RateLimiter instance;
+
+	private final Map<Level, Limit> limits;
+	private final TokenBucket globalBucket;
+	private final ConcurrentHashMap<Long, TokenBucket> guildBuckets;
+	private final ConcurrentHashMap<Long, TokenBucket> userBuckets;
+	private final ConcurrentHashMap<String, TokenBucket> commandBuckets;
+	// the time the users were last told to slow down
+	private final ConcurrentHashMap<Long, Long> warnings;
+	private final long warningWindow;
+	private final LongAdder accepted;
+	private final Map<Level, LongAdder> rejected;
+
+	/**
+	 * A private constructor since this class is a singleton.
+	 */
+	private RateLimiter() {
+		Config config = Config.getInstance();
+		this.limits = new EnumMap<>(Level.class);
+		limits.put(Level.GLOBAL, new Limit(config.rateLimitGlobalRate, config.rateLimitGlobalBurst));
+		limits.put(Level.GUILD, new Limit(config.rateLimitGuildRate, config.rateLimitGuildBurst));
+		limits.put(Level.USER, new Limit(config.rateLimitUserRate, config.rateLimitUserBurst));
+		limits.put(Level.COMMAND, new Limit(config.rateLimitCommandRate, config.rateLimitCommandBurst));
+		this.globalBucket = new TokenBucket(limits.get(Level.GLOBAL));
+		this.guildBuckets = new ConcurrentHashMap<>();
+		this.userBuckets = new ConcurrentHashMap<>();
+		this.commandBuckets = new ConcurrentHashMap<>();
+		this.warnings = new ConcurrentHashMap<>();
+		this.warningWindow = TimeUnit.SECONDS.toNanos(config.rateLimitWarningWindow);
+		this.accepted = new LongAdder();
+		this.rejected = new EnumMap<>(Level.class);
+		for (Level level : Level.values()) {
+			rejected.put(level, new LongAdder());
+		}
+		ScheduledExecutorService cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "rate-limit-cleaner");
+			thread.setDaemon(true);
+			return thread;
+		});
+		cleaner.scheduleAtFixedRate(this::removeIdle, 1, 1, TimeUnit.MINUTES);
+	}
+
+	/**
+	 * Get the only existing instance of this class.
+	 *
+	 * @return The instance of this class.
+	 */
+	public static RateLimiter getInstance() {
+		if (instance == null) {
+			instance = new RateLimiter();
+		}
+		return instance;
+	}
+
+	/**
+	 * The levels a command is limited on.
+	 */
+	public enum Level {
+		USER,
+		COMMAND,
+		GUILD,
+		GLOBAL
+	}
+
+	/**
+	 * Takes a token from every bucket of the command. If one of the buckets is empty the tokens that were already taken
+	 * are given back.
+	 *
+	 * @return the level that rejected the command, or null if the command may run
+	 */
+	public @Nullable Level acquire(long guildId, long userId, @NotNull Command command) {
+		long now = System.nanoTime();
+		TokenBucket[] buckets = {
+				userBuckets.computeIfAbsent(userId, id -> new TokenBucket(limits.get(Level.USER))),
+				commandBuckets.computeIfAbsent(command.commandName, name -> new TokenBucket(limits.get(Level.COMMAND))),
+				guildBuckets.computeIfAbsent(guildId, id -> new TokenBucket(limits.get(Level.GUILD))),
+				globalBucket
+		};
+		for (int i = 0; i < buckets.length; i++) {
+			if (!buckets[i].tryTake(now)) {
+				for (int j = 0; j < i; j++) {
+					buckets[j].giveBack();
+				}
+				Level level = Level.values()[i];
+				rejected.get(level).increment();
+				return level;
+			}
+		}
+		accepted.increment();
+		return null;
+	}
+
+	/**
+	 * Checks if the user should be told to slow down, this is true at most once per warning window.
+	 */
+	public boolean shouldWarn(long userId) {
+		long now = System.nanoTime();
+		boolean[] warn = {false};
+		warnings.compute(userId, (id, warnedAt) -> {
+			if (warnedAt != null && now - warnedAt < warningWindow) {
+				return warnedAt;
+			}
+			warn[0] = true;
+			return now;
+		});
+		return warn[0];
+	}
+
+	/**
+	 * @return the current state of the buckets and the amount of accepted and rejected commands
+	 */
+	public @NotNull Snapshot snapshot() {
+		Map<Level, Long> rejectedCounts = new EnumMap<>(Level.class);
+		rejected.forEach((level, count) -> rejectedCounts.put(level, count.sum()));
+		return new Snapshot(accepted.sum(), rejectedCounts, globalBucket.getTokens(System.nanoTime()),
+				guildBuckets.size(), userBuckets.size(), commandBuckets.size());
+	}
+
+	/**
+	 * Drops the buckets that have filled up again and the warnings that are over.
+	 */
+	private void removeIdle() {
+		long now = System.nanoTime();
+		guildBuckets.values().removeIf(bucket -> bucket.isFull(now));
+		userBuckets.values().removeIf(bucket -> bucket.isFull(now));
+		commandBuckets.values().removeIf(bucket -> bucket.isFull(now));
+		warnings.values().removeIf(warnedAt -> now - warnedAt >= warningWindow);
+		logger.debug(String.format("Tracking rate limits of %d guilds and %d users.", guildBuckets.size(),
+				userBuckets.size()));
+	}
+
+	private static class Limit {
+		// tokens per nanosecond
+		private final double rate;
+		private final double burst;
+
+		/**
+		 * @param perMinute the amount of commands per minute
+		 * @param burst     the amount of commands that can be used at once
+		 */
+		private Limit(int perMinute, int burst) {
+			this.rate = perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+			this.burst = Math.max(1, burst);
+		}
+	}
+
+	private static class TokenBucket {
+		private final Limit limit;
+		private double tokens;
+		private long refilledAt;
+
+		private TokenBucket(Limit limit) {
+			this.limit = limit;
+			this.tokens = limit.burst;
+			this.refilledAt = System.nanoTime();
+		}
+
+		private synchronized boolean tryTake(long now) {
+			refill(now);
+			if (tokens < 1) {
+				return false;
+			}
+			tokens--;
+			return true;
+		}
+
+		private synchronized void giveBack() {
+			tokens = Math.min(limit.burst, tokens + 1);
+		}
+
+		private synchronized boolean isFull(long now) {
+			refill(now);
+			return tokens >= limit.burst;
+		}
+
+		private synchronized double getTokens(long now) {
+			refill(now);
+			return tokens;
+		}
+
+		private void refill(long now) {
+			long elapsed = now - refilledAt;
+			if (elapsed > 0) {
+				tokens = Math.min(limit.burst, tokens + elapsed * limit.rate);
+				refilledAt = now;
+			}
+		}
+	}
+
+	/**
+	 * The state of the rate limits at a single moment.
+	 */
+	public static class Snapshot {
+		private final long accepted;
+		private final Map<Level, Long> rejected;
+		private final double globalTokens;
+		private final int guildBuckets;
+		private final int userBuckets;
+		private final int commandBuckets;
+
+		private Snapshot(long accepted, Map<Level, Long> rejected, double globalTokens, int guildBuckets,
+						 int userBuckets, int commandBuckets) {
+			this.accepted = accepted;
+			this.rejected = rejected;
+			this.globalTokens = globalTokens;
+			this.guildBuckets = guildBuckets;
+			this.userBuckets = userBuckets;
+			this.commandBuckets = commandBuckets;
+		}
+
+		public long getAccepted() {
+			return accepted;
+		}
+
+		public long getRejected(@NotNull Level level) {
+			return rejected.get(level);
+		}
+
+		public double getGlobalTokens() {
+			return globalTokens;
+		}
+
+		public int getGuildBuckets() {
+			return guildBuckets;
+		}
+
+		public int getUserBuckets() {
+			return userBuckets;
+		}
+
+		public int getCommandBuckets() {
+			return commandBuckets;
+		}
+	}
+}
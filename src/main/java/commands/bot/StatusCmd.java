@@ -7,7 +7,9 @@ import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.interactions.components.buttons.Button;
 import org.jetbrains.annotations.NotNull;
+import utility.ComponentId;
 import utility.EmbedUtils;
+import utility.MessageDispatcher;
 
 import java.util.List;
 
@@ -48,9 +50,9 @@ public class StatusCmd extends Command implements BotCmd {
 		embed.addField("Random Information", String.format("The bot can see %d emotes and %d roles.",
 				emoteTotal, roleTotal), false);
 
-		event.getChannel().sendTyping().queue();
+		MessageDispatcher.getInstance().sendTyping(event.getChannel());
 		event.getChannel().sendMessageEmbeds(embed.build()).setActionRow(
-				Button.secondary(event.getAuthor().getId() + ":delete", "Delete")).queue();
+				Button.secondary(ComponentId.encode(event.getAuthor().getId(), "delete"), "Delete")).queue();
 	}
 
 }
@@ -11,8 +11,10 @@ import net.dv8tion.jda.api.interactions.components.ActionRow;
 import net.dv8tion.jda.api.interactions.components.buttons.Button;
 import org.jetbrains.annotations.NotNull;
 import org.kohsuke.github.GHIssue;
+import utility.ComponentId;
 import utility.EmbedUtils;
 import utility.GitHubBot;
+import utility.MessageDispatcher;
 import utility.Paginator;
 
 import java.util.ArrayList;
@@ -41,15 +43,15 @@ public class BugListCmd extends Command implements SubCmd {
 		paginator.addPages(pages);
 		String id = event.getAuthor().getId();
 		event.getChannel().sendMessageEmbeds(startingEmbed.build()).setActionRows(ActionRow.of(
-				Button.primary(id + ":previousPage", "Previous"),
-				Button.secondary(id + ":delete", "Delete"),
-				Button.primary(id + ":nextPage", "Next")
+				Button.primary(ComponentId.encode(id, "previousPage"), "Previous"),
+				Button.secondary(ComponentId.encode(id, "delete"), "Delete"),
+				Button.primary(ComponentId.encode(id, "nextPage"), "Next")
 		)).queue(message -> paginator.initialize(message.getId()));
 	}
 
 	@Override
 	public void executeSlashCommand(@NotNull SlashCommandInteractionEvent event) {
-		event.deferReply().queue();
+		MessageDispatcher.getInstance().acknowledge(event.deferReply());
 		ArrayList<EmbedBuilder> pages = createPages(event.getUser());
 		EmbedBuilder startingEmbed = pages.get(0);
 		EmbedUtils.styleEmbed(startingEmbed, event.getUser());
@@ -57,9 +59,9 @@ public class BugListCmd extends Command implements SubCmd {
 		paginator.addPages(pages);
 		String id = event.getUser().getId();
 		event.getHook().sendMessageEmbeds(startingEmbed.build()).addActionRows(ActionRow.of(
-				Button.primary(id + ":previousPage", "Previous"),
-				Button.secondary(id + ":delete", "Delete"),
-				Button.primary(id + ":nextPage", "Next")
+				Button.primary(ComponentId.encode(id, "previousPage"), "Previous"),
+				Button.secondary(ComponentId.encode(id, "delete"), "Delete"),
+				Button.primary(ComponentId.encode(id, "nextPage"), "Next")
 		)).queue(message -> paginator.initialize(message.getId()));
 	}
 
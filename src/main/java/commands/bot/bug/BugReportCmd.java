@@ -10,6 +10,7 @@ import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import org.jetbrains.annotations.NotNull;
 import utility.GitHubBot;
+import utility.MessageDispatcher;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -46,7 +47,7 @@ public class BugReportCmd extends Command implements SubCmd {
 
 	@Override
 	public void executeSlashCommand(@NotNull SlashCommandInteractionEvent event) {
-		event.deferReply().queue();
+		MessageDispatcher.getInstance().acknowledge(event.deferReply());
 		ArrayList<String> results = new ArrayList<>();
 		askQuestion(event.getJDA(), event.getChannel(), event.getUser(), this.questions,  results, event);
 	}
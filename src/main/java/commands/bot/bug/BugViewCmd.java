@@ -9,6 +9,7 @@ import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.interactions.components.buttons.Button;
 import org.jetbrains.annotations.NotNull;
 import org.kohsuke.github.GHIssue;
+import utility.ComponentId;
 import utility.EmbedUtils;
 import utility.GitHubBot;
 
@@ -35,14 +36,14 @@ public class BugViewCmd extends Command implements SubCmd {
 	@Override
 	public void executeCommand(@NotNull MessageReceivedEvent event, @NotNull List<String> args) {
 		if (args.size() < 1) {
-			sendCommandUsage(event, this.commandName, this.commandArgs);
+			sendCommandUsage(event);
 		} else {
 			Optional<EmbedBuilder> loadedBug = loadBug(Integer.parseInt(args.get(0)), event.getAuthor());
 			if (loadedBug.isEmpty()) {
 				event.getChannel().sendMessage(String.format("Bug with number: %s not found.", args.get(0))).queue();
 			} else {
 				event.getChannel().sendMessageEmbeds(loadedBug.get().build()).setActionRow(
-						Button.secondary(event.getAuthor().getId() + ":delete", "Delete")).queue();
+						Button.secondary(ComponentId.encode(event.getAuthor().getId(), "delete"), "Delete")).queue();
 			}
 		}
 	}
@@ -55,7 +56,7 @@ public class BugViewCmd extends Command implements SubCmd {
 			event.reply(String.format("Bug with number: %d not found.", id)).queue();
 		} else {
 			event.replyEmbeds(loadedBug.get().build()).addActionRow(
-					Button.secondary(event.getUser().getId() + ":delete", "Delete")).queue();
+					Button.secondary(ComponentId.encode(event.getUser().getId(), "delete"), "Delete")).queue();
 		}
 
 	}
@@ -0,0 +1,59 @@
+package commands.botadmin;
+
+import commands.Command;
+import database.DatabaseManager;
+import database.QueryMetrics;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.interactions.components.buttons.Button;
+import org.jetbrains.annotations.NotNull;
+import utility.ComponentId;
+import utility.EmbedUtils;
+
+import java.util.List;
+
+/**
+ * Shows the percentiles of the queries that took the most time in total.
+ * Only the owner of the bot can use this command.
+ */
+public class QueryStatsCmd extends Command {
+
+	private static final int maxQueries = 10;
+
+	public QueryStatsCmd() {
+		this.commandName = "querystats";
+		this.commandDescription = "Shows the slowest database queries.";
+	}
+
+	@Override
+	public void executeCommand(@NotNull MessageReceivedEvent event, List<String> args) {
+		event.getJDA().retrieveApplicationInfo().queue(info -> {
+			if (!info.getOwner().getId().equals(event.getAuthor().getId())) {
+				event.getChannel().sendMessage("Only the owner of the bot can use this command.").queue();
+				return;
+			}
+			List<QueryMetrics.QuerySnapshot> snapshots = DatabaseManager.getInstance().getMetrics().snapshot();
+			EmbedBuilder embed = new EmbedBuilder();
+			EmbedUtils.styleEmbed(embed, event.getAuthor());
+			embed.setTitle("Query Stats");
+			if (snapshots.isEmpty()) {
+				embed.setDescription("No queries have been executed yet.");
+			} else {
+				embed.setDescription(String.format("The %d queries that took the most time in total, out of %d.",
+						Math.min(maxQueries, snapshots.size()), snapshots.size()));
+			}
+			for (QueryMetrics.QuerySnapshot snapshot : snapshots.subList(0, Math.min(maxQueries, snapshots.size()))) {
+				String name = snapshot.getName().length() > 256 ? snapshot.getName().substring(0, 253) + "..." :
+						snapshot.getName();
+				embed.addField(name, String.format("`%d` calls, `%.1f` ms total\n" +
+								"p50 `%.3f` ms | p95 `%.3f` ms | p99 `%.3f` ms | max `%.3f` ms\n" +
+								"p99 rows `%d` | p99 connection wait `%.3f` ms",
+						snapshot.getCount(), snapshot.getTotalMillis(), snapshot.getP50Millis(),
+						snapshot.getP95Millis(), snapshot.getP99Millis(), snapshot.getMaxMillis(),
+						snapshot.getP99Rows(), snapshot.getP99AcquireMillis()), false);
+			}
+			event.getChannel().sendMessageEmbeds(embed.build()).setActionRow(
+					Button.secondary(ComponentId.encode(event.getAuthor().getId(), "delete"), "Delete")).queue();
+		});
+	}
+}
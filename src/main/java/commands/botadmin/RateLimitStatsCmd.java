@@ -0,0 +1,51 @@
+package commands.botadmin;
+
+import commands.Command;
+import commands.RateLimiter;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.interactions.components.buttons.Button;
+import org.jetbrains.annotations.NotNull;
+import utility.ComponentId;
+import utility.EmbedUtils;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Shows the state of the rate limits and how many commands they rejected.
+ * Only the owner of the bot can use this command.
+ */
+public class RateLimitStatsCmd extends Command {
+
+	public RateLimitStatsCmd() {
+		this.commandName = "ratelimitstats";
+		this.commandDescription = "Shows the state of the rate limits.";
+	}
+
+	@Override
+	public void executeCommand(@NotNull MessageReceivedEvent event, List<String> args) {
+		event.getJDA().retrieveApplicationInfo().queue(info -> {
+			if (!info.getOwner().getId().equals(event.getAuthor().getId())) {
+				event.getChannel().sendMessage("Only the owner of the bot can use this command.").queue();
+				return;
+			}
+			RateLimiter.Snapshot snapshot = RateLimiter.getInstance().snapshot();
+			EmbedBuilder embed = new EmbedBuilder();
+			EmbedUtils.styleEmbed(embed, event.getAuthor());
+			embed.setTitle("Rate Limit Stats");
+			embed.addField("Commands", String.format("`%d` accepted", snapshot.getAccepted()), false);
+			StringBuilder rejected = new StringBuilder();
+			for (RateLimiter.Level level : RateLimiter.Level.values()) {
+				rejected.append(String.format("%s: `%d`\n", level.name().toLowerCase(Locale.ROOT), snapshot.getRejected(level)));
+			}
+			embed.addField("Rejected", rejected.toString(), false);
+			embed.addField("Buckets", String.format("`%.1f` global tokens left\n" +
+							"`%d` guilds | `%d` users | `%d` commands",
+					snapshot.getGlobalTokens(), snapshot.getGuildBuckets(), snapshot.getUserBuckets(),
+					snapshot.getCommandBuckets()), false);
+			event.getChannel().sendMessageEmbeds(embed.build()).setActionRow(
+					Button.secondary(ComponentId.encode(event.getAuthor().getId(), "delete"), "Delete")).queue();
+		});
+	}
+}
@@ -13,9 +13,10 @@ import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.interactions.components.ActionRow;
 import net.dv8tion.jda.api.interactions.components.buttons.Button;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Unmodifiable;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import utility.ComponentId;
 import utility.EmbedUtils;
 import utility.EncounterGenerator;
 
@@ -32,7 +33,6 @@ public class EncounterGeneratorCmd extends Command implements SubCmd {
 	private final String[] difficulties;
 	private final String[] environments;
 	private final EncounterGenerator gen;
-	private final Map<String, Encounter> encounterCache;
 
 	private EncounterGeneratorCmd() {
 		this.commandName = "generate";
@@ -44,7 +44,6 @@ public class EncounterGeneratorCmd extends Command implements SubCmd {
 		this.environments = new String[]{"city", "dungeon", "forest", "nature", "other plane", "underground", "water"};
 		this.gen = EncounterGenerator.getInstance();
 		this.manager = DatabaseManager.getInstance();
-		this.encounterCache = new HashMap<>();
 	}
 
 	public static EncounterGeneratorCmd getInstance() {
@@ -57,7 +56,7 @@ public class EncounterGeneratorCmd extends Command implements SubCmd {
 	@Override
 	public void executeCommand(@NotNull MessageReceivedEvent event, @NotNull List<String> args) {
 		if (args.size() < 3) {
-			sendCommandUsage(event, this.commandName, this.commandArgs);
+			sendCommandUsage(event);
 			return;
 		}
 		int partySize;
@@ -103,15 +102,13 @@ public class EncounterGeneratorCmd extends Command implements SubCmd {
 				return;
 			}
 		}
-		Map<EmbedBuilder, Encounter> embedBuilderEncounterMap = buildEncounterEmbed(
-				event.getAuthor(), partySize, partyLevel, difficulty, environment);
-		EmbedBuilder embed = (EmbedBuilder) embedBuilderEncounterMap.keySet().toArray()[0];
-		MessageEmbed build = embed.build();
-		event.getChannel().sendMessageEmbeds(build).setActionRows(ActionRow.of(
-				Button.primary(event.getAuthor().getId() + ":regenerate", "Regenerate"),
-				Button.primary(event.getAuthor().getId() + ":save", "Save"),
-				Button.secondary(event.getAuthor().getId() + ":delete", "Delete"))).queue();
-		encounterCache.put(build.getFields().get(0).getValue(), embedBuilderEncounterMap.get(embed));
+		difficulty = difficulty.toLowerCase(Locale.ROOT);
+		if (environment != null) {
+			environment = environment.toLowerCase(Locale.ROOT);
+		}
+		EmbedBuilder embed = buildEncounterEmbed(event.getAuthor(), partySize, partyLevel, difficulty, environment);
+		event.getChannel().sendMessageEmbeds(embed.build()).setActionRows(getEncounterButtons(
+				event.getAuthor().getId(), partySize, partyLevel, difficulty, environment, true)).queue();
 	}
 
 	@Override
@@ -123,20 +120,42 @@ public class EncounterGeneratorCmd extends Command implements SubCmd {
 		if (!(event.getOption("environment") == null)) {
 			environment = Objects.requireNonNull(event.getOption("environment")).getAsString();
 		}
-		Map<EmbedBuilder, Encounter> embedBuilderEncounterMap = buildEncounterEmbed(
-				event.getUser(), partySize, partyLevel, difficulty, environment);
-		EmbedBuilder embed = (EmbedBuilder) embedBuilderEncounterMap.keySet().toArray()[0];
-		String id = event.getUser().getId();
-		MessageEmbed build = embed.build();
-		event.replyEmbeds(build).addActionRows(
-				ActionRow.of(Button.primary(id + ":regenerate", "Regenerate"),
-						Button.primary(id + ":save", "Save"),
-						Button.secondary(id + ":delete", "Delete"))).queue();
-		encounterCache.put(build.getFields().get(0).getValue(), embedBuilderEncounterMap.get(embed));
+		EmbedBuilder embed = buildEncounterEmbed(event.getUser(), partySize, partyLevel, difficulty, environment);
+		event.replyEmbeds(embed.build()).addActionRows(getEncounterButtons(event.getUser().getId(), partySize,
+				partyLevel, difficulty, environment, true)).queue();
+	}
+
+	/**
+	 * Makes the buttons under an encounter. The inputs of the encounter are kept in the ids of the buttons, so the
+	 * encounter can be regenerated and saved without keeping it in memory.
+	 *
+	 * @param savable false once the encounter has been saved
+	 */
+	public @NotNull ActionRow getEncounterButtons(String userId, int partySize, int partyLevel,
+												   @NotNull String difficulty, @Nullable String environment,
+												   boolean savable) {
+		int difficultyIndex = Arrays.asList(difficulties).indexOf(difficulty);
+		int environmentIndex = environment == null ? -1 : Arrays.asList(environments).indexOf(environment);
+		Button regenerate = Button.primary(ComponentId.encode(userId, "regenerate", partySize, partyLevel,
+				difficultyIndex, environmentIndex), "Regenerate");
+		Button delete = Button.secondary(ComponentId.encode(userId, "delete"), "Delete");
+		if (!savable) {
+			return ActionRow.of(regenerate, delete);
+		}
+		return ActionRow.of(regenerate, Button.primary(ComponentId.encode(userId, "save", partySize, partyLevel,
+				difficultyIndex, environmentIndex), "Save"), delete);
+	}
+
+	/**
+	 * Makes the buttons under an encounter with the inputs of the button that was clicked.
+	 */
+	public @NotNull ActionRow getEncounterButtons(@NotNull ComponentId id, boolean savable) {
+		return getEncounterButtons(id.getUserId(), id.getInt(0), id.getInt(1), getDifficulty(id), getEnvironment(id),
+				savable);
 	}
 
 	@NotNull
-	private @Unmodifiable Map<EmbedBuilder, Encounter> buildEncounterEmbed(@NotNull User author, int partySize, int partyLevel, String difficulty, String environment) {
+	private EmbedBuilder buildEncounterEmbed(@NotNull User author, int partySize, int partyLevel, String difficulty, String environment) {
 		Encounter encounter = gen.generateEncounter(partySize, partyLevel, difficulty, environment);
 		EmbedBuilder embed = new EmbedBuilder();
 		EmbedUtils.styleEmbed(embed, author);
@@ -148,49 +167,34 @@ public class EncounterGeneratorCmd extends Command implements SubCmd {
 		}
 		embed.setDescription(desc);
 		embed.addField("Encounter", encounter.toString(), false);
-		return Map.of(embed, encounter);
+		return embed;
 	}
 
 	/**
-	 * Generates the encounter with the same inputs.
+	 * Generates the encounter with the same inputs, which are read from the id of the button.
 	 */
-	public MessageEmbed regenerateEncounter(@NotNull MessageEmbed embed, User author) {
-		EmbedBuilder newEmbed = new EmbedBuilder();
-		EmbedUtils.styleEmbed(newEmbed, author);
-		newEmbed.setTitle(embed.getTitle());
-		String description = embed.getDescription();
-		newEmbed.setDescription(description);
-
-		Encounter encounter;
-		String oldDescription = embed.getFields().get(0).getValue();
-		encounter = encounterCache.get(oldDescription);
-		MessageEmbed build;
-
-		if (encounter == null) {
-			newEmbed.setDescription("Something went wrong!");
-			return newEmbed.build();
-		} else {
-			Encounter newEncounter = gen.generateEncounter(encounter.getPartySize(), encounter.getPartyLevel(),
-					encounter.getDifficulty(), encounter.getEnvironment());
-			newEmbed.addField("Encounter", newEncounter.toString(), false);
-			build = newEmbed.build();
-			encounterCache.remove(oldDescription);
-			encounterCache.put(build.getFields().get(0).getValue(), newEncounter);
-			return build;
-		}
+	public MessageEmbed regenerateEncounter(@NotNull ComponentId id, User author) {
+		return buildEncounterEmbed(author, id.getInt(0), id.getInt(1), getDifficulty(id), getEnvironment(id)).build();
 	}
 
 	/**
-	 * Saves the encounter to the database.
+	 * Saves the encounter that is shown in the embed to the database.
 	 */
-	public void saveEncounter(@NotNull MessageEmbed embed, @NotNull User author) {
+	public void saveEncounter(@NotNull ComponentId id, @NotNull MessageEmbed embed, @NotNull User author) {
 		String description = embed.getFields().get(0).getValue();
-		Encounter encounter = encounterCache.get(description);
-		if (encounter == null) {
-			return;
-		}
-		manager.query(EncounterTableQueries.saveEncounter, DatabaseManager.QueryTypes.UPDATE, author.getId(), String.valueOf(encounter.getPartySize()),
-				String.valueOf(encounter.getPartyLevel()), String.valueOf(encounter.getDifficulty()), description, encounter.getEnvironment());
+		String environment = getEnvironment(id);
+		manager.query(EncounterTableQueries.saveEncounter, DatabaseManager.QueryTypes.UPDATE, author.getId(),
+				String.valueOf(id.getInt(0)), String.valueOf(id.getInt(1)), getDifficulty(id), description,
+				environment);
+	}
+
+	private String getDifficulty(@NotNull ComponentId id) {
+		return difficulties[id.getInt(2)];
+	}
+
+	private @Nullable String getEnvironment(@NotNull ComponentId id) {
+		int environmentIndex = id.getInt(3);
+		return environmentIndex < 0 ? null : environments[environmentIndex];
 	}
 
 }
@@ -2,22 +2,30 @@ package commands.economy;
 
 import commands.Command;
 import database.DatabaseManager;
+import database.Transaction;
 import database.queries.DailiesTableQueries;
 import database.queries.UserTableQueries;
+import models.DailyStreak;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utility.MessageDispatcher;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Random;
 
 import static java.time.temporal.ChronoUnit.MINUTES;
 
 public class DailyCmd extends Command implements MorbconomyCmd {
 
+    final static Logger logger = LoggerFactory.getLogger(DailyCmd.class);
+
     private final DatabaseManager dbManager;
     private final Random random;
 
@@ -36,29 +44,44 @@ public class DailyCmd extends Command implements MorbconomyCmd {
 
     @Override
     public void executeSlashCommand(@NotNull SlashCommandInteractionEvent event) {
-        event.deferReply().queue();
+        MessageDispatcher.getInstance().acknowledge(event.deferReply());
         String s = updateDailies(event.getUser());
         event.getHook().sendMessage(s).queue();
     }
 
     private @NotNull String updateDailies(@NotNull User user) {
+        // roll the rewards up front, so a retried transaction pays out the same amount
         int reward = random.nextInt(5000) + 1000;
-
-        StringBuilder result = new StringBuilder();
+        int bonusMorbcoins = 5 * random.nextInt(100) + 25;
         String userId = user.getId();
         LocalDateTime currentTime = LocalDateTime.now();
+        try {
+            return dbManager.transaction(transaction -> claimDaily(transaction, userId, currentTime, reward,
+                    bonusMorbcoins));
+        } catch (SQLException e) {
+            logger.error(String.format("Failed to claim the daily of user %s: %s", userId, e.getMessage()));
+            return "Something went wrong.";
+        }
+    }
 
-        ArrayList<String> userDaily = dbManager.query(DailiesTableQueries.getUserDaily, DatabaseManager.QueryTypes.RETURN, userId);
-        String lastDailyDate = userDaily.get(1);
-        int streak = Integer.parseInt(userDaily.get(2));
-        int totalClaimed = Integer.parseInt(userDaily.get(3)) + 1;
-        if(lastDailyDate.equals("null")) {
+    /**
+     * Updates the streak and the wallet of the user in one transaction.
+     */
+    private @NotNull String claimDaily(@NotNull Transaction transaction, String userId, LocalDateTime currentTime,
+                                       int reward, int bonusMorbcoins) throws SQLException {
+        StringBuilder result = new StringBuilder();
+        Optional<DailyStreak> userDaily = transaction.queryOne(DailiesTableQueries.getUserDaily, DailyStreak::map, userId);
+        if(userDaily.isEmpty()) {
+            return "Something went wrong.";
+        }
+        LocalDateTime lastDailyTime = userDaily.get().getLastDailyDate();
+        int streak = userDaily.get().getStreak();
+        int totalClaimed = userDaily.get().getTotalClaimed() + 1;
+        if(lastDailyTime == null) {
             result.append(String.format("You claimed your first daily! You earn `%d` morbcoins.", reward));
             streak++;
         } else {
-            LocalDateTime lastDailyTime = LocalDateTime.parse(lastDailyDate);
             long minutesSinceLastDaily = MINUTES.between(lastDailyTime, currentTime);
-            System.out.println(minutesSinceLastDaily);
             if(minutesSinceLastDaily < 1440) {
                 // 24 hours haven't passed yet
                 long minutesTillNextDaily = 1440 - minutesSinceLastDaily;
@@ -82,17 +105,15 @@ public class DailyCmd extends Command implements MorbconomyCmd {
                 if(streak == 1) {
                     result.append(String.format("You earn `%d` morbcoins.", reward));
                 } else {
-                    int bonusMorbcoins = 5 * random.nextInt(100) + 25;
                     result.append(String.format("You earn `%d` morboins plus an additional `%d` morbcoins for being on a " +
                             "streak of `%d` day(s).", reward, bonusMorbcoins, streak));
                     reward += bonusMorbcoins;
                 }
             }
         }
-        dbManager.query(DailiesTableQueries.updateUserDaily, DatabaseManager.QueryTypes.UPDATE,
-                currentTime.toString(), String.valueOf(streak), String.valueOf(totalClaimed), userId);
-        ArrayList<String> currency = dbManager.query(UserTableQueries.getUserCurrency, DatabaseManager.QueryTypes.RETURN, userId);
-        dbManager.query(UserTableQueries.updateUserCurrency, DatabaseManager.QueryTypes.UPDATE, String.valueOf(Integer.parseInt(currency.get(0) + reward)), userId);
+        transaction.update(DailiesTableQueries.updateUserDaily, currentTime.toString(), streak, totalClaimed, userId);
+        int currency = transaction.queryInt(UserTableQueries.getUserCurrency, userId).orElse(0);
+        transaction.update(UserTableQueries.updateUserCurrency, currency + reward, userId);
         return result.toString();
     }
 
@@ -3,13 +3,16 @@ package commands.economy;
 import commands.Command;
 import database.DatabaseManager;
 import database.queries.UserTableQueries;
+import models.UserProfile;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.interactions.components.buttons.Button;
 import org.jetbrains.annotations.NotNull;
+import utility.ComponentId;
 import utility.EmbedUtils;
+import utility.MessageDispatcher;
 import utility.User;
 
 import java.text.DecimalFormat;
@@ -40,7 +43,7 @@ public class ProfileCmd extends Command implements MorbconomyCmd {
 			Optional<EmbedBuilder> embedBuilder = makeEmbed(name, author, author.getId());
 			if (embedBuilder.isPresent()) {
 				event.getChannel().sendMessageEmbeds(embedBuilder.get().build()).setActionRow(
-						Button.secondary(author.getId() + ":delete", "Delete")).queue();
+						Button.secondary(ComponentId.encode(author.getId(), "delete"), "Delete")).queue();
 			} else {
 				event.getChannel().sendMessage("Something went wrong.").queue();
 			}
@@ -60,7 +63,8 @@ public class ProfileCmd extends Command implements MorbconomyCmd {
 								Optional<EmbedBuilder> embed = makeEmbed(name, author, user.getId());
 								if (embed.isPresent()) {
 									event.getChannel().sendMessageEmbeds(embed.get().build()).setActionRow(
-											Button.secondary(author.getId() + ":delete", "Delete")).queue();
+											Button.secondary(ComponentId.encode(author.getId(), "delete"),
+													"Delete")).queue();
 								} else {
 									event.getChannel().sendMessage(String.format("User `%s` not found.", findUser)).queue();
 								}
@@ -74,14 +78,14 @@ public class ProfileCmd extends Command implements MorbconomyCmd {
 
 	@Override
 	public void executeSlashCommand(@NotNull SlashCommandInteractionEvent event) {
-		event.deferReply().queue();
+		MessageDispatcher.getInstance().acknowledge(event.deferReply());
 		net.dv8tion.jda.api.entities.User author = event.getUser();
 		if(event.getOption("user") == null) {
 			String name = author.getName();
 			Optional<EmbedBuilder> embedBuilder = makeEmbed(name, author, author.getId());
 			if (embedBuilder.isPresent()) {
 				event.getHook().sendMessageEmbeds(embedBuilder.get().build()).addActionRow(
-						Button.secondary(author.getId() + ":delete", "Delete")).queue();
+						Button.secondary(ComponentId.encode(author.getId(), "delete"), "Delete")).queue();
 			} else {
 				event.getHook().sendMessage("Something went wrong.").queue();
 			}
@@ -100,7 +104,8 @@ public class ProfileCmd extends Command implements MorbconomyCmd {
 								Optional<EmbedBuilder> embed = makeEmbed(name, author, user.getId());
 								if (embed.isPresent()) {
 									event.getHook().sendMessageEmbeds(embed.get().build()).addActionRow(
-											Button.secondary(author.getId() + ":delete", "Delete")).queue();
+											Button.secondary(ComponentId.encode(author.getId(), "delete"),
+													"Delete")).queue();
 								} else {
 									event.getHook().sendMessage(String.format("Can't create a profile for `%s`.", name)).queue();
 								}
@@ -116,34 +121,30 @@ public class ProfileCmd extends Command implements MorbconomyCmd {
 	 * Builds the embed for the Profile command.
 	 */
 	private Optional<EmbedBuilder> makeEmbed(String name, net.dv8tion.jda.api.entities.User author, String id) {
-		ArrayList<String> resultSelectUser = manager.query(UserTableQueries.selectUser, DatabaseManager.QueryTypes.RETURN, id);
-		ArrayList<String> resultGetUserRank = manager.query(UserTableQueries.getUserRankByExperience, DatabaseManager.QueryTypes.RETURN, id);
-		ArrayList<String> resultGetUserAmount = manager.query(UserTableQueries.getUserAmount, DatabaseManager.QueryTypes.RETURN);
-		if(resultSelectUser.size() == 0 || resultGetUserRank.size() == 0) {
+		Optional<UserProfile> resultSelectUser = manager.queryOne(UserTableQueries.selectUser, UserProfile::map, id);
+		OptionalInt resultGetUserRank = user.getRank(id);
+		if(resultSelectUser.isEmpty() || resultGetUserRank.isEmpty()) {
 			return Optional.empty();
 		}
-		String userName = resultSelectUser.get(1);
-		String currency = resultSelectUser.get(2);
-		String level = resultSelectUser.get(3);
-		String experience = resultSelectUser.get(4);
-		String rank = resultGetUserRank.get(0);
-		String userAmount = resultGetUserAmount.get(0);
+		int level = resultSelectUser.get().getLevel();
+		int experience = resultSelectUser.get().getExperience();
+		int rank = resultGetUserRank.getAsInt();
 
 		EmbedBuilder embed = new EmbedBuilder();
 		EmbedUtils.styleEmbed(embed, author);
 		embed.setTitle(name);
 
 		StringBuilder levelDescription = new StringBuilder();
-		Optional<String> levelProgressBar = generateLevelProgressBar(Integer.parseInt(level), Integer.parseInt(experience));
-		levelDescription.append(String.format("**Level:** `%s`\n", level));
-		levelDescription.append(String.format("**Experience:** `%s`\n", experience));
+		Optional<String> levelProgressBar = generateLevelProgressBar(level, experience);
+		levelDescription.append(String.format("**Level:** `%d`\n", level));
+		levelDescription.append(String.format("**Experience:** `%d`\n", experience));
 		if (levelProgressBar.isPresent()) {
 			levelDescription.append("**Progress till next level:** ");
 			levelDescription.append(String.format("`%s`\n", levelProgressBar.get()));
 		} else {
 			levelDescription.append("You are at the maximum level.\n");
 		}
-		levelDescription.append(String.format("**Rank:** `%s`", rank));
+		levelDescription.append(String.format("**Rank:** `%d`", rank));
 		embed.setDescription(levelDescription.toString());
 
 		return Optional.of(embed);
@@ -6,7 +6,6 @@ import database.queries.UserTableQueries;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class WalletCmd extends Command implements MorbconomyCmd {
@@ -23,8 +22,7 @@ public class WalletCmd extends Command implements MorbconomyCmd {
 	public void executeCommand(@NotNull MessageReceivedEvent event, @NotNull List<String> args) {
 		String authorId = event.getAuthor().getId();
 
-		ArrayList<String> query = dbManager.query(UserTableQueries.getUserCurrency, DatabaseManager.QueryTypes.RETURN, authorId);
-		int wallet = Integer.parseInt(query.get(0));
+		int wallet = dbManager.queryInt(UserTableQueries.getUserCurrency, authorId).orElse(0);
 
 		event.getChannel().sendMessage(String.format("You have `%d` morbcoins in your wallet.", wallet)).queue();
 	}
@@ -0,0 +1,111 @@
+package commands.games;
+
+import commands.Command;
+import commands.CommandExecutor;
+import commands.SubCmd;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.interactions.components.ActionRow;
+import net.dv8tion.jda.api.interactions.components.buttons.Button;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utility.ComponentId;
+import utility.EmbedUtils;
+import utility.Leaderboards;
+import utility.Paginator;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Basic implementation of a leaderboard of a game.
+ * The leaderboards are served from memory by {@link Leaderboards}, and every page is built when it is first shown.
+ */
+public abstract class LeaderboardCmd extends Command implements SubCmd {
+
+	private static final int pageSize = 15;
+	private final static Logger logger = LoggerFactory.getLogger(LeaderboardCmd.class);
+
+	protected final Leaderboards leaderboards = Leaderboards.getInstance();
+
+	/**
+	 * Makes a paginator for the board and hands it to the callback.
+	 * If a guild is given only its members are shown, which needs their ids to be looked up first. The members are
+	 * first looked for among the best players of all guilds, if that doesn't fill the board the top of all members of
+	 * the guild is read from the database. If the members can't be looked up the board of all guilds is shown instead.
+	 */
+	protected void makePaginator(@NotNull User author, @NotNull Leaderboards.Board board, @Nullable Guild guild,
+								 @NotNull Consumer<Paginator> callback) {
+		if (guild == null) {
+			callback.accept(makePaginator(author, board.getTitle(), board, leaderboards.getTop(board)));
+			return;
+		}
+		List<String> userIds = leaderboards.getTrackedUserIds(board);
+		String title = String.format("%s in %s", board.getTitle(), guild.getName());
+		if (userIds.isEmpty()) {
+			callback.accept(makePaginator(author, title, board, List.of()));
+			return;
+		}
+		guild.retrieveMembersByIds(userIds.toArray(new String[0])).onSuccess(members -> {
+			Set<String> memberIds = members.stream().map(Member::getId).collect(Collectors.toSet());
+			List<Leaderboards.Entry> top = leaderboards.getTop(board, memberIds::contains);
+			if (top.size() >= Leaderboards.size || leaderboards.isComplete(board)) {
+				callback.accept(makePaginator(author, title, board, top));
+				return;
+			}
+			guild.loadMembers().onSuccess(guildMembers -> {
+				List<String> guildMemberIds = guildMembers.stream().filter(member -> !member.getUser().isBot())
+						.map(Member::getId).collect(Collectors.toList());
+				// the database isn't read on the thread of the callback
+				boolean accepted = CommandExecutor.getInstance().submit(author.getId(), "leaderboard of a guild",
+						() -> callback.accept(makePaginator(author, title, board,
+								leaderboards.getTopOf(board, guildMemberIds))));
+				if (!accepted) {
+					callback.accept(makePaginator(author, title, board, top));
+				}
+			}).onError(e -> {
+				logger.warn(String.format("Failed to load the members of guild %s: %s", guild.getId(), e.getMessage()));
+				callback.accept(makePaginator(author, title, board, top));
+			});
+		}).onError(e -> {
+			logger.warn(String.format("Failed to look up the players of guild %s: %s", guild.getId(), e.getMessage()));
+			callback.accept(makePaginator(author, board.getTitle(), board, leaderboards.getTop(board)));
+		});
+	}
+
+	private @NotNull Paginator makePaginator(User author, String title, Leaderboards.Board board,
+											 @NotNull List<Leaderboards.Entry> entries) {
+		int totalPages = Math.max(1, (entries.size() + pageSize - 1) / pageSize);
+		return new Paginator(totalPages, page -> {
+			StringBuilder description = new StringBuilder();
+			for (int rank = page * pageSize; rank < Math.min(entries.size(), (page + 1) * pageSize); rank++) {
+				Leaderboards.Entry entry = entries.get(rank);
+				description.append(String.format("`%d`: %s - %d %s.\n", rank + 1, entry.getName(), entry.getScore(),
+						board.getUnit()));
+			}
+			EmbedBuilder embed = new EmbedBuilder();
+			EmbedUtils.styleEmbed(embed, author);
+			embed.setTitle(title);
+			embed.setDescription(description.toString());
+			embed.setFooter(String.format("Page %d/%d", page + 1, totalPages));
+			return embed;
+		});
+	}
+
+	/**
+	 * @return the buttons to go through the pages of a leaderboard
+	 */
+	protected @NotNull ActionRow getPageButtons(String authorId) {
+		return ActionRow.of(
+				Button.primary(ComponentId.encode(authorId, "previousPage"), "Previous"),
+				Button.secondary(ComponentId.encode(authorId, "delete"), "Delete"),
+				Button.primary(ComponentId.encode(authorId, "nextPage"), "Next")
+		);
+	}
+}
@@ -0,0 +1,73 @@
+package commands.games.blackjack;
+
+import commands.games.LeaderboardCmd;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.components.buttons.Button;
+import org.jetbrains.annotations.NotNull;
+import utility.ComponentId;
+import utility.EmbedUtils;
+import utility.Leaderboards;
+import utility.MessageDispatcher;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * View all the leaderboards for the Blackjack command.
+ */
+public class BlackjackLeaderboardCmd extends LeaderboardCmd {
+
+	public BlackjackLeaderboardCmd() {
+		this.commandName = "leaderboard";
+		this.commandDescription = "View the blackjack leaderboards.";
+		this.commandArgs = new String[]{"*leaderboard", "*server"};
+	}
+
+	@Override
+	public void executeCommand(@NotNull MessageReceivedEvent event, @NotNull List<String> args) {
+		User author = event.getAuthor();
+		String authorId = author.getId();
+
+		String leaderboard = String.join("", args).toLowerCase(Locale.ROOT);
+		Leaderboards.Board board = null;
+		if (leaderboard.contains("earnings")) {
+			board = Leaderboards.Board.BLACKJACK_EARNINGS;
+		} else if (leaderboard.contains("wins")) {
+			board = Leaderboards.Board.BLACKJACK_WINS;
+		}
+		if (board == null) {
+			EmbedBuilder embed = new EmbedBuilder();
+			EmbedUtils.styleEmbed(embed, author);
+			embed.setTitle("Leaderboards");
+			embed.setDescription("The following leaderboards are available:\n" +
+					"- **Total earnings.**\n" +
+					"- **Total wins.**\n" +
+					"Add **server** to only show the members of this server.");
+			event.getChannel().sendMessageEmbeds(embed.build()).setActionRow(
+					Button.secondary(ComponentId.encode(authorId, "delete"), "Delete")
+			).queue();
+			return;
+		}
+		makePaginator(author, board, leaderboard.contains("server") ? event.getGuild() : null, pager ->
+				event.getChannel().sendMessageEmbeds(pager.currentPage().build())
+						.setActionRows(getPageButtons(authorId))
+						.queue(message -> pager.initialize(message.getId())));
+	}
+
+	@Override
+	public void executeSlashCommand(@NotNull SlashCommandInteractionEvent event) {
+		MessageDispatcher.getInstance().acknowledge(event.deferReply());
+		User user = event.getUser();
+		OptionMapping server = event.getOption("server");
+		Leaderboards.Board board = event.getOption("leaderboard").getAsString().equals("totalWins") ?
+				Leaderboards.Board.BLACKJACK_WINS : Leaderboards.Board.BLACKJACK_EARNINGS;
+		String id = user.getId();
+		makePaginator(user, board, server != null && server.getAsBoolean() ? event.getGuild() : null, pager ->
+				event.getHook().sendMessageEmbeds(pager.currentPage().build()).addActionRows(getPageButtons(id))
+						.queue(message -> pager.initialize(message.getId())));
+	}
+}
@@ -15,13 +15,16 @@ import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.interactions.components.ActionRow;
 import net.dv8tion.jda.api.interactions.components.buttons.Button;
 import org.jetbrains.annotations.NotNull;
+import utility.ComponentId;
 import utility.EmbedUtils;
+import utility.MessageDispatcher;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class BlackjackPlayCmd extends Command implements SubCmd {
 
-	public static Map<String, Blackjack> blackjackGames = new HashMap<>();
+	public static Map<String, Blackjack> blackjackGames = new ConcurrentHashMap<>();
 
 	private final DatabaseManager dbManager;
 
@@ -46,8 +49,7 @@ public class BlackjackPlayCmd extends Command implements SubCmd {
 					event.getChannel().sendMessage("You can't bet `0` Morbcoins.").queue();
 					return;
 				} else {
-					ArrayList<String> query = dbManager.query(UserTableQueries.getUserCurrency, DatabaseManager.QueryTypes.RETURN, authorId);
-					int playerWallet = Integer.parseInt(query.get(0));
+					int playerWallet = dbManager.queryInt(UserTableQueries.getUserCurrency, authorId).orElse(0);
 					if(playerBet > playerWallet) {
 						event.getChannel().sendMessage(String.format("You can't bet `%d` Morbcoins, you only have `%d` in your wallet.", playerBet, playerWallet)).queue();
 						return;
@@ -61,8 +63,7 @@ public class BlackjackPlayCmd extends Command implements SubCmd {
 			}
 		}
 
-		ArrayList<String> result = dbManager.query(BlackjackTableQueries.checkIfUserExists, DatabaseManager.QueryTypes.RETURN, authorId);
-		if(result.size() == 0) {
+		if(!dbManager.exists(BlackjackTableQueries.checkIfUserExists, authorId)) {
 			dbManager.query(BlackjackTableQueries.addUser, DatabaseManager.QueryTypes.UPDATE, authorId);
 		}
 		if(blackjackGames.containsKey(authorId)) {
@@ -83,21 +84,18 @@ public class BlackjackPlayCmd extends Command implements SubCmd {
 			blackjackStates = blackJack.checkWin(true);
 			embed = generateBlackjackEmbed(event.getAuthor(), blackjackStates);
 			BlackjackPlayCmd.blackjackGames.remove(authorId);
-			event.getChannel().sendMessageEmbeds(embed.build()).setActionRows(ActionRow.of(
-					Button.primary(authorId + ":replayBlackjack", "Replay"),
-					Button.secondary(authorId + ":delete", "Delete")
-			)).queue();
+			event.getChannel().sendMessageEmbeds(embed.build()).setActionRows(getReplayButtons(authorId, bet)).queue();
 		} else {
 			embed = generateBlackjackEmbed(event.getAuthor(), null);
 			event.getChannel().sendMessageEmbeds(embed.build()).setActionRows(ActionRow.of(
-					Button.primary(authorId + ":stand", "Stand"),
-					Button.primary(authorId + ":hit", "Hit")
+					Button.primary(ComponentId.encode(authorId, "stand"), "Stand"),
+					Button.primary(ComponentId.encode(authorId, "hit"), "Hit")
 			)).queue();
 		}
 	}
 
 	public void executeSlashCommand(@NotNull SlashCommandInteractionEvent event) {
-		event.deferReply().queue();
+		MessageDispatcher.getInstance().acknowledge(event.deferReply());
 		String authorId = event.getUser().getId();
 		int bet;
 		if(event.getOption("bet") == null) {
@@ -108,16 +106,14 @@ public class BlackjackPlayCmd extends Command implements SubCmd {
 				event.getHook().sendMessage("You can't bet `0` Morbcoins.").queue();
 				return;
 			} else {
-				ArrayList<String> query = dbManager.query(UserTableQueries.getUserCurrency, DatabaseManager.QueryTypes.RETURN, authorId);
-				int playerWallet = Integer.parseInt(query.get(0));
+				int playerWallet = dbManager.queryInt(UserTableQueries.getUserCurrency, authorId).orElse(0);
 				if(bet > playerWallet) {
 					event.getHook().sendMessage(String.format("You can't bet `%d` Morbcoins, you only have `%d` in your wallet.", bet, playerWallet)).queue();
 					return;
 				}
 			}
 		}
-		ArrayList<String> result = dbManager.query(BlackjackTableQueries.checkIfUserExists, DatabaseManager.QueryTypes.RETURN, authorId);
-		if(result.size() == 0) {
+		if(!dbManager.exists(BlackjackTableQueries.checkIfUserExists, authorId)) {
 			dbManager.query(BlackjackTableQueries.addUser, DatabaseManager.QueryTypes.UPDATE, authorId);
 		}
 		if(blackjackGames.containsKey(authorId)) {
@@ -138,19 +134,26 @@ public class BlackjackPlayCmd extends Command implements SubCmd {
 			blackjackStates = blackJack.checkWin(true);
 			embed = generateBlackjackEmbed(event.getUser(), blackjackStates);
 			BlackjackPlayCmd.blackjackGames.remove(authorId);
-			event.getHook().sendMessageEmbeds(embed.build()).addActionRows(ActionRow.of(
-					Button.primary(authorId + ":replayBlackjack", "Replay"),
-					Button.secondary(authorId + ":delete", "Delete")
-			)).queue();
+			event.getHook().sendMessageEmbeds(embed.build()).addActionRows(getReplayButtons(authorId, bet)).queue();
 		} else {
 			embed = generateBlackjackEmbed(event.getUser(), null);
 			event.getHook().sendMessageEmbeds(embed.build()).addActionRows(ActionRow.of(
-					Button.primary(authorId + ":stand", "Stand"),
-					Button.primary(authorId + ":hit", "Hit")
+					Button.primary(ComponentId.encode(authorId, "stand"), "Stand"),
+					Button.primary(ComponentId.encode(authorId, "hit"), "Hit")
 			)).queue();
 		}
 	}
 
+	/**
+	 * Makes the buttons under a finished game, the bet is kept in the id of the replay button.
+	 */
+	public static @NotNull ActionRow getReplayButtons(@NotNull String authorId, int bet) {
+		return ActionRow.of(
+				Button.primary(ComponentId.encode(authorId, "replayBlackjack", bet), "Replay"),
+				Button.secondary(ComponentId.encode(authorId, "delete"), "Delete")
+		);
+	}
+
 	public static @NotNull EmbedBuilder generateBlackjackEmbed(@NotNull User user, BlackjackStates state) {
 		Blackjack game = blackjackGames.get(user.getId());
 
@@ -20,5 +20,7 @@ public class WordleCmd extends Command implements GamesCmd, ParentCmd {
 		this.subCommands.add(new WordlePlayCmd());
 		this.subCommands.add(new WordleLeaderboardCmd());
 		this.subCommands.add(new WordleStatsCmd());
+		this.subCommands.add(new WordleSolveCmd());
+		this.subCommands.add(new WordleRaceCmd());
 	}
 }
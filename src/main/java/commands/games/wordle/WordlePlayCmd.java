@@ -5,194 +5,264 @@ import commands.SubCmd;
 import database.DatabaseManager;
 import database.queries.WordleTableQueries;
 import games.Wordle;
+import games.WordleScore;
+import models.WordleStatistics;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
-import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 import net.dv8tion.jda.api.interactions.components.buttons.Button;
 import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utility.ComponentId;
 import utility.EmbedUtils;
+import utility.Leaderboards;
+import utility.MessageDispatcher;
 
+import java.sql.SQLException;
 import java.time.OffsetDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.TimeUnit;
+import java.util.Optional;
 
 /**
  * Play a game of wordle.
  */
 public class WordlePlayCmd extends Command implements SubCmd {
 
+	final static Logger logger = LoggerFactory.getLogger(WordlePlayCmd.class);
+
 	private final DatabaseManager manager;
+	private final MessageDispatcher dispatcher;
+	private final WordleSessionRouter router;
 
 	public WordlePlayCmd() {
 		this.commandName = "play";
 		this.commandDescription = "Play a game of wordle.";
+		this.commandArgs = new String[]{"*hard"};
 		this.instanceTime = 300;
 		this.singleInstance = true;
 		this.manager = DatabaseManager.getInstance();
+		this.dispatcher = MessageDispatcher.getInstance();
+		this.router = WordleSessionRouter.getInstance();
 	}
 
 	@Override
 	public void executeCommand(@NotNull MessageReceivedEvent event, @NotNull List<String> args) {
 		OffsetDateTime timeStarted = event.getMessage().getTimeCreated();
-		String authorId = event.getAuthor().getId();
-		Wordle wordle = new Wordle();
+		long channelId = event.getChannel().getIdLong();
+		long authorId = event.getAuthor().getIdLong();
+		Wordle wordle = new Wordle(args.stream().anyMatch("hard"::equalsIgnoreCase));
 		StringBuilder editDescription = new StringBuilder();
 		final boolean[] gameOver = {false};
 
 		EmbedBuilder wordleEmbed = new EmbedBuilder();
-		wordleEmbed.setTitle("Wordle");
+		wordleEmbed.setTitle(getTitle(wordle));
 		EmbedUtils.styleEmbed(wordleEmbed, event.getAuthor());
 
-		event.getChannel().sendMessageEmbeds(wordleEmbed.build()).queue(message -> {
-			extracted(null, timeStarted, authorId, wordle, editDescription, gameOver, wordleEmbed, message);
-		});
+		event.getChannel().sendMessageEmbeds(wordleEmbed.build()).setActionRow(getHintButton(authorId))
+				.queue(message -> startSession(null, timeStarted, channelId, authorId, wordle, editDescription,
+						gameOver, message));
 	}
 
 	@Override
 	public void executeSlashCommand(@NotNull SlashCommandInteractionEvent event) {
-		event.deferReply().queue();
+		MessageDispatcher.getInstance().acknowledge(event.deferReply());
 		OffsetDateTime timeStarted = event.getTimeCreated();
-		String authorId = event.getUser().getId();
-		Wordle wordle = new Wordle();
+		long channelId = event.getChannel().getIdLong();
+		long authorId = event.getUser().getIdLong();
+		OptionMapping hard = event.getOption("hard");
+		Wordle wordle = new Wordle(hard != null && hard.getAsBoolean());
 		StringBuilder editDescription = new StringBuilder();
 		final boolean[] gameOver = {false};
 
 		EmbedBuilder wordleEmbed = new EmbedBuilder();
-		wordleEmbed.setTitle("Wordle");
+		wordleEmbed.setTitle(getTitle(wordle));
 		EmbedUtils.styleEmbed(wordleEmbed, event.getUser());
 
-		event.getHook().sendMessageEmbeds(wordleEmbed.build()).queue(message -> {
-			extracted(event, timeStarted, authorId, wordle, editDescription, gameOver, wordleEmbed, message);
-		});
+		event.getHook().sendMessageEmbeds(wordleEmbed.build()).addActionRow(getHintButton(authorId))
+				.queue(message -> startSession(event, timeStarted, channelId, authorId, wordle, editDescription,
+						gameOver, message));
 	}
 
-	private void extracted(SlashCommandInteractionEvent slashCommandInteractionEvent,
-						   OffsetDateTime timeStarted, String authorId, Wordle wordle, StringBuilder editDescription,
-						   boolean[] gameOver, EmbedBuilder wordleEmbed, Message message) {
-		ListenerAdapter listener = new ListenerAdapter() {
-			@Override
-			public void onMessageReceived(@NotNull MessageReceivedEvent event) {
-				String id = event.getAuthor().getId();
-				if (authorId.equals(id)) {
-					EmbedBuilder newEmbed = new EmbedBuilder();
-					newEmbed.setTitle("Wordle");
-					EmbedUtils.styleEmbed(newEmbed, event.getAuthor());
-
-					editDescription.append(wordleEmbed.getDescriptionBuilder());
-					String guess = event.getMessage().getContentRaw().toLowerCase(Locale.ROOT);
-					char[] chars = guess.toCharArray();
-					if (!(chars.length > wordle.wordLength || chars.length < wordle.wordLength)) {
-						String[] result = wordle.guessWord(guess);
-						editDescription.append("` ");
-						int count = 0;
-						for (char letter : chars) {
-							if(count + 1 == chars.length) {
-								editDescription.append(String.format("%s ", letter));
-							} else {
-								editDescription.append(String.format("%s  ", letter));
-							}
-							count++;
-						}
-						editDescription.append("`\n");
-						for (String check : result) {
-							editDescription.append(String.format("%s ", check));
-						}
-						editDescription.append("\n");
-						if (wordle.guessed) {
-							OffsetDateTime timeWon = event.getMessage().getTimeCreated();
-							String timeTaken = String.valueOf(timeWon.toEpochSecond() - timeStarted.toEpochSecond());
-
-							event.getJDA().removeEventListener(this);
-							ArrayList<String> resultQuery = manager.query(WordleTableQueries.selectUserWordle,
-									DatabaseManager.QueryTypes.RETURN, id);
-							editDescription.append(String.format("You guessed the word in %s seconds. ", timeTaken));
-							if (resultQuery.size() == 0) {
-								manager.query(WordleTableQueries.addUserWordle, DatabaseManager.QueryTypes.UPDATE, id,
-										timeTaken, "true", "1", "1", "1");
-							} else {
-								int timeTakenAsInt = Integer.parseInt(timeTaken);
-								String currentFastestTime;
-								if (!resultQuery.get(1).equals("null")) {
-									int previousFastestTime = Integer.parseInt(resultQuery.get(1));
-									int currentFastestTimeInt = Math.min(timeTakenAsInt, previousFastestTime);
-									currentFastestTime = String.valueOf(currentFastestTimeInt);
-									if (timeTakenAsInt < previousFastestTime) {
-										editDescription.append(String.format("That's a new personal best with an improvement of %d seconds!",
-												previousFastestTime - timeTakenAsInt));
-									} else if (timeTakenAsInt == previousFastestTime) {
-										editDescription.append("You tied your personal best.");
-									}
-								} else {
-									currentFastestTime = timeTaken;
-								}
-								int newStreak = Integer.parseInt(resultQuery.get(3)) + 1;
-								int highestStreak = Integer.parseInt(resultQuery.get(5));
-								int newTotalGames = Integer.parseInt(resultQuery.get(4)) + 1;
-								int newHighestStreak = Math.max(highestStreak, newStreak);
-								manager.query(WordleTableQueries.updateUserWordle, DatabaseManager.QueryTypes.UPDATE,
-										currentFastestTime, "true", String.valueOf(newStreak),
-										String.valueOf(newTotalGames), String.valueOf(newHighestStreak), authorId);
-								editDescription.append(String.format("\n**Personal Best:** %s seconds.\n", currentFastestTime));
-								editDescription.append(String.format("**Current Streak:** %d games.\n", newStreak));
-								editDescription.append(String.format("**Highest Streak:** %d games.\n", newHighestStreak));
-								editDescription.append(String.format("**Total Games Played:** %d games.", newTotalGames));
-							}
-							gameOver[0] = true;
-						} else if (wordle.guesses + 1 == wordle.maxGuesses) {
-							ArrayList<String> resultQuery = manager.query(WordleTableQueries.selectUserWordle,
-									DatabaseManager.QueryTypes.RETURN, id);
-							editDescription.append(String.format("You ran out of guesses. The correct word was: `%s`.",
-									wordle.word));
-							if (resultQuery.size() == 0) {
-								manager.query(WordleTableQueries.addUserWordle, DatabaseManager.QueryTypes.UPDATE, id,
-										"null", "false", "0", "1", "0");
-							} else {
-								String highestStreak = resultQuery.get(5);
-								int newTotalGames = Integer.parseInt(resultQuery.get(4)) + 1;
-								manager.query(WordleTableQueries.updateUserWordle, DatabaseManager.QueryTypes.UPDATE,
-										String.valueOf(resultQuery.get(1)), "false", "0",
-										String.valueOf(newTotalGames), highestStreak, authorId);
-								String previousFastestTime = resultQuery.get(1);
-								if (previousFastestTime.equals("null")) {
-									editDescription.append("\n**Personal Best:** not set yet.\n");
-								} else {
-									editDescription.append(String.format("\n**Personal Best:** %s seconds.\n", previousFastestTime));
-								}
-								editDescription.append(String.format("**Highest Streak:** %s games.\n", highestStreak));
-								editDescription.append(String.format("**Total Games Played:** %d games.", newTotalGames));
-							}
-							event.getJDA().removeEventListener(this);
-							gameOver[0] = true;
-						}
-						newEmbed.setDescription(editDescription);
-						event.getMessage().delete().queue();
-						if (gameOver[0]) {
-							gameInstanceMap.remove(id);
-							if(slashCommandInteractionEvent != null) {
-								slashCommandInteractionEvent.getHook().editOriginalEmbeds(newEmbed.build()).setActionRow(
-										Button.secondary(event.getAuthor().getId() + ":delete", "Delete")
-								).queue();
-							} else {
-								message.editMessageEmbeds(newEmbed.build()).setActionRow(
-										Button.secondary(event.getAuthor().getId() + ":delete", "Delete")).queue();
-							}
-						} else {
-							if(slashCommandInteractionEvent != null) {
-								slashCommandInteractionEvent.getHook().editOriginalEmbeds(newEmbed.build()).queue();
-							} else {
-								message.editMessageEmbeds(newEmbed.build()).queue();
-							}
-						}
+	/**
+	 * Sends the messages of the player in the channel to the game until it is over or its instance time is up.
+	 */
+	private void startSession(SlashCommandInteractionEvent slashCommandInteractionEvent,
+							  OffsetDateTime timeStarted, long channelId, long authorId, Wordle wordle,
+							  StringBuilder editDescription, boolean[] gameOver, Message message) {
+		router.start(channelId, authorId, instanceTime, wordle, event -> {
+			// guesses that were sent before the game ended can still be waiting on the executor
+			if (gameOver[0]) {
+				return;
+			}
+			String id = event.getAuthor().getId();
+			EmbedBuilder newEmbed = new EmbedBuilder();
+			newEmbed.setTitle(getTitle(wordle));
+			EmbedUtils.styleEmbed(newEmbed, event.getAuthor());
+
+			String guess = event.getMessage().getContentRaw().toLowerCase(Locale.ROOT);
+			if (guess.length() == wordle.wordLength && !wordle.isValidGuess(guess)) {
+				// words that aren't in the dictionary don't cost a guess
+				event.getChannel().sendMessage("That word isn't in the word list, it doesn't count as a guess.")
+						.queue();
+			} else if (guess.length() == wordle.wordLength && !wordle.followsHardMode(guess)) {
+				event.getChannel().sendMessage("In hard mode a guess has to keep the green letters in place and use " +
+						"the yellow letters, it doesn't count as a guess.").queue();
+			} else if (guess.length() == wordle.wordLength) {
+				WordleScore.appendRow(editDescription, guess, wordle.guessWord(guess));
+				if (wordle.guessed) {
+					OffsetDateTime timeWon = event.getMessage().getTimeCreated();
+					String timeTaken = String.valueOf(timeWon.toEpochSecond() - timeStarted.toEpochSecond());
+
+					router.end(channelId, authorId);
+					editDescription.append(String.format("You guessed the word in %s seconds. ", timeTaken));
+					editDescription.append(saveWin(id, Integer.parseInt(timeTaken)));
+					gameOver[0] = true;
+				} else if (wordle.guesses + 1 == wordle.maxGuesses) {
+					editDescription.append(String.format("You ran out of guesses. The correct word was: `%s`.",
+							wordle.word));
+					editDescription.append(saveLoss(id));
+					router.end(channelId, authorId);
+					gameOver[0] = true;
+				}
+				newEmbed.setDescription(editDescription);
+				event.getMessage().delete().queue();
+				if (gameOver[0]) {
+					closeInstance(event.getAuthor().getIdLong());
+					if(slashCommandInteractionEvent != null) {
+						dispatcher.edit(message.getId(), slashCommandInteractionEvent.getHook()
+								.editOriginalEmbeds(newEmbed.build()).setActionRow(
+										Button.secondary(ComponentId.encode(event.getAuthor().getId(), "delete"),
+												"Delete")));
+					} else {
+						dispatcher.edit(message.getId(), message.editMessageEmbeds(newEmbed.build()).setActionRow(
+								Button.secondary(ComponentId.encode(event.getAuthor().getId(), "delete"), "Delete")));
+					}
+				} else {
+					if(slashCommandInteractionEvent != null) {
+						dispatcher.edit(message.getId(),
+								slashCommandInteractionEvent.getHook().editOriginalEmbeds(newEmbed.build()));
+					} else {
+						dispatcher.edit(message.getId(), message.editMessageEmbeds(newEmbed.build()));
 					}
 				}
 			}
-		};
-		message.getJDA().getRateLimitPool().schedule(() -> slashCommandInteractionEvent.getJDA().removeEventListener(listener), instanceTime,
-				TimeUnit.SECONDS);
-		message.getJDA().addEventListener(listener);
+		});
+	}
+
+	/**
+	 * @return the button that suggests a guess for the game the user plays in the channel of the button
+	 */
+	private static @NotNull Button getHintButton(long userId) {
+		return Button.secondary(ComponentId.encode(String.valueOf(userId), "wordleHint"), "Hint");
+	}
+
+	private static @NotNull String getTitle(@NotNull Wordle wordle) {
+		return wordle.hardMode ? "Wordle (hard mode)" : "Wordle";
+	}
+
+	/**
+	 * Saves a won game in one transaction.
+	 *
+	 * @return the updated statistics of the player to show in the embed
+	 */
+	private @NotNull String saveWin(String userId, int timeTaken) {
+		// the total games, current streak and highest streak after this game
+		int[] scores = {1, 1, 1};
+		try {
+			String description = manager.transaction(transaction -> {
+				StringBuilder text = new StringBuilder();
+				Optional<WordleStatistics> resultQuery = transaction.queryOne(WordleTableQueries.selectUserWordle,
+						WordleStatistics::map, userId);
+				if (resultQuery.isEmpty()) {
+					transaction.update(WordleTableQueries.addUserWordle, userId, timeTaken, 1, 1, 1, 1);
+					return text.toString();
+				}
+				WordleStatistics stats = resultQuery.get();
+				int currentFastestTime;
+				if (stats.hasFastestTime()) {
+					int previousFastestTime = stats.getFastestTime();
+					currentFastestTime = Math.min(timeTaken, previousFastestTime);
+					if (timeTaken < previousFastestTime) {
+						text.append(String.format("That's a new personal best with an improvement of %d seconds!",
+								previousFastestTime - timeTaken));
+					} else if (timeTaken == previousFastestTime) {
+						text.append("You tied your personal best.");
+					}
+				} else {
+					currentFastestTime = timeTaken;
+				}
+				int newStreak = stats.getStreak() + 1;
+				int newTotalGames = stats.getTotalGames() + 1;
+				int newHighestStreak = Math.max(stats.getHighestStreak(), newStreak);
+				transaction.update(WordleTableQueries.updateUserWordle, currentFastestTime, 1, newStreak,
+						newTotalGames, newHighestStreak, userId);
+				scores[0] = newTotalGames;
+				scores[1] = newStreak;
+				scores[2] = newHighestStreak;
+				text.append(String.format("\n**Personal Best:** %d seconds.\n", currentFastestTime));
+				text.append(String.format("**Current Streak:** %d games.\n", newStreak));
+				text.append(String.format("**Highest Streak:** %d games.\n", newHighestStreak));
+				text.append(String.format("**Total Games Played:** %d games.", newTotalGames));
+				return text.toString();
+			});
+			updateLeaderboards(userId, scores);
+			return description;
+		} catch (SQLException e) {
+			logger.error(String.format("Failed to save the wordle game of user %s: %s", userId, e.getMessage()));
+			return "";
+		}
+	}
+
+	/**
+	 * Saves a lost game in one transaction.
+	 *
+	 * @return the statistics of the player to show in the embed
+	 */
+	private @NotNull String saveLoss(String userId) {
+		// the total games, current streak and highest streak after this game
+		int[] scores = {1, 0, 0};
+		try {
+			String description = manager.transaction(transaction -> {
+				StringBuilder text = new StringBuilder();
+				Optional<WordleStatistics> resultQuery = transaction.queryOne(WordleTableQueries.selectUserWordle,
+						WordleStatistics::map, userId);
+				if (resultQuery.isEmpty()) {
+					transaction.update(WordleTableQueries.addUserWordle, userId, null, 0, 0, 1, 0);
+					return text.toString();
+				}
+				WordleStatistics stats = resultQuery.get();
+				int highestStreak = stats.getHighestStreak();
+				int newTotalGames = stats.getTotalGames() + 1;
+				Integer previousFastestTime = stats.hasFastestTime() ? stats.getFastestTime() : null;
+				transaction.update(WordleTableQueries.updateUserWordle, previousFastestTime, 0, 0, newTotalGames,
+						highestStreak, userId);
+				scores[0] = newTotalGames;
+				scores[2] = highestStreak;
+				if (previousFastestTime == null) {
+					text.append("\n**Personal Best:** not set yet.\n");
+				} else {
+					text.append(String.format("\n**Personal Best:** %d seconds.\n", previousFastestTime));
+				}
+				text.append(String.format("**Highest Streak:** %d games.\n", highestStreak));
+				text.append(String.format("**Total Games Played:** %d games.", newTotalGames));
+				return text.toString();
+			});
+			updateLeaderboards(userId, scores);
+			return description;
+		} catch (SQLException e) {
+			logger.error(String.format("Failed to save the wordle game of user %s: %s", userId, e.getMessage()));
+			return "";
+		}
+	}
+
+	private void updateLeaderboards(String userId, int @NotNull [] scores) {
+		Leaderboards leaderboards = Leaderboards.getInstance();
+		leaderboards.update(Leaderboards.Board.WORDLE_TOTAL_GAMES, userId, scores[0]);
+		leaderboards.update(Leaderboards.Board.WORDLE_CURRENT_STREAK, userId, scores[1]);
+		leaderboards.update(Leaderboards.Board.WORDLE_HIGHEST_STREAK, userId, scores[2]);
 	}
 }
@@ -0,0 +1,313 @@
+package commands.games.wordle;
+
+import commands.CommandExecutor;
+import database.DatabaseManager;
+import database.queries.DailiesTableQueries;
+import database.queries.UserTableQueries;
+import database.queries.WordleTableQueries;
+import games.WordleDictionary;
+import games.WordleScore;
+import models.WordleStatistics;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.interactions.InteractionHook;
+import net.dv8tion.jda.api.interactions.components.buttons.Button;
+import net.dv8tion.jda.api.requests.RestAction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utility.ComponentId;
+import utility.EmbedUtils;
+import utility.Leaderboards;
+import utility.MessageDispatcher;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A game of wordle that everyone in a channel plays at once, the first player to guess the word wins.
+ * Every player has their own board that only shows the squares, so the other players don't see the letters. A board
+ * is only changed by the guesses of its player, which the command executor runs one at a time, so the players never
+ * wait for each other. The only thing they share is the win, which is claimed with a compare and set.
+ * The boards are rendered when the edit of the message is sent, so a busy race edits the message as often as the rate
+ * limit allows instead of once per guess. The results of all players are saved in one batch when the race ends.
+ */
+public class WordleRace {
+
+	final static Logger logger = LoggerFactory.getLogger(WordleRace.class);
+
+	public static final int maxGuesses = 6;
+	// an embed has at most 25 fields, one is kept free
+	private static final int maxBoards = 24;
+	// the length kept free for the line about the players whose board doesn't fit
+	private static final int morePlayersRoom = 64;
+
+	private final long channelId;
+	private final User host;
+	private final String word;
+	private final int packedWord;
+	private final long expiresAt;
+	private final MessageDispatcher dispatcher;
+	private final DatabaseManager manager;
+	private final ConcurrentHashMap<String, Player> players;
+	// the players in the order they joined, the order of the boards
+	private final ConcurrentLinkedQueue<Player> joined;
+	// the guesses that are deleted with the next edit of the board
+	private final ConcurrentLinkedQueue<String> guessMessages;
+	private final AtomicBoolean finished;
+	private volatile Player winner;
+	private volatile Message message;
+	private volatile InteractionHook hook;
+
+	/**
+	 * @param seconds the seconds until the race ends if nobody guessed the word
+	 * @param host    the user that started the race
+	 */
+	public WordleRace(long channelId, long seconds, @NotNull User host) {
+		this.channelId = channelId;
+		this.host = host;
+		this.word = WordleDictionary.getInstance().randomWord();
+		this.packedWord = WordleDictionary.pack(word);
+		this.expiresAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+		this.dispatcher = MessageDispatcher.getInstance();
+		this.manager = DatabaseManager.getInstance();
+		this.players = new ConcurrentHashMap<>();
+		this.joined = new ConcurrentLinkedQueue<>();
+		this.guessMessages = new ConcurrentLinkedQueue<>();
+		this.finished = new AtomicBoolean(false);
+	}
+
+	/**
+	 * Starts taking guesses in the channel.
+	 *
+	 * @param message the message with the board
+	 * @param hook    the hook of the slash command that started the race, null if it was a prefix command
+	 * @return false if a race is already running in the channel
+	 */
+	public boolean start(@NotNull Message message, @Nullable InteractionHook hook) {
+		this.message = message;
+		this.hook = hook;
+		return WordleSessionRouter.getInstance().startRace(channelId, this);
+	}
+
+	/**
+	 * @return the {@link System#nanoTime()} the race ends at if nobody guessed the word
+	 */
+	public long getExpiresAt() {
+		return expiresAt;
+	}
+
+	/**
+	 * Makes a guess for the author of the message.
+	 *
+	 * @param guess the lowercase word from the dictionary the message contains
+	 */
+	public void guess(@NotNull MessageReceivedEvent event, @NotNull String guess) {
+		if (finished.get() || expiresAt - System.nanoTime() <= 0) {
+			return;
+		}
+		User author = event.getAuthor();
+		Player player = players.computeIfAbsent(author.getId(), id -> {
+			Player joining = new Player(id, author.getName());
+			joined.add(joining);
+			return joining;
+		});
+		if (player.guesses >= maxGuesses) {
+			return;
+		}
+		int result = WordleScore.score(packedWord, WordleDictionary.pack(guess), player.letterCounts);
+		WordleScore.appendSquares(player.rows, result);
+		player.board = player.rows.toString();
+		// the board is written before the amount of guesses, so a board is never empty once it is shown
+		player.guesses++;
+		guessMessages.add(event.getMessageId());
+		if (result == WordleScore.solved) {
+			player.timeTaken = (int) (event.getMessage().getTimeCreated().toEpochSecond() -
+					message.getTimeCreated().toEpochSecond());
+			finish(player);
+		} else {
+			dispatcher.edit(message.getId(), this::render);
+		}
+	}
+
+	/**
+	 * Ends the race without a winner, it is called by the timing wheel so the results are saved on the executor.
+	 */
+	void timeUp() {
+		boolean accepted = CommandExecutor.getInstance().submit(String.format("wordle race %d", channelId),
+				"wordle race end", () -> finish(null));
+		if (!accepted) {
+			finish(null);
+		}
+	}
+
+	private void finish(@Nullable Player winner) {
+		if (!finished.compareAndSet(false, true)) {
+			return;
+		}
+		this.winner = winner;
+		WordleSessionRouter.getInstance().endRace(channelId, this);
+		dispatcher.edit(message.getId(), this::render);
+		saveResults(winner);
+	}
+
+	/**
+	 * Saves the results of every player that guessed in one transaction, the winner won and everyone else lost.
+	 * Players that never used a command aren't in the user table yet, they are added in the same transaction the way
+	 * a command adds them, since the wordle table references it.
+	 */
+	private void saveResults(@Nullable Player winner) {
+		List<Object[]> users = new ArrayList<>();
+		List<Object[]> dailies = new ArrayList<>();
+		List<Object[]> batch = new ArrayList<>();
+		List<String> userIds = new ArrayList<>();
+		for (Player player : joined) {
+			if (player.guesses == 0) {
+				continue;
+			}
+			boolean won = player == winner;
+			int streak = won ? 1 : 0;
+			users.add(new Object[]{player.userId, player.name});
+			dailies.add(new Object[]{player.userId});
+			batch.add(new Object[]{player.userId, won ? player.timeTaken : null, won ? 1 : 0, streak, streak});
+			userIds.add(player.userId);
+		}
+		if (batch.isEmpty()) {
+			return;
+		}
+		List<String> addedUsers = new ArrayList<>();
+		try {
+			Map<String, WordleStatistics> results = manager.transaction(transaction -> {
+				// a transaction that is tried again starts over
+				addedUsers.clear();
+				int[] added = transaction.updateBatch(UserTableQueries.addUserIfMissing, users);
+				for (int i = 0; i < added.length; i++) {
+					if (added[i] > 0) {
+						addedUsers.add(userIds.get(i));
+					}
+				}
+				transaction.updateBatch(DailiesTableQueries.addUserDailyIfMissing, dailies);
+				transaction.updateBatch(WordleTableQueries.addWordleResult, batch);
+				Map<String, WordleStatistics> stats = new HashMap<>();
+				for (String userId : userIds) {
+					transaction.queryOne(WordleTableQueries.selectUserWordle, WordleStatistics::map, userId)
+							.ifPresent(row -> stats.put(userId, row));
+				}
+				return stats;
+			});
+			utility.User user = utility.User.getInstance();
+			for (String userId : addedUsers) {
+				user.addToRanking(userId, 0);
+			}
+			Leaderboards leaderboards = Leaderboards.getInstance();
+			results.forEach((userId, stats) -> {
+				leaderboards.update(Leaderboards.Board.WORDLE_TOTAL_GAMES, userId, stats.getTotalGames());
+				leaderboards.update(Leaderboards.Board.WORDLE_CURRENT_STREAK, userId, stats.getStreak());
+				leaderboards.update(Leaderboards.Board.WORDLE_HIGHEST_STREAK, userId, stats.getHighestStreak());
+			});
+		} catch (SQLException e) {
+			logger.error(String.format("Failed to save the wordle race in channel %d: %s", channelId,
+					e.getMessage()));
+		}
+	}
+
+	/**
+	 * @return the embed with the boards of the players, as many as fit in an embed
+	 */
+	@NotNull MessageEmbed generateEmbed() {
+		EmbedBuilder embed = new EmbedBuilder();
+		EmbedUtils.styleEmbed(embed, host);
+		embed.setTitle("Wordle Race");
+		StringBuilder description = new StringBuilder();
+		Player won = winner;
+		if (!finished.get()) {
+			description.append(String.format("The first to guess the word wins. Send a word of %d letters in this " +
+					"channel to guess, everyone gets %d guesses.", WordleDictionary.wordLength, maxGuesses));
+		} else if (won != null) {
+			description.append(String.format("%s guessed the word `%s` in %d seconds!", won.name, word,
+					won.timeTaken));
+		} else {
+			description.append(String.format("Nobody guessed the word, it was `%s`.", word));
+		}
+		embed.setDescription(description);
+		// the embed counts the title, the author and the description, the names of the boards are counted below
+		int room = MessageEmbed.EMBED_MAX_LENGTH_BOT - embed.length() - morePlayersRoom;
+		int racing = 0;
+		int shown = 0;
+		for (Player player : joined) {
+			int guesses = player.guesses;
+			if (guesses == 0) {
+				continue;
+			}
+			racing++;
+			String name = String.format("%s (%d/%d)", player.name, guesses, maxGuesses);
+			String board = player.board;
+			int length = name.length() + board.length();
+			if (shown < maxBoards && length <= room) {
+				embed.addField(name, board, true);
+				room -= length;
+				shown++;
+			}
+		}
+		if (racing > shown) {
+			description.append(String.format("\n%d more players are racing.", racing - shown));
+			embed.setDescription(description);
+		}
+		return embed.build();
+	}
+
+	/**
+	 * Makes the edit of the board, and deletes the guesses that were made since the last edit in one go.
+	 */
+	private @NotNull RestAction<?> render() {
+		deleteGuesses();
+		MessageEmbed embed = generateEmbed();
+		if (!finished.get()) {
+			return hook != null ? hook.editOriginalEmbeds(embed) : message.editMessageEmbeds(embed);
+		}
+		Button delete = Button.secondary(ComponentId.encode(host.getId(), "delete"), "Delete");
+		return hook != null ? hook.editOriginalEmbeds(embed).setActionRow(delete) :
+				message.editMessageEmbeds(embed).setActionRow(delete);
+	}
+
+	private void deleteGuesses() {
+		List<String> ids = new ArrayList<>();
+		String id;
+		while ((id = guessMessages.poll()) != null) {
+			ids.add(id);
+		}
+		if (!ids.isEmpty()) {
+			message.getChannel().purgeMessagesById(ids);
+		}
+	}
+
+	private static class Player {
+		private final String userId;
+		private final String name;
+		// only used by the guesses of the player, which run one at a time
+		private final StringBuilder rows;
+		private final int[] letterCounts;
+		private volatile String board;
+		private volatile int guesses;
+		private volatile int timeTaken;
+
+		private Player(String userId, String name) {
+			this.userId = userId;
+			this.name = name;
+			this.rows = new StringBuilder();
+			this.letterCounts = new int[27];
+			this.board = "";
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package commands.games.wordle;
+
+import commands.Command;
+import commands.SubCmd;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.interactions.InteractionHook;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import utility.MessageDispatcher;
+
+import java.util.List;
+
+/**
+ * Start a race of wordle in a channel, the first member to guess the word wins.
+ */
+public class WordleRaceCmd extends Command implements SubCmd {
+
+	private static final String raceRunning = "A wordle race is already running in this channel.";
+
+	private final WordleSessionRouter router;
+
+	public WordleRaceCmd() {
+		this.commandName = "race";
+		this.commandDescription = "Start a wordle race in this channel, the first to guess the word wins.";
+		this.instanceTime = 300;
+		this.router = WordleSessionRouter.getInstance();
+	}
+
+	@Override
+	public void executeCommand(@NotNull MessageReceivedEvent event, @NotNull List<String> args) {
+		long channelId = event.getChannel().getIdLong();
+		if (router.hasRace(channelId)) {
+			event.getChannel().sendMessage(raceRunning).queue();
+			return;
+		}
+		WordleRace race = new WordleRace(channelId, instanceTime, event.getAuthor());
+		event.getChannel().sendMessageEmbeds(race.generateEmbed()).queue(message -> start(race, message, null));
+	}
+
+	@Override
+	public void executeSlashCommand(@NotNull SlashCommandInteractionEvent event) {
+		MessageDispatcher.getInstance().acknowledge(event.deferReply());
+		long channelId = event.getChannel().getIdLong();
+		if (router.hasRace(channelId)) {
+			event.getHook().sendMessage(raceRunning).queue();
+			return;
+		}
+		WordleRace race = new WordleRace(channelId, instanceTime, event.getUser());
+		event.getHook().sendMessageEmbeds(race.generateEmbed())
+				.queue(message -> start(race, message, event.getHook()));
+	}
+
+	private void start(@NotNull WordleRace race, @NotNull Message message, @Nullable InteractionHook hook) {
+		// another race can have started while the board was sent
+		if (!race.start(message, hook)) {
+			message.delete().queue();
+			message.getChannel().sendMessage(raceRunning).queue();
+		}
+	}
+}
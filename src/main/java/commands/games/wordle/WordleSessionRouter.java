@@ -0,0 +1,229 @@
+package commands.games.wordle;
+
+import commands.CommandExecutor;
+import games.Wordle;
+import games.WordleDictionary;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import utility.TimingWheel;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hands the messages of the players of wordle to their games.
+ * The games are kept by the channel and the user they are played by, so a message is matched to its game with one
+ * lookup no matter how many games are being played. A race is kept by its channel and gets the messages of everyone
+ * in the channel that doesn't play a game of their own there. Games and races that aren't finished are removed by a
+ * timing wheel once their time is up.
+ * This class is a singleton.
+ */
+public class WordleSessionRouter extends ListenerAdapter {
+
+	private static final int wheelSize = 512;
+	private static final long tickNanos = TimeUnit.SECONDS.toNanos(1);
+	// races are in the wheel as the key of this user, no discord user has it
+	private static final long raceUserId = 0;
+
+	private static WordleSessionRouter instance;
+
+	private final ConcurrentHashMap<Key, Session> sessions;
+	private final ConcurrentHashMap<Long, WordleRace> races;
+	private final TimingWheel<Key> wheel;
+	private final CommandExecutor commandExecutor;
+
+	/**
+	 * A private constructor since this class is a singleton.
+	 */
+	private WordleSessionRouter() {
+		this.sessions = new ConcurrentHashMap<>();
+		this.races = new ConcurrentHashMap<>();
+		this.wheel = new TimingWheel<>("wordle-wheel", wheelSize, tickNanos, this::expire);
+		this.commandExecutor = CommandExecutor.getInstance();
+	}
+
+	/**
+	 * Get the only existing instance of this class.
+	 *
+	 * @return The instance of this class.
+	 */
+	public static WordleSessionRouter getInstance() {
+		if (instance == null) {
+			instance = new WordleSessionRouter();
+		}
+		return instance;
+	}
+
+	/**
+	 * Starts sending the messages of the user in the channel to the game, replacing a game the user still had there.
+	 *
+	 * @param seconds the seconds until the game is removed if it isn't finished
+	 * @param guesses handles a message of the user, it runs on the command executor one message at a time
+	 */
+	public void start(long channelId, long userId, long seconds, @NotNull Wordle game,
+					  @NotNull Consumer<MessageReceivedEvent> guesses) {
+		Key key = new Key(channelId, userId);
+		Session session = new Session(game, guesses, System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds));
+		sessions.put(key, session);
+		wheel.schedule(key, session.expiresAt);
+	}
+
+	/**
+	 * Stops sending the messages of the user in the channel to their game.
+	 */
+	public void end(long channelId, long userId) {
+		sessions.remove(new Key(channelId, userId));
+	}
+
+	/**
+	 * Starts sending the messages in the channel to the race, it ends when its time is up if nobody guessed the word.
+	 *
+	 * @return false if a race is already running in the channel
+	 */
+	public boolean startRace(long channelId, @NotNull WordleRace race) {
+		if (races.putIfAbsent(channelId, race) != null) {
+			return false;
+		}
+		wheel.schedule(new Key(channelId, raceUserId), race.getExpiresAt());
+		return true;
+	}
+
+	/**
+	 * Stops sending the messages in the channel to the race.
+	 */
+	public void endRace(long channelId, @NotNull WordleRace race) {
+		races.remove(channelId, race);
+	}
+
+	/**
+	 * @return true if a race is running in the channel
+	 */
+	public boolean hasRace(long channelId) {
+		return races.containsKey(channelId);
+	}
+
+	/**
+	 * @return the game the user plays in the channel, or null if they don't play one
+	 */
+	public @Nullable Wordle getGame(long channelId, long userId) {
+		Session session = sessions.get(new Key(channelId, userId));
+		if (session == null || session.expiresAt - System.nanoTime() <= 0) {
+			return null;
+		}
+		return session.game;
+	}
+
+	/**
+	 * @return the amount of games that are being played
+	 */
+	public int size() {
+		return sessions.size();
+	}
+
+	/**
+	 * @return the amount of races that are running
+	 */
+	public int getRaces() {
+		return races.size();
+	}
+
+	@Override
+	public void onMessageReceived(@NotNull MessageReceivedEvent event) {
+		if ((sessions.isEmpty() && races.isEmpty()) || event.getAuthor().isBot()) {
+			return;
+		}
+		Key key = new Key(event.getChannel().getIdLong(), event.getAuthor().getIdLong());
+		Session session = sessions.get(key);
+		if (session == null) {
+			WordleRace race = races.get(key.channelId);
+			if (race == null) {
+				return;
+			}
+			// messages that aren't a word from the dictionary are chat, they don't take a place in the command queue
+			String guess = event.getMessage().getContentRaw().trim().toLowerCase(Locale.ROOT);
+			if (WordleDictionary.getInstance().contains(guess)) {
+				// a race only changes the board of the player, so the guesses of different players run in parallel
+				commandExecutor.submit(event.getAuthor().getId(), "wordle race guess", () -> race.guess(event, guess));
+			}
+			return;
+		}
+		if (session.expiresAt - System.nanoTime() <= 0) {
+			sessions.remove(key, session);
+			return;
+		}
+		commandExecutor.submit(event.getAuthor().getId(), "wordle guess", () -> session.guesses.accept(event));
+	}
+
+	/**
+	 * Removes the game if its time is up, games that were finished are already gone.
+	 *
+	 * @return false if the game ends after a later turn of the wheel
+	 */
+	private boolean expire(@NotNull Key key, long now) {
+		if (key.userId == raceUserId) {
+			WordleRace race = races.get(key.channelId);
+			if (race == null) {
+				return true;
+			}
+			if (race.getExpiresAt() - now > 0) {
+				return false;
+			}
+			if (races.remove(key.channelId, race)) {
+				race.timeUp();
+			}
+			return true;
+		}
+		Session session = sessions.get(key);
+		if (session == null) {
+			return true;
+		}
+		if (session.expiresAt - now <= 0) {
+			sessions.remove(key, session);
+			return true;
+		}
+		return false;
+	}
+
+	private static class Key {
+		private final long channelId;
+		private final long userId;
+
+		private Key(long channelId, long userId) {
+			this.channelId = channelId;
+			this.userId = userId;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) o;
+			return channelId == key.channelId && userId == key.userId;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * Long.hashCode(channelId) + Long.hashCode(userId);
+		}
+	}
+
+	private static class Session {
+		private final Wordle game;
+		private final Consumer<MessageReceivedEvent> guesses;
+		private final long expiresAt;
+
+		private Session(Wordle game, Consumer<MessageReceivedEvent> guesses, long expiresAt) {
+			this.game = game;
+			this.guesses = guesses;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package commands.games.wordle;
+
+import commands.Command;
+import commands.SubCmd;
+import games.WordleDictionary;
+import games.WordleScore;
+import games.WordleSolver;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.components.buttons.Button;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import utility.ComponentId;
+import utility.EmbedUtils;
+import utility.MessageDispatcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Shows which words still fit the results of a game of wordle and suggests the next guess.
+ * The results are written as g for green, y for yellow and b for black, for example {@code crane bgybb}.
+ */
+public class WordleSolveCmd extends Command implements SubCmd {
+
+	// the amount of words that still fit that are listed
+	private static final int shownWords = 30;
+
+	private final WordleSolver solver;
+
+	public WordleSolveCmd() {
+		this.commandName = "solve";
+		this.commandDescription = "Suggests the next guess for the results of a wordle game.";
+		this.commandArgs = new String[]{"**guess result", "*hard"};
+		this.solver = WordleSolver.getInstance();
+	}
+
+	@Override
+	public void executeCommand(@NotNull MessageReceivedEvent event, @NotNull List<String> args) {
+		User author = event.getAuthor();
+		event.getChannel().sendMessageEmbeds(generateEmbed(author, args).build()).setActionRow(
+				Button.secondary(ComponentId.encode(author.getId(), "delete"), "Delete")).queue();
+	}
+
+	@Override
+	public void executeSlashCommand(@NotNull SlashCommandInteractionEvent event) {
+		MessageDispatcher.getInstance().acknowledge(event.deferReply());
+		User user = event.getUser();
+		List<String> args = new ArrayList<>();
+		OptionMapping guesses = event.getOption("guesses");
+		if (guesses != null) {
+			args.addAll(Arrays.asList(guesses.getAsString().trim().split("\\s+")));
+		}
+		OptionMapping hard = event.getOption("hard");
+		if (hard != null && hard.getAsBoolean()) {
+			args.add("hard");
+		}
+		event.getHook().sendMessageEmbeds(generateEmbed(user, args).build()).addActionRow(
+				Button.secondary(ComponentId.encode(user.getId(), "delete"), "Delete")).queue();
+	}
+
+	/**
+	 * Describes a suggestion to the player.
+	 */
+	public static @NotNull String describe(@NotNull WordleSolver.Suggestion suggestion) {
+		if (suggestion.getRemaining() == 1) {
+			return String.format("The only word that still fits is `%s`.", suggestion.getWord());
+		}
+		return String.format("Try `%s`, it is expected to leave about %.1f of the %d words that still fit.%s",
+				suggestion.getWord(), suggestion.getExpectedWords(), suggestion.getRemaining(),
+				suggestion.isCandidate() ? "" : " It can't be the word itself.");
+	}
+
+	private @NotNull EmbedBuilder generateEmbed(@NotNull User user, @NotNull List<String> args) {
+		EmbedBuilder embed = new EmbedBuilder();
+		EmbedUtils.styleEmbed(embed, user);
+		embed.setTitle("Wordle Solver");
+
+		WordleSolver.Candidates candidates = solver.candidates();
+		StringBuilder description = new StringBuilder();
+		boolean hardMode = false;
+		List<String> guesses = new ArrayList<>();
+		for (String arg : args) {
+			String value = arg.toLowerCase(Locale.ROOT);
+			if (value.equals("hard")) {
+				hardMode = true;
+			} else if (!value.isEmpty()) {
+				guesses.add(value);
+			}
+		}
+		if (guesses.size() % 2 != 0) {
+			embed.setDescription("Every guess needs a result, for example `crane bgybb` where g is green, y is " +
+					"yellow and b is black.");
+			return embed;
+		}
+		for (int i = 0; i < guesses.size(); i += 2) {
+			String guess = guesses.get(i);
+			if (!WordleDictionary.getInstance().contains(guess)) {
+				embed.setDescription(String.format("`%s` isn't in the word list.", guess));
+				return embed;
+			}
+			Integer result = parseResult(guesses.get(i + 1));
+			if (result == null) {
+				embed.setDescription(String.format("`%s` isn't a result, write a result as 5 letters where g is " +
+						"green, y is yellow and b is black.", guesses.get(i + 1)));
+				return embed;
+			}
+			WordleScore.appendRow(description, guess, result);
+			candidates.apply(WordleDictionary.pack(guess), result);
+		}
+
+		WordleSolver.Suggestion suggestion = solver.suggest(candidates, hardMode);
+		if (suggestion == null) {
+			description.append("No word in the word list fits these results.");
+			embed.setDescription(description);
+			return embed;
+		}
+		description.append(describe(suggestion));
+		embed.setDescription(description);
+		if (!guesses.isEmpty()) {
+			List<String> words = candidates.words(shownWords);
+			String fitting = String.join(", ", words);
+			if (candidates.size() > words.size()) {
+				fitting += String.format(" and %d more", candidates.size() - words.size());
+			}
+			embed.addField(String.format("Words that fit (%d)", candidates.size()), fitting, false);
+		}
+		return embed;
+	}
+
+	/**
+	 * @param result the result of a guess, 5 letters where g is green, y is yellow and b is black
+	 * @return the result packed by {@link WordleScore}, or null if it isn't a result
+	 */
+	private static @Nullable Integer parseResult(@NotNull String result) {
+		if (result.length() != WordleDictionary.wordLength) {
+			return null;
+		}
+		int packed = 0;
+		for (char square : result.toCharArray()) {
+			int value;
+			switch (square) {
+				case 'g':
+					value = WordleScore.green;
+					break;
+				case 'y':
+					value = WordleScore.yellow;
+					break;
+				case 'b':
+					value = WordleScore.black;
+					break;
+				default:
+					return null;
+			}
+			packed = (packed << 2) | value;
+		}
+		return packed;
+	}
+}
@@ -4,17 +4,18 @@ import commands.Command;
 import commands.SubCmd;
 import database.DatabaseManager;
 import database.queries.WordleTableQueries;
+import models.WordleStatistics;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.interactions.components.buttons.Button;
 import org.jetbrains.annotations.NotNull;
+import utility.ComponentId;
 import utility.EmbedUtils;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
+import java.util.Optional;
 
 public class WordleStatsCmd extends Command implements SubCmd {
 
@@ -30,14 +31,14 @@ public class WordleStatsCmd extends Command implements SubCmd {
     public void executeCommand(@NotNull MessageReceivedEvent event, List<String> args) {
         EmbedBuilder embedBuilder = generateEmbed(event.getAuthor());
         event.getChannel().sendMessageEmbeds(embedBuilder.build()).setActionRow(
-                Button.secondary(event.getAuthor().getId() + ":delete", "Delete")).queue();
+                Button.secondary(ComponentId.encode(event.getAuthor().getId(), "delete"), "Delete")).queue();
     }
 
     @Override
     public void executeSlashCommand(@NotNull SlashCommandInteractionEvent event) {
         EmbedBuilder embedBuilder = generateEmbed(event.getUser());
         event.replyEmbeds(embedBuilder.build()).addActionRow(
-                Button.secondary(event.getUser().getId() + ":delete", "Delete")).queue();
+                Button.secondary(ComponentId.encode(event.getUser().getId(), "delete"), "Delete")).queue();
     }
 
     private @NotNull EmbedBuilder generateEmbed(User user) {
@@ -45,22 +46,16 @@ public class WordleStatsCmd extends Command implements SubCmd {
         EmbedUtils.styleEmbed(embed, user);
         embed.setTitle(String.format("Wordle Statistics for %s", user.getName()));
 
-        ArrayList<String> result = dbManager.query(WordleTableQueries.selectUserWordle, DatabaseManager.QueryTypes.RETURN, user.getId());
-        if(result.size() == 0) {
+        Optional<WordleStatistics> result = dbManager.queryOne(WordleTableQueries.selectUserWordle, WordleStatistics::map, user.getId());
+        if(result.isEmpty()) {
             embed.setDescription("No wordle statistics on record.");
         } else  {
-            String fastestTime = result.get(1);
-            String currentStreak = result.get(3);
-            String totalGames = result.get(4);
-            String highestStreak = result.get(5);
+            WordleStatistics stats = result.get();
+            int fastestTime = stats.hasFastestTime() ? stats.getFastestTime() : 0;
 
-            if(Objects.equals(fastestTime, "null")) {
-                fastestTime = "0";
-            }
-
-            embed.addField("Total Games", totalGames, true);
-            embed.addField("Current Streak", currentStreak, true);
-            embed.addField("Highest Streak", highestStreak, true);
+            embed.addField("Total Games", String.valueOf(stats.getTotalGames()), true);
+            embed.addField("Current Streak", String.valueOf(stats.getStreak()), true);
+            embed.addField("Highest Streak", String.valueOf(stats.getHighestStreak()), true);
             embed.addField("Fastest Time", fastestTime + " Seconds", true);
         }
 
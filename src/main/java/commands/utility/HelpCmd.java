@@ -9,19 +9,21 @@ import commands.economy.MorbconomyCmd;
 import commands.games.GamesCmd;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.MessageEmbed;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.interactions.components.ActionRow;
 import net.dv8tion.jda.api.interactions.components.buttons.Button;
 import org.jetbrains.annotations.NotNull;
+import utility.ComponentId;
 import utility.EmbedUtils;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Shows the user an overview of every command, or detailed information on a specific command.
@@ -33,12 +35,14 @@ public class HelpCmd extends Command implements UtilityCmd {
 	private static HelpCmd instance;
 
 	private ArrayList<List<ActionRow>> buttons;
-	private EmbedBuilder help;
+	// the overview of all commands for every prefix, cleared when a prefix changes
+	private final Map<String, MessageEmbed> overviews;
 
 	private HelpCmd() {
 		this.commandName = "help";
 		this.commandDescription = "Shows the user a list of available commands.";
 		this.commandArgs = new String[]{"*command"};
+		this.overviews = new ConcurrentHashMap<>();
 
 	}
 
@@ -56,25 +60,18 @@ public class HelpCmd extends Command implements UtilityCmd {
 	public void executeCommand(@NotNull MessageReceivedEvent event, @NotNull List<String> args) {
 		String authorId = event.getAuthor().getId();
 		if (args.size() > 0) {
-			AtomicBoolean commandFound = new AtomicBoolean(false);
 			String arg = args.get(0);
-			CommandLoader.commandList.forEach((key, value) -> {
-				if (key.contains(arg.toLowerCase(Locale.ROOT))) {
-					EmbedBuilder embedBuilder = value.generateHelp(value.commandName, value.commandDescription,
-							value.commandArgs, value.aliases, value.flags, value.cooldown, value.subCommands,
-							event.getGuild(), event.getAuthor());
-					event.getChannel().sendMessageEmbeds(embedBuilder.build()).setActionRow(
-							Button.secondary(authorId + ":delete", "Delete")).queue();
-					commandFound.set(true);
-				}
-			});
-			if (!commandFound.get()) {
+			Command value = CommandLoader.commandIndex.getCommand(arg);
+			if (value != null) {
+				EmbedBuilder embedBuilder = value.generateHelp(event.getGuild(), event.getAuthor());
+				event.getChannel().sendMessageEmbeds(embedBuilder.build()).setActionRow(
+						Button.secondary(ComponentId.encode(authorId, "delete"), "Delete")).queue();
+			} else {
 				event.getChannel().sendMessage(String.format("%s not found.", arg)).queue();
 			}
 		} else {
-			createEmbed(event.getAuthor(), event.getGuild());
-			EmbedUtils.styleEmbed(help, event.getAuthor());
-			event.getChannel().sendMessageEmbeds(help.build()).setActionRow(Button.secondary(event.getAuthor().getId() + ":delete", "Delete")).queue();
+			EmbedBuilder help = createEmbed(event.getAuthor(), event.getGuild());
+			event.getChannel().sendMessageEmbeds(help.build()).setActionRow(Button.secondary(ComponentId.encode(event.getAuthor().getId(), "delete"), "Delete")).queue();
 		}
 	}
 
@@ -82,40 +79,45 @@ public class HelpCmd extends Command implements UtilityCmd {
 	public void executeSlashCommand(@NotNull SlashCommandInteractionEvent event) {
 		String authorId = event.getUser().getId();
 		if (!(event.getOption("command") == null)) {
-			AtomicBoolean commandFound = new AtomicBoolean(false);
 			String command = Objects.requireNonNull(event.getOption("command")).getAsString();
-			CommandLoader.commandList.forEach((key, value) -> {
-				if (key.contains(command.toLowerCase(Locale.ROOT))) {
-					EmbedBuilder embedBuilder = value.generateHelp(value.commandName, value.commandDescription,
-							value.commandArgs, value.aliases, value.flags, value.cooldown, value.subCommands,
-							Objects.requireNonNull(event.getGuild()), event.getUser());
-					event.replyEmbeds(embedBuilder.build()).addActionRow(Button.secondary(authorId + ":delete", "Delete")).queue();
-					commandFound.set(true);
-				}
-			});
-			if (!commandFound.get()) {
+			Command value = CommandLoader.commandIndex.getCommand(command);
+			if (value != null) {
+				EmbedBuilder embedBuilder = value.generateHelp(Objects.requireNonNull(event.getGuild()), event.getUser());
+				event.replyEmbeds(embedBuilder.build()).addActionRow(Button.secondary(ComponentId.encode(authorId, "delete"), "Delete")).queue();
+			} else {
 				event.reply(String.format("%s not found.", command)).queue();
 			}
 		} else {
-			createEmbed(event.getUser(), Objects.requireNonNull(event.getGuild()));
-			EmbedUtils.styleEmbed(help, event.getUser());
-			event.replyEmbeds(help.build()).addActionRow(Button.secondary(event.getUser().getId() + ":delete", "Delete")).queue();
+			EmbedBuilder help = createEmbed(event.getUser(), Objects.requireNonNull(event.getGuild()));
+			event.replyEmbeds(help.build()).addActionRow(Button.secondary(ComponentId.encode(event.getUser().getId(), "delete"), "Delete")).queue();
 		}
 	}
 
 	/**
-	 * Builds the embeds for the help command.
+	 * Builds the embeds for the help command, the overview is only rendered once per prefix.
 	 */
-	private void createEmbed(@NotNull User author, @NotNull Guild guild) {
+	private @NotNull EmbedBuilder createEmbed(@NotNull User author, @NotNull Guild guild) {
 		String prefix = CommandHandler.prefixes.get(guild.getId());
+		EmbedBuilder help = new EmbedBuilder(overviews.computeIfAbsent(prefix, this::renderOverview));
+		EmbedUtils.styleEmbed(help, author);
+		return help;
+	}
+
+	/**
+	 * Forgets the rendered overviews, this is needed when a prefix changes.
+	 */
+	public void clearCache() {
+		overviews.clear();
+	}
 
+	private @NotNull MessageEmbed renderOverview(String prefix) {
 		StringBuilder utility = new StringBuilder();
 		StringBuilder morbconomy = new StringBuilder();
 		StringBuilder games = new StringBuilder();
 		StringBuilder bot = new StringBuilder();
 		StringBuilder dnd = new StringBuilder();
 
-		CommandLoader.commandList.forEach((key, value) -> {
+		for (Command value : CommandLoader.commandIndex.getCommands()) {
 			if (value instanceof UtilityCmd) {
 				utility.append(String.format("**%s%s** - %s\n", prefix, value.commandName, value.commandDescription));
 			} else if (value instanceof MorbconomyCmd) {
@@ -127,15 +129,16 @@ public class HelpCmd extends Command implements UtilityCmd {
 			} else if (value instanceof DndCmd) {
 				dnd.append(String.format("**%s%s** - %s\n", prefix, value.commandName, value.commandDescription));
 			}
-		});
+		}
 
-		this.help = new EmbedBuilder();
+		EmbedBuilder help = new EmbedBuilder();
 		help.setTitle("Commands");
 		help.addField("Utility", utility.toString(), false);
 		help.addField("Morbconomy", morbconomy.toString(), false);
 		help.addField("Games", games.toString(), false);
 		help.addField("Bot", bot.toString(), false);
 		help.addField("Dungeons & Dragons", dnd.toString(), false);
+		return help.build();
 	}
 
 }
@@ -2,6 +2,7 @@ package commands.utility;
 
 import commands.Command;
 import commands.CommandHandler;
+import commands.CommandLoader;
 import database.DatabaseManager;
 import database.queries.PrefixTableQueries;
 import net.dv8tion.jda.api.Permission;
@@ -40,6 +41,8 @@ public class PrefixCmd extends Command implements UtilityCmd {
 				String id = event.getGuild().getId();
 				this.manager.query(PrefixTableQueries.updateServerPrefix, DatabaseManager.QueryTypes.UPDATE, prefix, id);
 				CommandHandler.prefixes.replace(id, prefix);
+				CommandLoader.commandIndex.clearRendered();
+				HelpCmd.getInstance().clearCache();
 				event.getChannel().sendMessage(String.format("Prefix successfully changed to: %s", prefix)).queue();
 			} else {
 				event.getChannel().sendMessage(String.format("`%s` is not a valid prefix", prefix)).queue();
@@ -57,6 +60,8 @@ public class PrefixCmd extends Command implements UtilityCmd {
 				String id = Objects.requireNonNull(event.getGuild()).getId();
 				this.manager.query(PrefixTableQueries.updateServerPrefix, DatabaseManager.QueryTypes.UPDATE, prefix, id);
 				CommandHandler.prefixes.replace(id, prefix);
+				CommandLoader.commandIndex.clearRendered();
+				HelpCmd.getInstance().clearCache();
 				event.reply(String.format("Prefix successfully changed to: %s", prefix)).queue();
 			} else {
 				event.reply(String.format("`%s` is not a valid prefix", prefix)).queue();
@@ -8,6 +8,7 @@ import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import org.jetbrains.annotations.NotNull;
 import utility.EmbedUtils;
+import utility.MessageDispatcher;
 
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -51,10 +52,10 @@ public class UserCmd extends Command implements UtilityCmd {
 						.onSuccess(members -> {
 							usersByName.addAll(members);
 							if (usersByName.size() == 0) {
-								event.getChannel().sendTyping().queue();
+								MessageDispatcher.getInstance().sendTyping(event.getChannel());
 								event.getChannel().sendMessage(String.format("User `%s` not found.", findUser)).queue();
 							} else {
-								event.getChannel().sendTyping().queue();
+								MessageDispatcher.getInstance().sendTyping(event.getChannel());
 								user[0] = usersByName.get(0).getUser();
 								userProfile[0] = user[0].retrieveProfile().complete();
 								member[0] = usersByName.get(0);
@@ -64,7 +65,7 @@ public class UserCmd extends Command implements UtilityCmd {
 						});
 			} catch (IllegalStateException e) {
 				e.printStackTrace();
-				event.getChannel().sendTyping().queue();
+				MessageDispatcher.getInstance().sendTyping(event.getChannel());
 				event.getChannel().sendMessage("You can only look up other users in a server.").queue();
 			}
 		}
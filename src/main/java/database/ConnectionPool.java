@@ -0,0 +1,200 @@
+package database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps a bounded amount of connections to the database open, so queries don't have to reconnect every time.
+ * Every connection caches the statements that have been prepared on it.
+ */
+public class ConnectionPool {
+
+	final static Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+
+	private final String connectionUrl;
+	private final Properties properties;
+	private final int maxSize;
+	private final int statementCacheSize;
+	private final long acquireTimeoutMillis;
+	private final BlockingQueue<PooledConnection> idleConnections;
+	private final AtomicInteger openConnections;
+
+	private final LongAdder acquireCount;
+	private final LongAdder totalWaitNanos;
+	private final AtomicLong maxWaitNanos;
+	private final LongAdder statementCacheHits;
+	private final LongAdder statementCacheMisses;
+
+	private volatile boolean closed;
+
+	public ConnectionPool(String connectionUrl, Properties properties, int maxSize, int statementCacheSize,
+						  long acquireTimeoutMillis) {
+		this.connectionUrl = connectionUrl;
+		this.properties = properties;
+		this.maxSize = Math.max(1, maxSize);
+		this.statementCacheSize = statementCacheSize;
+		this.acquireTimeoutMillis = acquireTimeoutMillis;
+		this.idleConnections = new LinkedBlockingQueue<>();
+		this.openConnections = new AtomicInteger(0);
+		this.acquireCount = new LongAdder();
+		this.totalWaitNanos = new LongAdder();
+		this.maxWaitNanos = new AtomicLong(0);
+		this.statementCacheHits = new LongAdder();
+		this.statementCacheMisses = new LongAdder();
+	}
+
+	/**
+	 * Takes an idle connection from the pool, opens a new one if the pool isn't full yet or waits for a connection
+	 * to be released otherwise.
+	 * The connection is returned to the pool by closing it.
+	 */
+	public PooledConnection acquire() throws SQLException {
+		if (closed) {
+			throw new SQLException("The connection pool has been closed.");
+		}
+		long start = System.nanoTime();
+		PooledConnection connection = idleConnections.poll();
+		if (connection == null) {
+			connection = tryOpen();
+		}
+		if (connection == null) {
+			try {
+				connection = idleConnections.poll(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new SQLException("Interrupted while waiting for a database connection.", e);
+			}
+			if (connection == null) {
+				throw new SQLException(String.format("Timed out after %d ms waiting for a database connection.",
+						acquireTimeoutMillis));
+			}
+		}
+		long waited = System.nanoTime() - start;
+		acquireCount.increment();
+		totalWaitNanos.add(waited);
+		maxWaitNanos.accumulateAndGet(waited, Math::max);
+		return connection;
+	}
+
+	/**
+	 * Opens a new connection if the pool hasn't reached its maximum size yet.
+	 *
+	 * @return the new connection, null if the pool is full
+	 */
+	private PooledConnection tryOpen() throws SQLException {
+		int open;
+		do {
+			open = openConnections.get();
+			if (open >= maxSize) {
+				return null;
+			}
+		} while (!openConnections.compareAndSet(open, open + 1));
+		try {
+			Connection connection = DriverManager.getConnection(connectionUrl, properties);
+			logger.info(String.format("Opened database connection %d/%d.", open + 1, maxSize));
+			return new PooledConnection(this, connection, statementCacheSize);
+		} catch (SQLException e) {
+			openConnections.decrementAndGet();
+			throw e;
+		}
+	}
+
+	/**
+	 * Hands a connection back to the pool. Broken connections are closed instead.
+	 */
+	void release(PooledConnection connection) {
+		if (closed || !connection.reset()) {
+			connection.discard();
+			openConnections.decrementAndGet();
+			return;
+		}
+		idleConnections.offer(connection);
+	}
+
+	void recordStatementCacheHit() {
+		statementCacheHits.increment();
+	}
+
+	void recordStatementCacheMiss() {
+		statementCacheMisses.increment();
+	}
+
+	/**
+	 * Closes every idle connection and stops handing out new ones.
+	 * Connections that are still in use get closed when they are released.
+	 */
+	public void close() {
+		closed = true;
+		PooledConnection connection;
+		while ((connection = idleConnections.poll()) != null) {
+			connection.discard();
+			openConnections.decrementAndGet();
+		}
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public int getOpenConnections() {
+		return openConnections.get();
+	}
+
+	public int getIdleConnections() {
+		return idleConnections.size();
+	}
+
+	public long getAcquireCount() {
+		return acquireCount.sum();
+	}
+
+	/**
+	 * @return the average time spent waiting for a connection in milliseconds
+	 */
+	public double getAverageWaitMillis() {
+		long count = acquireCount.sum();
+		return count == 0 ? 0 : (totalWaitNanos.sum() / (double) count) / 1_000_000d;
+	}
+
+	/**
+	 * @return the longest time spent waiting for a connection in milliseconds
+	 */
+	public double getMaxWaitMillis() {
+		return maxWaitNanos.get() / 1_000_000d;
+	}
+
+	public long getStatementCacheHits() {
+		return statementCacheHits.sum();
+	}
+
+	public long getStatementCacheMisses() {
+		return statementCacheMisses.sum();
+	}
+
+	/**
+	 * @return the fraction of statements that were served from a statement cache, between 0 and 1
+	 */
+	public double getStatementCacheHitRate() {
+		long hits = statementCacheHits.sum();
+		long total = hits + statementCacheMisses.sum();
+		return total == 0 ? 0 : hits / (double) total;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ConnectionPool[open=%d/%d, idle=%d, acquires=%d, avgWait=%.3fms, maxWait=%.3fms, " +
+						"statementCacheHitRate=%.1f%%]", getOpenConnections(), maxSize, getIdleConnections(),
+				getAcquireCount(), getAverageWaitMillis(), getMaxWaitMillis(), getStatementCacheHitRate() * 100);
+	}
+}
@@ -1,15 +1,21 @@
 package database;
 
-import database.queries.*;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteErrorCode;
 import org.sqlite.SQLiteOpenMode;
 import utility.Config;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Manages queries sent to the database.
@@ -23,7 +29,11 @@ public class DatabaseManager {
 
 	private final String connectionUrl;
 	private final SQLiteConfig sqliteConfig;
-
+	private final StorageMode storageMode;
+	private final ConnectionPool pool;
+	private final DatabaseWriter writer;
+	private final int transactionAttempts;
+	private final QueryMetrics metrics;
 
 	/**
 	 * A private constructor since this class is a singleton.
@@ -32,8 +42,30 @@ public class DatabaseManager {
 		this.sqliteConfig = new SQLiteConfig();
 		this.sqliteConfig.resetOpenMode(SQLiteOpenMode.CREATE);
 		this.sqliteConfig.setPragma(SQLiteConfig.Pragma.FOREIGN_KEYS, "ON");
+		// transactions take the write lock when they begin, so a read followed by a write can't deadlock on it
+		this.sqliteConfig.setTransactionMode(SQLiteConfig.TransactionMode.IMMEDIATE);
 		Config config = Config.getInstance();
 		this.connectionUrl = config.connectionUrl;
+		this.transactionAttempts = Math.max(1, config.databaseTransactionAttempts);
+		this.metrics = new QueryMetrics(config.slowQueryThreshold);
+		this.storageMode = StorageMode.valueOf(config.databaseStorageMode.toUpperCase(Locale.ROOT));
+		if (storageMode.equals(StorageMode.WAL)) {
+			// readers no longer block the writer and the writer only syncs on checkpoints
+			this.sqliteConfig.setJournalMode(SQLiteConfig.JournalMode.WAL);
+			this.sqliteConfig.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+			this.sqliteConfig.setBusyTimeout((int) config.databaseAcquireTimeout);
+		}
+		this.pool = new ConnectionPool(connectionUrl, sqliteConfig.toProperties(), config.databasePoolSize,
+				config.statementCacheSize, config.databaseAcquireTimeout);
+		if (storageMode.equals(StorageMode.WAL)) {
+			ConnectionPool writerPool = new ConnectionPool(connectionUrl, sqliteConfig.toProperties(), 1,
+					config.statementCacheSize, config.databaseAcquireTimeout);
+			this.writer = new DatabaseWriter(writerPool, metrics, config.databaseCommitInterval,
+					config.databaseWriteBatchSize);
+		} else {
+			this.writer = null;
+		}
+		logger.info(String.format("Using the %s storage mode.", storageMode));
 	}
 
 	/**
@@ -65,54 +97,293 @@ public class DatabaseManager {
 
 	/**
 	 * Send a query to the database.
+	 * The query runs on a pooled connection and its prepared statement is reused on later calls.
+	 * In the WAL storage mode updates are handed to the writer thread, and this method waits till they are committed.
 	 *
 	 * @return ArrayList<String> with the result of the query, null if no result
 	 */
 	public ArrayList<String> query(String query, @NotNull QueryTypes types, String... args) {
+		if (types.equals(QueryTypes.UPDATE) && writer != null) {
+			try {
+				update(query, (Object[]) args).join();
+			} catch (CompletionException e) {
+				logger.error(e.getCause().getMessage());
+			}
+			return null;
+		}
 		ArrayList<String> result = null;
-		try {
-			Connection conn = connect();
-			Statement stmt;
+		long start = System.nanoTime();
+		try (PooledConnection conn = pool.acquire()) {
+			long acquired = System.nanoTime();
+			metrics.recordAcquire(query, acquired - start);
 			if (types.equals(QueryTypes.RETURN)) {
-				stmt = conn.prepareStatement(query);
+				PreparedStatement stmt = conn.prepare(query);
 				for (int i = 0; i < args.length; i++) {
-					((PreparedStatement) stmt).setString(i + 1, args[i]);
+					stmt.setString(i + 1, args[i]);
 				}
-				ResultSet results = ((PreparedStatement) stmt).executeQuery();
-				logger.info(String.format("Executed query: %s", stmt));
+				int rows = 0;
+				try (ResultSet results = stmt.executeQuery()) {
+					logger.info(String.format("Executed query: %s", stmt));
 
-				ResultSetMetaData rsmd = results.getMetaData();
-				int columnCount = rsmd.getColumnCount();
-				result = new ArrayList<>(columnCount);
+					ResultSetMetaData rsmd = results.getMetaData();
+					int columnCount = rsmd.getColumnCount();
+					result = new ArrayList<>(columnCount);
 
-				while (results.next()) {
-					int i = 1;
-					while (i <= columnCount) {
-						result.add(results.getString(i++));
+					while (results.next()) {
+						rows++;
+						int i = 1;
+						while (i <= columnCount) {
+							result.add(results.getString(i++));
+						}
 					}
 				}
-			} else {
-				stmt = conn.createStatement();
-				if (args.length == 0) {
+				metrics.recordExecution(query, System.nanoTime() - acquired, rows, conn, (Object[]) args);
+			} else if (args.length == 0) {
+				// statements without arguments are schema changes that only run once, so they aren't cached
+				try (Statement stmt = conn.getConnection().createStatement()) {
 					stmt.executeUpdate(query);
 					logger.info(String.format("Executed query: %s", stmt));
-				} else {
-					stmt = conn.prepareStatement(query);
-					for (int i = 0; i < args.length; i++) {
-						((PreparedStatement) stmt).setString(i + 1, args[i]);
-					}
-					((PreparedStatement) stmt).executeUpdate();
-					logger.info(String.format("Executed query: %s", stmt));
 				}
+			} else {
+				PreparedStatement stmt = conn.prepare(query);
+				for (int i = 0; i < args.length; i++) {
+					stmt.setString(i + 1, args[i]);
+				}
+				int changedRows = stmt.executeUpdate();
+				logger.info(String.format("Executed query: %s", stmt));
+				metrics.recordExecution(query, System.nanoTime() - acquired, changedRows, conn, (Object[]) args);
 			}
-			stmt.close();
-			conn.close();
 		} catch (SQLException e) {
-			System.out.println(e.getMessage());
+			logger.error(e.getMessage());
 		}
 		return result;
 	}
 
+	/**
+	 * Send a query to the database and map every row of the result with the mapper.
+	 *
+	 * @return the mapped rows, an empty list if the query failed
+	 */
+	public <T> List<T> queryList(String query, @NotNull RowMapper<T> mapper, Object... args) {
+		List<T> result = new ArrayList<>();
+		stream(query, row -> result.add(mapper.map(row)), args);
+		return result;
+	}
+
+	/**
+	 * Send a query to the database and map the first row of the result with the mapper.
+	 *
+	 * @return the mapped row, empty if the query had no result or failed
+	 */
+	public <T> Optional<T> queryOne(String query, @NotNull RowMapper<T> mapper, Object... args) {
+		List<T> result = new ArrayList<>(1);
+		stream(query, row -> {
+			result.add(mapper.map(row));
+			return false;
+		}, args);
+		return result.isEmpty() ? Optional.empty() : Optional.ofNullable(result.get(0));
+	}
+
+	/**
+	 * Send a query to the database and read the first column of the first row as an int.
+	 *
+	 * @return the value, empty if the query had no result, the value was null or the query failed
+	 */
+	public OptionalInt queryInt(String query, Object... args) {
+		int[] value = new int[1];
+		boolean[] found = {false};
+		stream(query, row -> {
+			value[0] = row.getInt(1);
+			found[0] = !row.wasNull();
+			return false;
+		}, args);
+		return found[0] ? OptionalInt.of(value[0]) : OptionalInt.empty();
+	}
+
+	/**
+	 * @return true if the query has at least one row in its result
+	 */
+	public boolean exists(String query, Object... args) {
+		boolean[] exists = {false};
+		stream(query, row -> {
+			exists[0] = true;
+			return false;
+		}, args);
+		return exists[0];
+	}
+
+	/**
+	 * Send a query to the database and hand the rows of the result to the handler one at a time.
+	 * Rows are read from the database while the handler runs, so large results are never loaded into memory at once.
+	 * The connection is held until the handler stops or the result ends, so keep the handler short.
+	 * The time spent in the handler counts towards the execution time of the query.
+	 *
+	 * @return the amount of rows that were handled
+	 */
+	public int stream(String query, @NotNull RowHandler handler, Object... args) {
+		int rows = 0;
+		long start = System.nanoTime();
+		try (PooledConnection conn = pool.acquire()) {
+			long acquired = System.nanoTime();
+			metrics.recordAcquire(query, acquired - start);
+			PreparedStatement stmt = conn.prepare(query);
+			bind(stmt, args);
+			try (ResultSet results = stmt.executeQuery()) {
+				while (results.next()) {
+					rows++;
+					if (!handler.handle(results)) {
+						break;
+					}
+				}
+			}
+			logger.info(String.format("Executed query: %s", stmt));
+			metrics.recordExecution(query, System.nanoTime() - acquired, rows, conn, args);
+		} catch (SQLException e) {
+			logger.error(e.getMessage());
+		}
+		return rows;
+	}
+
+	/**
+	 * Binds the arguments to the parameters of the statement in order.
+	 */
+	static void bind(@NotNull PreparedStatement stmt, Object @NotNull [] args) throws SQLException {
+		for (int i = 0; i < args.length; i++) {
+			stmt.setObject(i + 1, args[i]);
+		}
+	}
+
+	/**
+	 * Send an update to the database without waiting for it.
+	 * In the WAL storage mode the update is grouped with other writes into one transaction on the writer thread.
+	 *
+	 * @return a future that completes with the amount of changed rows once the update has been committed
+	 */
+	public CompletableFuture<Integer> update(String query, Object... args) {
+		if (writer != null) {
+			if (writer.isWriterThread()) {
+				return CompletableFuture.failedFuture(
+						new IllegalStateException("Updates can't be queued from the writer thread itself."));
+			}
+			return writer.submit(query, args);
+		}
+		long start = System.nanoTime();
+		try (PooledConnection conn = pool.acquire()) {
+			long acquired = System.nanoTime();
+			int changedRows;
+			if (args.length == 0) {
+				try (Statement stmt = conn.getConnection().createStatement()) {
+					changedRows = stmt.executeUpdate(query);
+				}
+			} else {
+				metrics.recordAcquire(query, acquired - start);
+				PreparedStatement stmt = conn.prepare(query);
+				bind(stmt, args);
+				changedRows = stmt.executeUpdate();
+				metrics.recordExecution(query, System.nanoTime() - acquired, changedRows, conn, args);
+			}
+			logger.info(String.format("Executed query: %s", query));
+			return CompletableFuture.completedFuture(changedRows);
+		} catch (SQLException e) {
+			logger.error(e.getMessage());
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	/**
+	 * Runs a unit of work in one transaction, so all of its statements are committed together or not at all.
+	 * In the default storage mode the work is retried from the start when the database is busy, so it must not have
+	 * side effects outside the transaction. In the WAL storage mode the work runs on the writer thread, and this
+	 * method waits till it is committed.
+	 *
+	 * @return the result of the work
+	 * @throws SQLException if the work failed, it has been rolled back
+	 */
+	public <T> T transaction(@NotNull TransactionWork<T> work) throws SQLException {
+		if (writer != null) {
+			if (writer.isWriterThread()) {
+				throw new SQLException("Transactions can't be started from the writer thread itself.");
+			}
+			try {
+				return writer.submit(connection -> work.run(new Transaction(connection, metrics))).join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof SQLException) {
+					throw (SQLException) e.getCause();
+				}
+				throw new SQLException(e.getCause());
+			}
+		}
+		for (int attempt = 1; ; attempt++) {
+			try (PooledConnection conn = pool.acquire()) {
+				Connection connection = conn.getConnection();
+				connection.setAutoCommit(false);
+				try {
+					T result = work.run(new Transaction(conn, metrics));
+					connection.commit();
+					return result;
+				} catch (SQLException | RuntimeException e) {
+					connection.rollback();
+					throw e;
+				} finally {
+					connection.setAutoCommit(true);
+				}
+			} catch (SQLException e) {
+				if (!isBusy(e) || attempt >= transactionAttempts) {
+					throw e;
+				}
+				logger.warn(String.format("The database is busy, retrying transaction (attempt %d/%d).", attempt + 1,
+						transactionAttempts));
+				try {
+					// back off a little longer after every attempt
+					Thread.sleep(10L * attempt);
+				} catch (InterruptedException interrupted) {
+					Thread.currentThread().interrupt();
+					throw e;
+				}
+			}
+		}
+	}
+
+	private static boolean isBusy(@NotNull SQLException e) {
+		return (e.getErrorCode() & 0xff) == SQLiteErrorCode.SQLITE_BUSY.code;
+	}
+
+	public StorageMode getStorageMode() {
+		return storageMode;
+	}
+
+	/**
+	 * @return the writer thread of the WAL storage mode, null in the default storage mode
+	 */
+	public DatabaseWriter getWriter() {
+		return writer;
+	}
+
+	/**
+	 * @return the histograms of every query that has been sent through this manager
+	 */
+	public QueryMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * @return the pool that holds the connections of this manager
+	 */
+	public ConnectionPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * Closes all connections to the database.
+	 */
+	public void close() {
+		logger.info(String.format("Closing database connections. %s", pool));
+		if (writer != null) {
+			writer.close();
+		}
+		pool.close();
+	}
+
 	/**
 	 * Creates a new database.
 	 */
@@ -128,16 +399,18 @@ public class DatabaseManager {
 	}
 
 	/**
-	 * Creates all tables.
+	 * Creates all tables and migrates them to the latest version of the schema.
 	 */
 	public void createAllTables() {
-		query(PrefixTableQueries.createPrefixTable, QueryTypes.UPDATE);
-		query(CommandTrackerTableQueries.createCommandUsageUserTable, QueryTypes.UPDATE);
-		query(UserTableQueries.createUserTable, QueryTypes.UPDATE);
-		query(WordleTableQueries.createWordleTable, QueryTypes.UPDATE);
-		query(EncounterTableQueries.creatEncounterTable, QueryTypes.UPDATE);
-		query(BlackjackTableQueries.createBlackjackTable, QueryTypes.UPDATE);
-		query(DailiesTableQueries.createDailiesTable, QueryTypes.UPDATE);
+		new SchemaMigrator(this, Config.getInstance().databaseMigrationChunkSize).migrate();
+	}
+
+	/**
+	 * A unit of work that runs in a single transaction.
+	 */
+	@FunctionalInterface
+	public interface TransactionWork<T> {
+		T run(Transaction transaction) throws SQLException;
 	}
 
 	/**
@@ -146,4 +419,11 @@ public class DatabaseManager {
 	 * RETURN has a return value.
 	 */
 	public enum QueryTypes {UPDATE, RETURN}
+
+	/**
+	 * How the database is accessed.
+	 * DEFAULT writes from the calling thread with a rollback journal.
+	 * WAL enables write-ahead logging and sends all writes through a single writer thread.
+	 */
+	public enum StorageMode {DEFAULT, WAL}
 }
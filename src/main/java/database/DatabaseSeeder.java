@@ -23,7 +23,7 @@ public class DatabaseSeeder {
 			String streak = String.valueOf(random.nextInt(10));
 			String totalGames = String.valueOf(random.nextInt(100));
 			String highestStreak = String.valueOf(random.nextInt(7));
-			String wonLastGame = "true";
+			String wonLastGame = "1";
 			manager.query(UserTableQueries.addUser, DatabaseManager.QueryTypes.UPDATE, userId, name, currency, level, experience);
 			manager.query(WordleTableQueries.addUserWordle, DatabaseManager.QueryTypes.UPDATE, userId, fastestTime, wonLastGame,
 					streak, totalGames, highestStreak);
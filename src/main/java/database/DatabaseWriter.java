@@ -0,0 +1,224 @@
+package database;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends every write to the database through a single thread, since SQLite only allows one writer at a time.
+ * Writes that are queued together are grouped into one transaction, so a busy bot only pays for one commit per batch.
+ * The future of a write completes once the transaction it was part of has been committed.
+ */
+public class DatabaseWriter {
+
+	final static Logger logger = LoggerFactory.getLogger(DatabaseWriter.class);
+
+	private final ConnectionPool writerPool;
+	private final QueryMetrics metrics;
+	private final BlockingQueue<PendingWrite<?>> queue;
+	private final long commitIntervalMillis;
+	private final int maxBatchSize;
+	private final Thread thread;
+	private final LongAdder committedBatches;
+	private final LongAdder committedWrites;
+
+	private volatile boolean running;
+
+	public DatabaseWriter(ConnectionPool writerPool, QueryMetrics metrics, long commitIntervalMillis, int maxBatchSize) {
+		this.writerPool = writerPool;
+		this.metrics = metrics;
+		this.queue = new LinkedBlockingQueue<>();
+		this.commitIntervalMillis = commitIntervalMillis;
+		this.maxBatchSize = Math.max(1, maxBatchSize);
+		this.committedBatches = new LongAdder();
+		this.committedWrites = new LongAdder();
+		this.running = true;
+		this.thread = new Thread(this::run, "database-writer");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * Queues a write on the writer thread.
+	 *
+	 * @return a future that completes with the result of the task once it has been committed
+	 */
+	public <T> CompletableFuture<T> submit(@NotNull WriteTask<T> task) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		if (!running) {
+			future.completeExceptionally(new SQLException("The database writer has been stopped."));
+			return future;
+		}
+		queue.add(new PendingWrite<>(task, future));
+		return future;
+	}
+
+	/**
+	 * Queues a single update statement on the writer thread.
+	 *
+	 * @return a future that completes with the amount of changed rows once the statement has been committed
+	 */
+	public CompletableFuture<Integer> submit(@NotNull String sql, Object... args) {
+		return submit(connection -> {
+			if (args.length == 0) {
+				// statements without arguments are schema changes that only run once, so they aren't cached
+				try (Statement statement = connection.getConnection().createStatement()) {
+					return statement.executeUpdate(sql);
+				}
+			}
+			long start = System.nanoTime();
+			PreparedStatement statement = connection.prepare(sql);
+			for (int i = 0; i < args.length; i++) {
+				statement.setObject(i + 1, args[i]);
+			}
+			int changedRows = statement.executeUpdate();
+			metrics.recordExecution(sql, System.nanoTime() - start, changedRows, connection, args);
+			return changedRows;
+		});
+	}
+
+	private void run() {
+		List<PendingWrite<?>> batch = new ArrayList<>(maxBatchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				PendingWrite<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				// give other writers a moment to join this transaction
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(commitIntervalMillis);
+				while (batch.size() < maxBatchSize) {
+					long remaining = deadline - System.nanoTime();
+					PendingWrite<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+				commit(batch);
+			} catch (InterruptedException e) {
+				running = false;
+			} finally {
+				batch.clear();
+			}
+		}
+		logger.info("Database writer stopped.");
+	}
+
+	/**
+	 * Runs every write of the batch in one transaction.
+	 * Each write gets its own savepoint, so a failing write doesn't take the rest of the batch down with it.
+	 */
+	private void commit(@NotNull List<PendingWrite<?>> batch) {
+		List<Object> results = new ArrayList<>(batch.size());
+		List<Throwable> failures = new ArrayList<>(batch.size());
+		try (PooledConnection pooled = writerPool.acquire()) {
+			Connection connection = pooled.getConnection();
+			connection.setAutoCommit(false);
+			try {
+				for (PendingWrite<?> write : batch) {
+					Savepoint savepoint = connection.setSavepoint();
+					try {
+						results.add(write.task.execute(pooled));
+						failures.add(null);
+						connection.releaseSavepoint(savepoint);
+					} catch (SQLException | RuntimeException e) {
+						connection.rollback(savepoint);
+						connection.releaseSavepoint(savepoint);
+						results.add(null);
+						failures.add(e);
+					}
+				}
+				connection.commit();
+			} catch (SQLException e) {
+				connection.rollback();
+				throw e;
+			} finally {
+				connection.setAutoCommit(true);
+			}
+		} catch (SQLException e) {
+			logger.error(String.format("Failed to commit a batch of %d writes: %s", batch.size(), e.getMessage()));
+			batch.forEach(write -> write.future.completeExceptionally(e));
+			return;
+		}
+		committedBatches.increment();
+		committedWrites.add(batch.size());
+		for (int i = 0; i < batch.size(); i++) {
+			Throwable failure = failures.get(i);
+			if (failure == null) {
+				batch.get(i).complete(results.get(i));
+			} else {
+				batch.get(i).future.completeExceptionally(failure);
+			}
+		}
+	}
+
+	/**
+	 * Stops accepting writes, commits everything that is still queued and closes the writer connection.
+	 */
+	public void close() {
+		running = false;
+		try {
+			thread.join(TimeUnit.SECONDS.toMillis(10));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		writerPool.close();
+	}
+
+	/**
+	 * @return true if the current thread is the writer thread
+	 */
+	public boolean isWriterThread() {
+		return Thread.currentThread() == thread;
+	}
+
+	public int getQueueSize() {
+		return queue.size();
+	}
+
+	public long getCommittedBatches() {
+		return committedBatches.sum();
+	}
+
+	public long getCommittedWrites() {
+		return committedWrites.sum();
+	}
+
+	/**
+	 * A unit of work that is executed on the writer connection.
+	 */
+	@FunctionalInterface
+	public interface WriteTask<T> {
+		T execute(PooledConnection connection) throws SQLException;
+	}
+
+	private static class PendingWrite<T> {
+		private final WriteTask<T> task;
+		private final CompletableFuture<T> future;
+
+		private PendingWrite(WriteTask<T> task, CompletableFuture<T> future) {
+			this.task = task;
+			this.future = future;
+		}
+
+		@SuppressWarnings("unchecked")
+		private void complete(Object result) {
+			future.complete((T) result);
+		}
+	}
+}
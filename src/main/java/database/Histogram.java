@@ -0,0 +1,97 @@
+package database;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts recorded values in buckets that grow with the size of the value, like an HDR histogram.
+ * Values below 64 are counted exactly, larger values fall in one of 32 buckets per power of two, so every percentile
+ * is accurate to about 3%. Recording is lock free and takes constant time.
+ */
+public class Histogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int EXACT_LIMIT = SUB_BUCKET_COUNT * 2;
+	private static final int BUCKET_COUNT = EXACT_LIMIT + (Long.SIZE - SUB_BUCKET_BITS - 2) * SUB_BUCKET_COUNT;
+
+	private final AtomicLongArray buckets;
+	private final LongAdder count;
+	private final LongAdder total;
+	private final AtomicLong max;
+
+	public Histogram() {
+		this.buckets = new AtomicLongArray(BUCKET_COUNT);
+		this.count = new LongAdder();
+		this.total = new LongAdder();
+		this.max = new AtomicLong(0);
+	}
+
+	/**
+	 * Records a value, negative values are recorded as 0.
+	 */
+	public void record(long value) {
+		long recorded = Math.max(0, value);
+		buckets.incrementAndGet(indexOf(recorded));
+		count.increment();
+		total.add(recorded);
+		max.accumulateAndGet(recorded, Math::max);
+	}
+
+	/**
+	 * @param percentile the percentile between 0 and 100
+	 * @return the highest value of the bucket the percentile falls in, 0 if nothing has been recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long recorded = count.sum();
+		if (recorded == 0) {
+			return 0;
+		}
+		long target = Math.max(1, (long) Math.ceil(recorded * Math.min(100, percentile) / 100d));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += buckets.get(i);
+			if (seen >= target) {
+				return Math.min(highestValueOf(i), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public long getTotal() {
+		return total.sum();
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	public double getMean() {
+		long recorded = count.sum();
+		return recorded == 0 ? 0 : total.sum() / (double) recorded;
+	}
+
+	private static int indexOf(long value) {
+		if (value < EXACT_LIMIT) {
+			return (int) value;
+		}
+		// shift the value till only the highest bits are left, those pick the sub bucket
+		int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+		return EXACT_LIMIT + (shift - 1) * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	private static long highestValueOf(int index) {
+		if (index < EXACT_LIMIT) {
+			return index;
+		}
+		int shift = (index - EXACT_LIMIT) / SUB_BUCKET_COUNT + 1;
+		long subBucket = (index - EXACT_LIMIT) % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+		return ((subBucket + 1) << shift) - 1;
+	}
+}
@@ -0,0 +1,116 @@
+package database;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A connection owned by a {@link ConnectionPool}.
+ * Statements prepared through this connection are cached by their sql, which are the constants in database.queries.
+ * Closing a pooled connection hands it back to the pool.
+ */
+public class PooledConnection implements AutoCloseable {
+
+	final static Logger logger = LoggerFactory.getLogger(PooledConnection.class);
+
+	private final ConnectionPool pool;
+	private final Connection connection;
+	private final Map<String, PreparedStatement> statements;
+
+	PooledConnection(ConnectionPool pool, Connection connection, int statementCacheSize) {
+		this.pool = pool;
+		this.connection = connection;
+		// least recently used statements are closed once the cache is full
+		this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+				if (size() > statementCacheSize) {
+					closeQuietly(eldest.getValue());
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached statement for this sql, or prepares and caches it if it hasn't been used on this connection.
+	 * The parameters of a cached statement are cleared before it is returned.
+	 */
+	public PreparedStatement prepare(@NotNull String sql) throws SQLException {
+		PreparedStatement statement = statements.get(sql);
+		if (statement != null && !statement.isClosed()) {
+			pool.recordStatementCacheHit();
+			statement.clearParameters();
+			return statement;
+		}
+		pool.recordStatementCacheMiss();
+		statement = connection.prepareStatement(sql);
+		statements.put(sql, statement);
+		return statement;
+	}
+
+	/**
+	 * @return the underlying connection, only use it for statements that shouldn't be cached
+	 */
+	public Connection getConnection() {
+		return connection;
+	}
+
+	/**
+	 * Makes sure the connection can be handed out again.
+	 *
+	 * @return false if the connection is no longer usable
+	 */
+	boolean reset() {
+		try {
+			if (connection.isClosed()) {
+				return false;
+			}
+			if (!connection.getAutoCommit()) {
+				// a transaction was left open, never leak it to the next user of this connection
+				connection.rollback();
+				connection.setAutoCommit(true);
+			}
+			return true;
+		} catch (SQLException e) {
+			logger.error(e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Closes every cached statement and the connection itself.
+	 */
+	void discard() {
+		statements.values().forEach(PooledConnection::closeQuietly);
+		statements.clear();
+		try {
+			connection.close();
+		} catch (SQLException e) {
+			logger.error(e.getMessage());
+		}
+	}
+
+	/**
+	 * Hands the connection back to the pool.
+	 */
+	@Override
+	public void close() {
+		pool.release(this);
+	}
+
+	private static void closeQuietly(PreparedStatement statement) {
+		try {
+			statement.close();
+		} catch (SQLException e) {
+			logger.error(e.getMessage());
+		}
+	}
+}
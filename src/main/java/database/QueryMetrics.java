@@ -0,0 +1,195 @@
+package database;
+
+import database.queries.*;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps histograms of the execution time, the amount of rows and the time spent waiting for a connection of every query.
+ * Queries are grouped by their sql, which are the constants in database.queries.
+ * Queries that take longer than the slow query threshold are logged together with their query plan.
+ */
+public class QueryMetrics {
+
+	final static Logger logger = LoggerFactory.getLogger(QueryMetrics.class);
+
+	private static final List<Class<?>> queryClasses = List.of(BlackjackTableQueries.class,
+			CommandTrackerTableQueries.class, DailiesTableQueries.class, EncounterTableQueries.class,
+			MigrationQueries.class, PrefixTableQueries.class, UserTableQueries.class, WordleTableQueries.class);
+
+	private final long slowQueryThresholdNanos;
+	private final Map<String, QueryStats> stats;
+	private final Map<String, String> constantNames;
+
+	public QueryMetrics(long slowQueryThresholdMillis) {
+		this.slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdMillis);
+		this.stats = new ConcurrentHashMap<>();
+		this.constantNames = loadConstantNames();
+	}
+
+	/**
+	 * Maps the sql of every constant in database.queries to the name of that constant.
+	 */
+	private static @NotNull Map<String, String> loadConstantNames() {
+		Map<String, String> names = new HashMap<>();
+		for (Class<?> queryClass : queryClasses) {
+			for (Field field : queryClass.getFields()) {
+				try {
+					if (field.get(null) instanceof String) {
+						names.put((String) field.get(null),
+								String.format("%s.%s", queryClass.getSimpleName(), field.getName()));
+					}
+				} catch (IllegalAccessException e) {
+					logger.error(e.getMessage());
+				}
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * Records how long the query waited for a connection from the pool.
+	 */
+	public void recordAcquire(String sql, long nanos) {
+		getStats(sql).acquireMicros.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+	}
+
+	/**
+	 * Records an execution of the query. If it was slow, it is logged with its query plan.
+	 * The connection must still be held, since the query plan is read from it.
+	 *
+	 * @param rows the amount of rows that were returned or changed
+	 */
+	public void recordExecution(String sql, long nanos, long rows, @NotNull PooledConnection connection,
+								Object @NotNull ... args) {
+		QueryStats queryStats = getStats(sql);
+		queryStats.executionMicros.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+		queryStats.rows.record(rows);
+		if (nanos >= slowQueryThresholdNanos) {
+			logger.warn(String.format("Slow query: %s took %.3f ms for %d row(s).%n%s", getName(sql),
+					nanos / 1_000_000d, rows, explain(connection, sql, args)));
+		}
+	}
+
+	/**
+	 * @return the query plan of the query with these arguments, one step per line
+	 */
+	private @NotNull String explain(@NotNull PooledConnection connection, String sql, Object @NotNull [] args) {
+		StringBuilder plan = new StringBuilder("Query plan:");
+		// the plan is only read for slow queries, so it isn't worth a place in the statement cache
+		try (PreparedStatement stmt = connection.getConnection().prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+			DatabaseManager.bind(stmt, args);
+			try (ResultSet result = stmt.executeQuery()) {
+				while (result.next()) {
+					plan.append(String.format("%n  %s", result.getString("detail")));
+				}
+			}
+		} catch (SQLException e) {
+			plan.append(String.format(" unavailable (%s)", e.getMessage()));
+		}
+		return plan.toString();
+	}
+
+	private QueryStats getStats(String sql) {
+		return stats.computeIfAbsent(sql, key -> new QueryStats());
+	}
+
+	/**
+	 * @return the name of the constant in database.queries with this sql, or the sql itself for other queries
+	 */
+	public String getName(String sql) {
+		return constantNames.getOrDefault(sql, sql);
+	}
+
+	/**
+	 * @return a snapshot of every query that has been executed, the queries with the highest total time first
+	 */
+	public List<QuerySnapshot> snapshot() {
+		List<QuerySnapshot> snapshots = new ArrayList<>(stats.size());
+		stats.forEach((sql, queryStats) -> snapshots.add(new QuerySnapshot(getName(sql), queryStats)));
+		snapshots.sort(Comparator.comparingDouble(QuerySnapshot::getTotalMillis).reversed());
+		return snapshots;
+	}
+
+	private static class QueryStats {
+		private final Histogram executionMicros = new Histogram();
+		private final Histogram rows = new Histogram();
+		private final Histogram acquireMicros = new Histogram();
+	}
+
+	/**
+	 * The percentiles of a single query at the moment the snapshot was taken. Times are in milliseconds.
+	 */
+	public static class QuerySnapshot {
+		private final String name;
+		private final long count;
+		private final double totalMillis;
+		private final double p50Millis;
+		private final double p95Millis;
+		private final double p99Millis;
+		private final double maxMillis;
+		private final long p99Rows;
+		private final double p99AcquireMillis;
+
+		private QuerySnapshot(String name, @NotNull QueryStats stats) {
+			this.name = name;
+			this.count = stats.executionMicros.getCount();
+			this.totalMillis = stats.executionMicros.getTotal() / 1000d;
+			this.p50Millis = stats.executionMicros.getValueAtPercentile(50) / 1000d;
+			this.p95Millis = stats.executionMicros.getValueAtPercentile(95) / 1000d;
+			this.p99Millis = stats.executionMicros.getValueAtPercentile(99) / 1000d;
+			this.maxMillis = stats.executionMicros.getMax() / 1000d;
+			this.p99Rows = stats.rows.getValueAtPercentile(99);
+			this.p99AcquireMillis = stats.acquireMicros.getValueAtPercentile(99) / 1000d;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public double getTotalMillis() {
+			return totalMillis;
+		}
+
+		public double getP50Millis() {
+			return p50Millis;
+		}
+
+		public double getP95Millis() {
+			return p95Millis;
+		}
+
+		public double getP99Millis() {
+			return p99Millis;
+		}
+
+		public double getMaxMillis() {
+			return maxMillis;
+		}
+
+		public long getP99Rows() {
+			return p99Rows;
+		}
+
+		public double getP99AcquireMillis() {
+			return p99AcquireMillis;
+		}
+	}
+}
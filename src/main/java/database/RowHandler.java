@@ -0,0 +1,18 @@
+package database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Handles the rows of a result set one at a time, without loading the whole result into memory.
+ */
+@FunctionalInterface
+public interface RowHandler {
+
+	/**
+	 * Handles the current row.
+	 *
+	 * @return true to continue with the next row, false to stop reading the result
+	 */
+	boolean handle(ResultSet row) throws SQLException;
+}
@@ -0,0 +1,12 @@
+package database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a result set to an object.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+	T map(ResultSet row) throws SQLException;
+}
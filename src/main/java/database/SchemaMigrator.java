@@ -0,0 +1,276 @@
+package database;
+
+import database.queries.*;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Brings the schema of the database up to date.
+ * Every migration has a version, the versions that have been applied are kept in the schema_version table.
+ * Migrations that rewrite a table copy its rows in chunks, so a large table never holds the write lock for long.
+ */
+public class SchemaMigrator {
+
+	final static Logger logger = LoggerFactory.getLogger(SchemaMigrator.class);
+
+	private final DatabaseManager manager;
+	private final int chunkSize;
+	private final List<Migration> migrations;
+	private final List<TableRewrite> numericRewrites;
+
+	public SchemaMigrator(DatabaseManager manager, int chunkSize) {
+		this.manager = manager;
+		this.chunkSize = Math.max(1, chunkSize);
+		this.migrations = List.of(
+				new Migration(1, "Create the tables", this::createTables),
+				new Migration(2, "Store numeric columns as INTEGER", this::rewriteNumericColumns),
+				new Migration(3, "Index the leaderboard columns", this::createIndexes),
+				new Migration(4, "Index the blackjack leaderboard columns", this::createBlackjackIndexes)
+		);
+		this.numericRewrites = List.of(
+				new TableRewrite("user", "experience", UserTableQueries.createUserTable,
+						MigrationQueries.copyLegacyUsers),
+				new TableRewrite("wordle", "streak", WordleTableQueries.createWordleTable,
+						MigrationQueries.copyLegacyWordle),
+				new TableRewrite("blackjack", "streak", BlackjackTableQueries.createBlackjackTable,
+						MigrationQueries.copyLegacyBlackjack),
+				new TableRewrite("dailies", "streak", DailiesTableQueries.createDailiesTable,
+						MigrationQueries.copyLegacyDailies),
+				new TableRewrite("command_tracker", "amount", CommandTrackerTableQueries.createCommandUsageUserTable,
+						MigrationQueries.copyLegacyCommandTracker)
+		);
+	}
+
+	/**
+	 * Applies every migration that hasn't been applied yet, in order of their version.
+	 * A migration that fails is retried the next time the bot starts, the migrations after it are skipped till then.
+	 */
+	public void migrate() {
+		try (Connection conn = manager.connect()) {
+			if (conn == null) {
+				return;
+			}
+			try (Statement stmt = conn.createStatement()) {
+				// tables are renamed and recreated, which must not touch the tables that reference them
+				stmt.execute(MigrationQueries.disableForeignKeys);
+				stmt.execute(MigrationQueries.enableLegacyAlterTable);
+				stmt.executeUpdate(MigrationQueries.createSchemaVersionTable);
+			}
+			int version = getVersion(conn);
+			for (Migration migration : migrations) {
+				if (migration.version <= version) {
+					continue;
+				}
+				long start = System.currentTimeMillis();
+				migration.step.apply(conn);
+				try (PreparedStatement stmt = conn.prepareStatement(MigrationQueries.addSchemaVersion)) {
+					stmt.setInt(1, migration.version);
+					stmt.setString(2, migration.description);
+					stmt.setString(3, LocalDateTime.now().toString());
+					stmt.executeUpdate();
+				}
+				logger.info(String.format("Migrated the database to version %d (%s) in %d ms.", migration.version,
+						migration.description, System.currentTimeMillis() - start));
+			}
+		} catch (SQLException e) {
+			logger.error(String.format("Migrating the database failed: %s", e.getMessage()));
+		}
+	}
+
+	/**
+	 * @return the latest version that has been applied, 0 for a new database
+	 */
+	private int getVersion(@NotNull Connection conn) throws SQLException {
+		try (Statement stmt = conn.createStatement();
+			 ResultSet result = stmt.executeQuery(MigrationQueries.getSchemaVersion)) {
+			return result.next() ? result.getInt(1) : 0;
+		}
+	}
+
+	private void createTables(@NotNull Connection conn) throws SQLException {
+		inTransaction(conn, () -> {
+			execute(conn, PrefixTableQueries.createPrefixTable);
+			execute(conn, CommandTrackerTableQueries.createCommandUsageUserTable);
+			execute(conn, UserTableQueries.createUserTable);
+			execute(conn, WordleTableQueries.createWordleTable);
+			execute(conn, EncounterTableQueries.creatEncounterTable);
+			execute(conn, BlackjackTableQueries.createBlackjackTable);
+			execute(conn, DailiesTableQueries.createDailiesTable);
+			return null;
+		});
+	}
+
+	/**
+	 * Databases created before the schema was versioned store every number as a varchar.
+	 * Those tables are renamed, recreated with INTEGER columns and copied over.
+	 */
+	private void rewriteNumericColumns(@NotNull Connection conn) throws SQLException {
+		for (TableRewrite rewrite : numericRewrites) {
+			rewriteTable(conn, rewrite);
+		}
+	}
+
+	private void createIndexes(@NotNull Connection conn) throws SQLException {
+		inTransaction(conn, () -> {
+			execute(conn, UserTableQueries.createUserExperienceIndex);
+			execute(conn, WordleTableQueries.createWordleTotalGamesIndex);
+			execute(conn, WordleTableQueries.createWordleHighestStreakIndex);
+			execute(conn, WordleTableQueries.createWordleStreakIndex);
+			return null;
+		});
+	}
+
+	private void createBlackjackIndexes(@NotNull Connection conn) throws SQLException {
+		inTransaction(conn, () -> {
+			execute(conn, BlackjackTableQueries.createBlackjackTotalEarningsIndex);
+			execute(conn, BlackjackTableQueries.createBlackjackTotalWinsIndex);
+			return null;
+		});
+	}
+
+	/**
+	 * Rewrites a single table. Rows are moved from the legacy table in chunks, every chunk in its own transaction.
+	 * If the bot stops halfway, the rows that are left in the legacy table are moved the next time it starts.
+	 */
+	private void rewriteTable(@NotNull Connection conn, @NotNull TableRewrite rewrite) throws SQLException {
+		String legacyTable = rewrite.table + "_legacy";
+		if (!tableExists(conn, legacyTable)) {
+			if (!isLegacy(conn, rewrite)) {
+				return;
+			}
+			inTransaction(conn, () -> {
+				execute(conn, String.format(MigrationQueries.renameTable, rewrite.table, legacyTable));
+				execute(conn, rewrite.createStatement);
+				return null;
+			});
+		}
+		String getChunkEnd = String.format(MigrationQueries.getChunkEnd, legacyTable);
+		String deleteCopiedRows = String.format(MigrationQueries.deleteCopiedRows, legacyTable);
+		int chunks = 0;
+		long chunkEnd;
+		while ((chunkEnd = getChunkEnd(conn, getChunkEnd)) != -1) {
+			long lastRow = chunkEnd;
+			inTransaction(conn, () -> {
+				try (PreparedStatement copy = conn.prepareStatement(rewrite.copyStatement);
+					 PreparedStatement delete = conn.prepareStatement(deleteCopiedRows)) {
+					copy.setLong(1, lastRow);
+					copy.executeUpdate();
+					delete.setLong(1, lastRow);
+					return delete.executeUpdate();
+				}
+			});
+			chunks++;
+		}
+		execute(conn, String.format(MigrationQueries.dropTable, legacyTable));
+		logger.info(String.format("Rewrote the %s table in %d chunk(s) of at most %d rows.", rewrite.table, chunks,
+				chunkSize));
+	}
+
+	/**
+	 * @return the rowid of the last row in the next chunk of the table, -1 if the table is empty
+	 */
+	private long getChunkEnd(@NotNull Connection conn, @NotNull String query) throws SQLException {
+		try (PreparedStatement stmt = conn.prepareStatement(query)) {
+			stmt.setInt(1, chunkSize);
+			try (ResultSet result = stmt.executeQuery()) {
+				if (!result.next()) {
+					return -1;
+				}
+				long chunkEnd = result.getLong(1);
+				return result.wasNull() ? -1 : chunkEnd;
+			}
+		}
+	}
+
+	private boolean tableExists(@NotNull Connection conn, @NotNull String table) throws SQLException {
+		try (PreparedStatement stmt = conn.prepareStatement(MigrationQueries.checkIfTableExists)) {
+			stmt.setString(1, table);
+			try (ResultSet result = stmt.executeQuery()) {
+				return result.next();
+			}
+		}
+	}
+
+	/**
+	 * @return true if the marker column of the table is still declared as a varchar
+	 */
+	private boolean isLegacy(@NotNull Connection conn, @NotNull TableRewrite rewrite) throws SQLException {
+		try (PreparedStatement stmt = conn.prepareStatement(MigrationQueries.getColumnType)) {
+			stmt.setString(1, rewrite.table);
+			stmt.setString(2, rewrite.markerColumn);
+			try (ResultSet result = stmt.executeQuery()) {
+				return result.next() && result.getString(1).toLowerCase(Locale.ROOT).startsWith("varchar");
+			}
+		}
+	}
+
+	private static void execute(@NotNull Connection conn, @NotNull String sql) throws SQLException {
+		try (Statement stmt = conn.createStatement()) {
+			stmt.executeUpdate(sql);
+		}
+	}
+
+	private static <T> T inTransaction(@NotNull Connection conn, @NotNull TransactionWork<T> work) throws SQLException {
+		conn.setAutoCommit(false);
+		try {
+			T result = work.run();
+			conn.commit();
+			return result;
+		} catch (SQLException e) {
+			conn.rollback();
+			throw e;
+		} finally {
+			conn.setAutoCommit(true);
+		}
+	}
+
+	@FunctionalInterface
+	private interface TransactionWork<T> {
+		T run() throws SQLException;
+	}
+
+	@FunctionalInterface
+	private interface MigrationStep {
+		void apply(Connection conn) throws SQLException;
+	}
+
+	private static class Migration {
+		private final int version;
+		private final String description;
+		private final MigrationStep step;
+
+		private Migration(int version, String description, MigrationStep step) {
+			this.version = version;
+			this.description = description;
+			this.step = step;
+		}
+	}
+
+	/**
+	 * A table that is recreated with a new schema.
+	 * The marker column is used to tell whether the table still has its old schema.
+	 */
+	private static class TableRewrite {
+		private final String table;
+		private final String markerColumn;
+		private final String createStatement;
+		private final String copyStatement;
+
+		private TableRewrite(String table, String markerColumn, String createStatement, String copyStatement) {
+			this.table = table;
+			this.markerColumn = markerColumn;
+			this.createStatement = createStatement;
+			this.copyStatement = copyStatement;
+		}
+	}
+}
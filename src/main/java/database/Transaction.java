@@ -0,0 +1,107 @@
+package database;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+/**
+ * The statements of a unit of work, which all run on one connection and are committed together.
+ * A transaction is handed out by {@link DatabaseManager#transaction(DatabaseManager.TransactionWork)} and is only
+ * valid while its work runs.
+ */
+public class Transaction {
+
+	final static Logger logger = LoggerFactory.getLogger(Transaction.class);
+
+	private final PooledConnection connection;
+	private final QueryMetrics metrics;
+
+	Transaction(PooledConnection connection, QueryMetrics metrics) {
+		this.connection = connection;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Send a query in this transaction and map the first row of the result with the mapper.
+	 *
+	 * @return the mapped row, empty if the query had no result
+	 */
+	public <T> Optional<T> queryOne(String query, @NotNull RowMapper<T> mapper, Object... args) throws SQLException {
+		long start = System.nanoTime();
+		PreparedStatement stmt = prepare(query, args);
+		Optional<T> result;
+		try (ResultSet results = stmt.executeQuery()) {
+			logger.info(String.format("Executed query: %s", stmt));
+			result = results.next() ? Optional.ofNullable(mapper.map(results)) : Optional.empty();
+		}
+		metrics.recordExecution(query, System.nanoTime() - start, result.isPresent() ? 1 : 0, connection, args);
+		return result;
+	}
+
+	/**
+	 * Send a query in this transaction and read the first column of the first row as an int.
+	 *
+	 * @return the value, empty if the query had no result or the value was null
+	 */
+	public OptionalInt queryInt(String query, Object... args) throws SQLException {
+		long start = System.nanoTime();
+		PreparedStatement stmt = prepare(query, args);
+		OptionalInt result = OptionalInt.empty();
+		try (ResultSet results = stmt.executeQuery()) {
+			logger.info(String.format("Executed query: %s", stmt));
+			if (results.next()) {
+				int value = results.getInt(1);
+				result = results.wasNull() ? OptionalInt.empty() : OptionalInt.of(value);
+			}
+		}
+		metrics.recordExecution(query, System.nanoTime() - start, result.isPresent() ? 1 : 0, connection, args);
+		return result;
+	}
+
+	/**
+	 * Send an update in this transaction. It is only visible to other connections once the transaction is committed.
+	 *
+	 * @return the amount of changed rows
+	 */
+	public int update(String query, Object... args) throws SQLException {
+		long start = System.nanoTime();
+		PreparedStatement stmt = prepare(query, args);
+		int changedRows = stmt.executeUpdate();
+		logger.info(String.format("Executed query: %s", stmt));
+		metrics.recordExecution(query, System.nanoTime() - start, changedRows, connection, args);
+		return changedRows;
+	}
+
+	/**
+	 * Send the same update for every set of arguments in this transaction, as one batch.
+	 *
+	 * @return the amount of changed rows per set of arguments
+	 */
+	public int[] updateBatch(String query, @NotNull List<Object[]> batch) throws SQLException {
+		long start = System.nanoTime();
+		PreparedStatement stmt = connection.prepare(query);
+		for (Object[] args : batch) {
+			DatabaseManager.bind(stmt, args);
+			stmt.addBatch();
+		}
+		int[] changedRows = stmt.executeBatch();
+		logger.info(String.format("Executed batch of %d: %s", batch.size(), query));
+		// the plan of a batch is the plan of its first statement
+		metrics.recordExecution(query, System.nanoTime() - start, batch.size(), connection,
+				batch.isEmpty() ? new Object[0] : batch.get(0));
+		return changedRows;
+	}
+
+	private @NotNull PreparedStatement prepare(String query, Object @NotNull ... args) throws SQLException {
+		PreparedStatement stmt = connection.prepare(query);
+		DatabaseManager.bind(stmt, args);
+		return stmt;
+	}
+}
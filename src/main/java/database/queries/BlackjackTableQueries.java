@@ -3,32 +3,41 @@ package database.queries;
 public interface BlackjackTableQueries {
 	String createBlackjackTable = "CREATE TABLE IF NOT EXISTS blackjack" +
 			"(" +
-			"    userId        varchar(255) " +
+			"    userId        varchar(255) not null " +
+			"        constraint blackjack_pk " +
+			"            primary key " +
 			"        constraint blackjack_user_userId_fk " +
 			"            references user\n" +
 			"            on update cascade on delete cascade, " +
-			"    wonLastGame   varchar(10)  default '0', " +
-			"    streak        varchar(255) default '0', " +
-			"    totalGames    varchar(255) default '0', " +
-			"    totalWins     varchar(255) default '0', " +
-			"    totalEarnings varchar(255) default '0', " +
-			"    totalDraws    varchar(255) default '0', " +
-			"    highestStreak varchar(255) default '0' " +
+			"    wonLastGame   INTEGER      not null default 0, " +
+			"    streak        INTEGER      not null default 0, " +
+			"    totalGames    INTEGER      not null default 0, " +
+			"    totalWins     INTEGER      not null default 0, " +
+			"    totalEarnings INTEGER      not null default 0, " +
+			"    totalDraws    INTEGER      not null default 0, " +
+			"    highestStreak INTEGER      not null default 0 " +
 			")";
 	String checkIfUserExists = "select * from blackjack where userId = ?;";
 	String addUser = "insert into blackjack(userId) values(?);";
 	String getUser = "select * from blackjack where userId = ?;";
 	String updateUserWin =
 			"update blackjack " +
-			"set wonLastGame = 'true', streak = ?, totalGames = ?, totalWins = ?, totalEarnings = ?, highestStreak = ? " +
+			"set wonLastGame = 1, streak = ?, totalGames = ?, totalWins = ?, totalEarnings = ?, highestStreak = ? " +
 			"where userId = ?;";
 	String updateUserDraw =
 			"update blackjack " +
-			"set wonLastGame = 'false', streak = '0', totalGames = ?, totalDraws = ?, totalEarnings = ? " +
+			"set wonLastGame = 0, streak = 0, totalGames = ?, totalDraws = ?, totalEarnings = ? " +
 			"where userId = ?;";
 	String updateUserLoss =
 			"update blackjack " +
-			"set wonLastGame = 'false', streak = '0', totalGames = ?, totalEarnings = ? " +
+			"set wonLastGame = 0, streak = 0, totalGames = ?, totalEarnings = ? " +
 			"where userId = ?;";
+	String createBlackjackTotalEarningsIndex = "CREATE INDEX IF NOT EXISTS blackjack_totalEarnings_index ON blackjack (totalEarnings DESC);";
+	String createBlackjackTotalWinsIndex = "CREATE INDEX IF NOT EXISTS blackjack_totalWins_index ON blackjack (totalWins DESC);";
+	String blackjackGetTopTotalEarnings = "SELECT user.userId, user.name, blackjack.totalEarnings FROM user JOIN blackjack ON user.userId = blackjack.userId ORDER BY blackjack.totalEarnings DESC, user.userId LIMIT ?;";
+	String blackjackGetTopTotalWins = "SELECT user.userId, user.name, blackjack.totalWins FROM user JOIN blackjack ON user.userId = blackjack.userId ORDER BY blackjack.totalWins DESC, user.userId LIMIT ?;";
+	// the top of the given users, %s is replaced by a parameter for every user id
+	String blackjackGetTopTotalEarningsOf = "SELECT user.userId, user.name, blackjack.totalEarnings FROM user JOIN blackjack ON user.userId = blackjack.userId WHERE user.userId IN (%s) ORDER BY blackjack.totalEarnings DESC, user.userId LIMIT ?;";
+	String blackjackGetTopTotalWinsOf = "SELECT user.userId, user.name, blackjack.totalWins FROM user JOIN blackjack ON user.userId = blackjack.userId WHERE user.userId IN (%s) ORDER BY blackjack.totalWins DESC, user.userId LIMIT ?;";
 
 }
@@ -1,10 +1,10 @@
 package database.queries;
 
 public interface CommandTrackerTableQueries {
-	String createCommandUsageUserTable = "CREATE TABLE IF NOT EXISTS command_tracker (commandName varchar(255), userId varchar(255), amount varchar(255));";
+	String createCommandUsageUserTable = "CREATE TABLE IF NOT EXISTS command_tracker (commandName varchar(255) not null, userId varchar(255) not null, amount INTEGER not null default 0, constraint command_tracker_pk primary key (commandName, userId));";
 	String checkIfCommandUsageUserTracked = "SELECT * FROM command_tracker WHERE commandName = ? AND userId = ?;";
-	String addCommandUsageUserToTracker = "INSERT INTO command_tracker(commandName, userId, amount) VALUES(?, ?, ?);";
+	String addCommandUsageUserAmount = "INSERT INTO command_tracker(commandName, userId, amount) VALUES(?, ?, ?) " +
+			"ON CONFLICT(commandName, userId) DO UPDATE SET amount = amount + excluded.amount;";
 	String checkCommandUsageUserAmount = "SELECT amount FROM command_tracker WHERE commandName = ? AND userId = ?";
-	String updateCommandUsageUserAmount = "UPDATE command_tracker SET amount = ? WHERE commandName = ? AND userId = ?";
-	String checkCommandUsageGlobalAmount = "SELECT sum(CAST(amount as INT)) from command_tracker WHERE commandName = ?;";
+	String checkCommandUsageGlobalAmount = "SELECT sum(amount) from command_tracker WHERE commandName = ?;";
 }
@@ -0,0 +1,54 @@
+package database.queries;
+
+/**
+ * All queries used to migrate the schema of the database.
+ */
+public interface MigrationQueries {
+	String createSchemaVersionTable = "CREATE TABLE IF NOT EXISTS schema_version" +
+			"(" +
+			"    version     INTEGER      not null " +
+			"        constraint schema_version_pk " +
+			"            primary key, " +
+			"    description varchar(255), " +
+			"    appliedAt   varchar(255) " +
+			");";
+	String getSchemaVersion = "SELECT max(version) FROM schema_version;";
+	String addSchemaVersion = "INSERT INTO schema_version(version, description, appliedAt) VALUES(?, ?, ?);";
+
+	String disableForeignKeys = "PRAGMA foreign_keys = OFF;";
+	// keeps the references of other tables pointing at the name of a renamed table instead of following the rename
+	String enableLegacyAlterTable = "PRAGMA legacy_alter_table = ON;";
+
+	String checkIfTableExists = "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?;";
+	String getColumnType = "SELECT type FROM pragma_table_info(?) WHERE name = ?;";
+	String renameTable = "ALTER TABLE %s RENAME TO %s;";
+	String dropTable = "DROP TABLE IF EXISTS %s;";
+	String getChunkEnd = "SELECT max(rowid) FROM (SELECT rowid FROM %s ORDER BY rowid LIMIT ?);";
+	String deleteCopiedRows = "DELETE FROM %s WHERE rowid <= ?;";
+
+	String copyLegacyUsers = "INSERT OR IGNORE INTO user(userId, name, currency, level, experience) " +
+			"SELECT userId, name, coalesce(CAST(currency AS INTEGER), 0), coalesce(CAST(level AS INTEGER), 1), " +
+			"coalesce(CAST(experience AS INTEGER), 0) " +
+			"FROM user_legacy WHERE rowid <= ?;";
+	String copyLegacyWordle = "INSERT OR IGNORE INTO wordle(userId, fastestTime, wonLastGame, streak, totalGames, highestStreak) " +
+			"SELECT userId, CAST(nullif(fastestTime, 'null') AS INTEGER), " +
+			"CASE WHEN wonLastGame IN ('true', '1') THEN 1 ELSE 0 END, coalesce(CAST(streak AS INTEGER), 0), " +
+			"coalesce(CAST(totalGames AS INTEGER), 0), coalesce(CAST(highestStreak AS INTEGER), 0) " +
+			"FROM wordle_legacy WHERE rowid <= ?;";
+	String copyLegacyBlackjack = "INSERT OR IGNORE INTO blackjack(userId, wonLastGame, streak, totalGames, totalWins, " +
+			"totalEarnings, totalDraws, highestStreak) " +
+			"SELECT userId, CASE WHEN wonLastGame IN ('true', '1') THEN 1 ELSE 0 END, coalesce(CAST(streak AS INTEGER), 0), " +
+			"coalesce(CAST(totalGames AS INTEGER), 0), coalesce(CAST(totalWins AS INTEGER), 0), " +
+			"coalesce(CAST(totalEarnings AS INTEGER), 0), coalesce(CAST(totalDraws AS INTEGER), 0), " +
+			"coalesce(CAST(highestStreak AS INTEGER), 0) " +
+			"FROM blackjack_legacy WHERE rowid <= ?;";
+	String copyLegacyDailies = "INSERT OR IGNORE INTO dailies(userId, lastDailyDate, streak, totalClaimed) " +
+			"SELECT userId, nullif(lastDailyDate, 'null'), coalesce(CAST(streak AS INTEGER), 0), " +
+			"coalesce(CAST(totalClaimed AS INTEGER), 0) " +
+			"FROM dailies_legacy WHERE rowid <= ?;";
+	// rows that were tracked twice for the same command and user are added up
+	String copyLegacyCommandTracker = "INSERT INTO command_tracker(commandName, userId, amount) " +
+			"SELECT commandName, userId, coalesce(CAST(amount AS INTEGER), 0) " +
+			"FROM command_tracker_legacy WHERE rowid <= ? AND commandName IS NOT NULL AND userId IS NOT NULL " +
+			"ON CONFLICT(commandName, userId) DO UPDATE SET amount = amount + excluded.amount;";
+}
@@ -12,22 +12,22 @@ public interface UserTableQueries {
 			"        constraint user_pk " +
 			"            primary key, " +
 			"    name       varchar(255), " +
-			"    currency   varchar(255), " +
-			"    level      varchar(255), " +
-			"    experience varchar(255) " +
-			");" +
-			"CREATE UNIQUE INDEX IF NOT EXISTS user_userId_uindex " +
-			"    on user (userId);";
+			"    currency   INTEGER      not null default 0, " +
+			"    level      INTEGER      not null default 1, " +
+			"    experience INTEGER      not null default 0 " +
+			");";
+	String createUserExperienceIndex = "CREATE INDEX IF NOT EXISTS user_experience_index ON user (experience DESC);";
 	String removeUser = "DELETE FROM user WHERE userId = ?;";
 	String selectUser = "SELECT * FROM user WHERE userId = ?;";
 	String addUser = "INSERT INTO user(userId, name, currency, level, experience) VALUES(?, ?, ?, ?, ?);";
+	// adds a user with the defaults of a new user: userId, name
+	String addUserIfMissing = "INSERT OR IGNORE INTO user(userId, name, currency, level, experience) VALUES(?, ?, 0, 1, 0);";
 	String updateUserExperience = "UPDATE user SET experience = ? WHERE userId = ?;";
 	String updateUserLevelAndExperience = "UPDATE user SET level = ?, experience = ? WHERE userId = ?;";
 	String getUserExperienceAndLevel = "SELECT experience, level FROM user WHERE userId = ?;";
-	String getUserRankByExperience = "SELECT rank FROM (SELECT userId, row_number() over () as rank FROM (SELECT userId FROM (SELECT userId FROM user ORDER BY CAST(experience AS INT) DESC))) WHERE userId = ?";
-	String getUserAmount = "SELECT count(*) FROM user;";
 	String updateUserName = "UPDATE user SET name = ? WHERE userId = ?;";
 	String getAllUserIdsAndNames = "SELECT userId, name FROM user";
+	String getAllUserIdsAndExperience = "SELECT userId, experience FROM user;";
 	String getUserCurrency = "SELECT currency FROM user WHERE userId = ?;";
 	String updateUserCurrency = "UPDATE user SET currency = ? WHERE userId = ?;";
 }
@@ -3,22 +3,37 @@ package database.queries;
 public interface WordleTableQueries {
 	String createWordleTable = "CREATE TABLE IF NOT EXISTS wordle " +
 			"(" +
-			"    userId        varchar(255) " +
+			"    userId        varchar(255) not null " +
+			"        constraint wordle_pk " +
+			"            primary key " +
 			"        constraint wordle_user_userId_fk " +
 			"            references user " +
 			"            on update cascade on delete cascade, " +
-			"    fastestTime   varchar(255) default '0', " +
-			"    wonLastGame   varchar(255) default 'null', " +
-			"    streak        varchar(255) default '0', " +
-			"    totalGames    varchar(255) default '0', " +
-			"    highestStreak varchar(255) default '0'" +
-			");" +
-			"CREATE UNIQUE INDEX IF NOT EXISTS wordle_userId_uindex " +
-			"    on wordle (userId);";
+			"    fastestTime   INTEGER, " +
+			"    wonLastGame   INTEGER      not null default 0, " +
+			"    streak        INTEGER      not null default 0, " +
+			"    totalGames    INTEGER      not null default 0, " +
+			"    highestStreak INTEGER      not null default 0" +
+			");";
+	String createWordleTotalGamesIndex = "CREATE INDEX IF NOT EXISTS wordle_totalGames_index ON wordle (totalGames DESC);";
+	String createWordleHighestStreakIndex = "CREATE INDEX IF NOT EXISTS wordle_highestStreak_index ON wordle (highestStreak DESC);";
+	String createWordleStreakIndex = "CREATE INDEX IF NOT EXISTS wordle_streak_index ON wordle (streak DESC);";
 	String addUserWordle = "INSERT INTO wordle(userId, fastestTime, wonLastGame, streak, totalGames, highestStreak) VALUES(?, ?, ?, ?, ?, ?)";
 	String updateUserWordle = "UPDATE wordle SET fastestTime = ?, wonLastGame = ?, streak = ?, totalGames = ?, highestStreak = ? WHERE userId = ?";
 	String selectUserWordle = "SELECT * FROM wordle WHERE userId = ?";
-	String wordleGetTopTotalGamesPlayed = "SELECT user.name, wordle.totalGames FROM user JOIN wordle ON user.userId = wordle.userId ORDER BY CAST(wordle.totalGames AS int) DESC LIMIT 100;";
-	String wordleGetTopHighestStreak = "SELECT user.name, wordle.highestStreak FROM user JOIN wordle ON user.userId = wordle.userId ORDER BY CAST(wordle.highestStreak AS int) DESC LIMIT 100;";
-	String wordleGetTopCurrentStreak = "SELECT user.name, wordle.streak FROM user JOIN wordle ON user.userId = wordle.userId ORDER BY CAST(wordle.streak AS int) DESC LIMIT 100;";
+	// the result of one game: userId, time taken or null if lost, won, the streak and highest streak of a first game
+	String addWordleResult = "INSERT INTO wordle(userId, fastestTime, wonLastGame, streak, totalGames, highestStreak) VALUES(?, ?, ?, ?, 1, ?) " +
+			"ON CONFLICT(userId) DO UPDATE SET " +
+			"fastestTime = CASE WHEN excluded.fastestTime IS NULL THEN fastestTime WHEN fastestTime IS NULL THEN excluded.fastestTime ELSE MIN(fastestTime, excluded.fastestTime) END, " +
+			"wonLastGame = excluded.wonLastGame, " +
+			"streak = CASE WHEN excluded.wonLastGame = 1 THEN streak + 1 ELSE 0 END, " +
+			"totalGames = totalGames + 1, " +
+			"highestStreak = MAX(highestStreak, CASE WHEN excluded.wonLastGame = 1 THEN streak + 1 ELSE 0 END);";
+	String wordleGetTopTotalGamesPlayed = "SELECT user.userId, user.name, wordle.totalGames FROM user JOIN wordle ON user.userId = wordle.userId ORDER BY wordle.totalGames DESC, user.userId LIMIT ?;";
+	String wordleGetTopHighestStreak = "SELECT user.userId, user.name, wordle.highestStreak FROM user JOIN wordle ON user.userId = wordle.userId ORDER BY wordle.highestStreak DESC, user.userId LIMIT ?;";
+	String wordleGetTopCurrentStreak = "SELECT user.userId, user.name, wordle.streak FROM user JOIN wordle ON user.userId = wordle.userId ORDER BY wordle.streak DESC, user.userId LIMIT ?;";
+	// the top of the given users, %s is replaced by a parameter for every user id
+	String wordleGetTopTotalGamesPlayedOf = "SELECT user.userId, user.name, wordle.totalGames FROM user JOIN wordle ON user.userId = wordle.userId WHERE user.userId IN (%s) ORDER BY wordle.totalGames DESC, user.userId LIMIT ?;";
+	String wordleGetTopHighestStreakOf = "SELECT user.userId, user.name, wordle.highestStreak FROM user JOIN wordle ON user.userId = wordle.userId WHERE user.userId IN (%s) ORDER BY wordle.highestStreak DESC, user.userId LIMIT ?;";
+	String wordleGetTopCurrentStreakOf = "SELECT user.userId, user.name, wordle.streak FROM user JOIN wordle ON user.userId = wordle.userId WHERE user.userId IN (%s) ORDER BY wordle.streak DESC, user.userId LIMIT ?;";
 }
@@ -0,0 +1,49 @@
+package events;
+
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import utility.ComponentId;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps the tag of a button id to the handler of that button, so a click is dispatched with a single lookup.
+ * The handlers read what they need from the {@link ComponentId}, instead of from the message the button is on.
+ */
+public class ComponentRouter {
+
+	private final Map<String, ButtonHandler> handlers;
+
+	public ComponentRouter() {
+		this.handlers = new HashMap<>();
+	}
+
+	/**
+	 * Handles the click on a button.
+	 */
+	@FunctionalInterface
+	public interface ButtonHandler {
+		void handle(@NotNull ButtonInteractionEvent event, @NotNull ComponentId id);
+	}
+
+	/**
+	 * Registers the handler for every button with the tag.
+	 * All handlers have to be registered before the first click is routed.
+	 *
+	 * @throws IllegalArgumentException if the tag already has a handler
+	 */
+	public void register(@NotNull String tag, @NotNull ButtonHandler handler) {
+		if (handlers.putIfAbsent(tag, handler) != null) {
+			throw new IllegalArgumentException(String.format("The button tag %s already has a handler.", tag));
+		}
+	}
+
+	/**
+	 * @return the handler of the tag, or null if there is none
+	 */
+	public @Nullable ButtonHandler getHandler(@NotNull String tag) {
+		return handlers.get(tag);
+	}
+}
@@ -1,13 +1,17 @@
 package events;
 
+import commands.CommandExecutor;
+import commands.CommandHandler;
 import commands.dnd.encounter.EncounterGeneratorCmd;
 import commands.games.blackjack.BlackjackPlayCmd;
+import commands.games.wordle.WordleSessionRouter;
+import commands.games.wordle.WordleSolveCmd;
 import database.DatabaseManager;
 import database.queries.UserTableQueries;
 import games.Blackjack;
+import games.Wordle;
 import models.BlackjackStates;
 import net.dv8tion.jda.api.EmbedBuilder;
-import net.dv8tion.jda.api.entities.MessageChannel;
 import net.dv8tion.jda.api.entities.MessageEmbed;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
@@ -15,10 +19,11 @@ import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import net.dv8tion.jda.api.interactions.components.ActionRow;
 import net.dv8tion.jda.api.interactions.components.buttons.Button;
 import org.jetbrains.annotations.NotNull;
+import utility.ComponentId;
+import utility.MessageDispatcher;
+import utility.Metrics;
 import utility.Paginator;
 
-import java.util.ArrayList;
-
 /**
  * Triggers when a button is clicked by a user.
  */
@@ -26,129 +31,187 @@ public class OnButtonInteractionEvent extends ListenerAdapter {
 
 	private final EncounterGeneratorCmd encCmd;
 	private final DatabaseManager dbManager;
+	private final CommandExecutor commandExecutor;
+	private final Metrics metrics;
+	private final MessageDispatcher dispatcher;
+	private final ComponentRouter router;
 
 	public OnButtonInteractionEvent() {
 		this.encCmd = EncounterGeneratorCmd.getInstance();
 		this.dbManager = DatabaseManager.getInstance();
+		this.commandExecutor = CommandExecutor.getInstance();
+		this.metrics = Metrics.getInstance();
+		this.dispatcher = MessageDispatcher.getInstance();
+		this.router = new ComponentRouter();
+		router.register("delete", this::delete);
+		router.register("nextPage", this::nextPage);
+		router.register("previousPage", this::previousPage);
+		router.register("regenerate", this::regenerate);
+		router.register("save", this::save);
+		router.register("hit", this::hit);
+		router.register("stand", this::stand);
+		router.register("replayBlackjack", this::replayBlackjack);
+		router.register("wordleHint", this::wordleHint);
 	}
 
 	@Override
 	public void onButtonInteraction(@NotNull ButtonInteractionEvent event) {
-		String[] id = event.getComponentId().split(":");
-		String authorId = id[0];
-		String type = id[1];
+		ComponentId id = ComponentId.decode(event.getComponentId());
+		if (id == null) {
+			return;
+		}
 		// Check that the button is for the user that clicked it, otherwise just ignore the event (let interaction fail)
 		User user = event.getUser();
-		if (!authorId.equals(user.getId()))
+		if (!id.getUserId().equals(user.getId()))
+			return;
+		String type = id.getTag();
+		ComponentRouter.ButtonHandler handler = router.getHandler(type);
+		if (handler == null) {
+			return;
+		}
+		dispatcher.acknowledge(event.deferEdit()); // acknowledge the button was clicked, otherwise the interaction will fail
+
+		// clicks of the same user are handled in order, so two quick clicks on a game can't interleave
+		boolean accepted = commandExecutor.submit(user.getId(), String.format("button %s", type), () -> {
+			long started = System.nanoTime();
+			try {
+				handler.handle(event, id);
+				metrics.recordButton(type, Metrics.Stage.EXECUTE, System.nanoTime() - started);
+			} catch (RuntimeException e) {
+				metrics.countButtonError(type);
+				throw e;
+			}
+		});
+		if (accepted) {
+			metrics.countButton(type);
+		} else {
+			event.getHook().sendMessage(CommandHandler.busyMessage).setEphemeral(true).queue();
+		}
+	}
+
+	private void delete(@NotNull ButtonInteractionEvent event, @NotNull ComponentId id) {
+		event.getHook().deleteOriginal().queue();
+	}
+
+	private void nextPage(@NotNull ButtonInteractionEvent event, @NotNull ComponentId id) {
+		Paginator paginator = Paginator.paginatorInstances.get(event.getMessage().getId());
+		if(paginator != null) {
+			paginator.nextPage().ifPresent(embed -> dispatcher.edit(event.getMessageId(),
+					event.getHook().editOriginalEmbeds(embed.build())));
+		}
+	}
+
+	private void previousPage(@NotNull ButtonInteractionEvent event, @NotNull ComponentId id) {
+		Paginator paginator = Paginator.paginatorInstances.get(event.getMessage().getId());
+		if(paginator != null) {
+			paginator.previousPage().ifPresent(embed -> dispatcher.edit(event.getMessageId(),
+					event.getHook().editOriginalEmbeds(embed.build())));
+		}
+	}
+
+	private void regenerate(@NotNull ButtonInteractionEvent event, @NotNull ComponentId id) {
+		// encounters generated before the inputs were kept in the id can't be regenerated
+		if(id.getPayloadSize() < 4) {
+			return;
+		}
+		MessageEmbed build = encCmd.regenerateEncounter(id, event.getUser());
+		dispatcher.edit(event.getMessageId(), event.getHook().editOriginalEmbeds(build)
+				.setActionRows(encCmd.getEncounterButtons(id, true)));
+	}
+
+	private void save(@NotNull ButtonInteractionEvent event, @NotNull ComponentId id) {
+		if(id.getPayloadSize() < 4) {
+			return;
+		}
+		dispatcher.edit(event.getMessageId(), event.getHook().editOriginalEmbeds(event.getMessage().getEmbeds())
+				.setActionRows(encCmd.getEncounterButtons(id, false)));
+		encCmd.saveEncounter(id, event.getMessage().getEmbeds().get(0), event.getUser());
+	}
+
+	private void hit(@NotNull ButtonInteractionEvent event, @NotNull ComponentId id) {
+		String authorId = id.getUserId();
+		Blackjack game = BlackjackPlayCmd.blackjackGames.get(authorId);
+		if(game == null || game.isFinished() || game.isPlayerStand()) {
+			return;
+		}
+		game.playerHit();
+		BlackjackStates blackjackStates = game.checkWin(false);
+		EmbedBuilder newEmbed;
+		if(blackjackStates.equals(BlackjackStates.DEALER_WIN)) {
+			game.checkWin(true);
+			newEmbed = BlackjackPlayCmd.generateBlackjackEmbed(event.getUser(), blackjackStates);
+			dispatcher.edit(event.getMessageId(), event.getHook().editOriginalEmbeds(newEmbed.build())
+					.setActionRows(BlackjackPlayCmd.getReplayButtons(authorId, game.getPlayerBet())));
+			BlackjackPlayCmd.blackjackGames.remove(authorId);
+		} else {
+			newEmbed = BlackjackPlayCmd.generateBlackjackEmbed(event.getUser(), null);
+			dispatcher.edit(event.getMessageId(), event.getHook().editOriginalEmbeds(newEmbed.build()));
+		}
+	}
+
+	private void stand(@NotNull ButtonInteractionEvent event, @NotNull ComponentId id) {
+		String authorId = id.getUserId();
+		Blackjack blackjack = BlackjackPlayCmd.blackjackGames.get(authorId);
+		if(blackjack == null || blackjack.isFinished() || blackjack.isPlayerStand()) {
+			return;
+		}
+		blackjack.setPlayerStand(true);
+		blackjack.dealerMoves();
+		blackjack.setDealerStand(true);
+		BlackjackStates blackjackStates = blackjack.checkWin(true);
+		EmbedBuilder embedBuilder = BlackjackPlayCmd.generateBlackjackEmbed(event.getUser(), blackjackStates);
+		dispatcher.edit(event.getMessageId(), event.getHook().editOriginalEmbeds(embedBuilder.build())
+				.setActionRows(BlackjackPlayCmd.getReplayButtons(authorId, blackjack.getPlayerBet())));
+		BlackjackPlayCmd.blackjackGames.remove(authorId);
+	}
+
+	private void replayBlackjack(@NotNull ButtonInteractionEvent event, @NotNull ComponentId id) {
+		String authorId = id.getUserId();
+		if(BlackjackPlayCmd.blackjackGames.containsKey(authorId)) {
 			return;
-		event.deferEdit().queue(); // acknowledge the button was clicked, otherwise the interaction will fail
+		}
+		// the bet of the previous game is kept in the id, a missing bet means the game was played without one
+		int bet = id.getPayloadSize() > 0 ? id.getInt(0) : 0;
+		Blackjack value;
+		if(bet > 0) {
+			int wallet = dbManager.queryInt(UserTableQueries.getUserCurrency, authorId).orElse(0);
+			if(bet > wallet) {
+				event.getHook().sendMessage(String.format("You can't bet `%d` morbcoins, you only have `%d` in your wallet.", bet, wallet)).queue();
+				return;
+			}
+			value = new Blackjack(authorId, bet);
+		} else {
+			value = new Blackjack(authorId);
+		}
+		value.initializeGame();
+		BlackjackPlayCmd.blackjackGames.put(authorId, value);
+		BlackjackStates state = value.checkWin(false);
+		EmbedBuilder embed;
+		if(state.equals(BlackjackStates.PLAYER_BLACKJACK)) {
+			value.dealerHit();
+			value.setDealerStand(true);
+			BlackjackStates blackjackStates = value.checkWin(true);
+			embed = BlackjackPlayCmd.generateBlackjackEmbed(event.getUser(), blackjackStates);
+			BlackjackPlayCmd.blackjackGames.remove(authorId);
+			dispatcher.edit(event.getMessageId(), event.getHook().editOriginalEmbeds(embed.build())
+					.setActionRows(BlackjackPlayCmd.getReplayButtons(authorId, bet)));
+		} else {
+			embed =  BlackjackPlayCmd.generateBlackjackEmbed(event.getUser(), null);
+			dispatcher.edit(event.getMessageId(), event.getHook().editOriginalEmbeds(embed.build()).setActionRows(
+					ActionRow.of(
+							Button.primary(ComponentId.encode(authorId, "stand"), "Stand"),
+							Button.primary(ComponentId.encode(authorId, "hit"), "Hit")
+					)));
+		}
+	}
 
-		MessageChannel channel = event.getChannel();
-		switch (type) {
-			case "delete":
-				event.getHook().deleteOriginal().queue();
-				break;
-			case "nextPage":
-				Paginator paginator = Paginator.paginatorInstances.get(event.getMessage().getId());
-				if(paginator != null) {
-					paginator.nextPage().ifPresent(embed -> event.getHook().editOriginalEmbeds(embed.build()).queue());
-				}
-				break;
-			case "previousPage":
-				Paginator paginator2 = Paginator.paginatorInstances.get(event.getMessage().getId());
-				if(paginator2 != null) {
-					paginator2.previousPage().ifPresent(embed -> event.getHook().editOriginalEmbeds(embed.build()).queue());
-				}
-				break;
-			case "regenerate":
-				MessageEmbed build = encCmd.regenerateEncounter(event.getMessage().getEmbeds().get(0), event.getUser());
-				event.getHook().editOriginalEmbeds(build).setActionRows(
-						ActionRow.of(Button.primary(event.getUser().getId() + ":regenerate", "Regenerate"),
-								Button.primary(event.getUser().getId() + ":save", "Save"),
-								Button.secondary(event.getUser().getId() + ":delete", "Delete"))).queue();
-				break;
-			case "save":
-				event.getHook().editOriginalEmbeds(event.getMessage().getEmbeds()).setActionRows(ActionRow.of(
-						Button.primary(event.getUser().getId() + ":regenerate", "Regenerate"),
-						Button.secondary(event.getUser().getId() + ":delete", "Delete"))).queue();
-				encCmd.saveEncounter(event.getMessage().getEmbeds().get(0), event.getUser());
-				break;
-			case "hit":
-				Blackjack game = BlackjackPlayCmd.blackjackGames.get(event.getUser().getId());
-				if(game.isFinished() || game.isPlayerStand()) {
-					break;
-				}
-				game.playerHit();
-				BlackjackStates blackjackStates = game.checkWin(false);
-				EmbedBuilder newEmbed;
-				if(blackjackStates.equals(BlackjackStates.DEALER_WIN)) {
-					game.checkWin(true);
-					newEmbed = BlackjackPlayCmd.generateBlackjackEmbed(event.getUser(), blackjackStates);
-					event.getHook().editOriginalEmbeds(newEmbed.build()).setActionRows(ActionRow.of(
-							Button.primary(event.getUser().getId() + ":replayBlackjack", "Replay"),
-							Button.secondary(event.getUser().getId() + ":delete", "Delete"))).queue();
-					BlackjackPlayCmd.blackjackGames.remove(user.getId());
-				} else {
-					newEmbed = BlackjackPlayCmd.generateBlackjackEmbed(event.getUser(), null);
-					event.getHook().editOriginalEmbeds(newEmbed.build()).queue();
-				}
-				break;
-			case "stand":
-				Blackjack blackjack = BlackjackPlayCmd.blackjackGames.get(event.getUser().getId());
-				if(blackjack.isFinished() || blackjack.isPlayerStand()) {
-					break;
-				}
-				blackjack.setPlayerStand(true);
-				blackjack.dealerMoves();
-				blackjack.setDealerStand(true);
-				blackjackStates = blackjack.checkWin(true);
-				EmbedBuilder embedBuilder = BlackjackPlayCmd.generateBlackjackEmbed(event.getUser(), blackjackStates);
-				event.getHook().editOriginalEmbeds(embedBuilder.build()).setActionRows(ActionRow.of(
-						Button.primary(event.getUser().getId() + ":replayBlackjack", "Replay"),
-						Button.secondary(event.getUser().getId() + ":delete", "Delete"))).queue();
-				BlackjackPlayCmd.blackjackGames.remove(user.getId());
-				break;
-			case "replayBlackjack":
-				if(BlackjackPlayCmd.blackjackGames.containsKey(authorId)) {
-					break;
-				}
-				String description = event.getMessage().getEmbeds().get(0).getDescription();
-				Blackjack value;
-				if(description == null) {
-					value = new Blackjack(authorId);
-				} else {
-					String s = description.replaceAll("[^0-9]", "");
-					int bet = Integer.parseInt(s);
-					ArrayList<String> result = dbManager.query(UserTableQueries.getUserCurrency, DatabaseManager.QueryTypes.RETURN, user.getId());
-					int wallet = Integer.parseInt(result.get(0));
-					if(bet > wallet) {
-						event.getHook().sendMessage(String.format("You can't bet `%d` morbcoins, you only have `%d` in your wallet.", bet, wallet)).queue();
-						break;
-					}
-					value = new Blackjack(authorId, bet);
-				}
-				value.initializeGame();
-				BlackjackPlayCmd.blackjackGames.put(event.getUser().getId(), value);
-				BlackjackStates state = value.checkWin(false);
-				EmbedBuilder embed;
-				if(state.equals(BlackjackStates.PLAYER_BLACKJACK)) {
-					value.dealerHit();
-					value.setDealerStand(true);
-					blackjackStates = value.checkWin(true);
-					embed = BlackjackPlayCmd.generateBlackjackEmbed(event.getUser(), blackjackStates);
-					BlackjackPlayCmd.blackjackGames.remove(authorId);
-					event.getHook().editOriginalEmbeds(embed.build()).setActionRows(ActionRow.of(
-							Button.primary(authorId + ":replayBlackjack", "Replay"),
-							Button.secondary(authorId + ":delete", "Delete")
-					)).queue();
-				} else {
-					embed =  BlackjackPlayCmd.generateBlackjackEmbed(event.getUser(), null);
-					event.getHook().editOriginalEmbeds(embed.build()).setActionRows(ActionRow.of(
-							Button.primary(authorId + ":stand", "Stand"),
-							Button.primary(authorId + ":hit", "Hit")
-					)).queue();
-				}
-				break;
+	private void wordleHint(@NotNull ButtonInteractionEvent event, @NotNull ComponentId id) {
+		Wordle game = WordleSessionRouter.getInstance().getGame(event.getChannel().getIdLong(),
+				event.getUser().getIdLong());
+		if(game == null) {
+			event.getHook().sendMessage("This game of wordle is over.").setEphemeral(true).queue();
+			return;
 		}
+		event.getHook().sendMessage(WordleSolveCmd.describe(game.hint())).setEphemeral(true).queue();
 	}
 }
@@ -7,6 +7,7 @@ import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import utility.Config;
+import utility.MessageDispatcher;
 
 import javax.annotation.Nonnull;
 import java.awt.*;
@@ -35,8 +36,7 @@ public class OnReadyEvent extends ListenerAdapter {
 		embed.setDescription("Bot is ready.");
 		embed.setFooter(dtf.format(LocalDateTime.now()));
 
-		logs.sendTyping().queue();
-		logs.sendMessageEmbeds(embed.build()).queue();
+		MessageDispatcher.getInstance().sendLog(logs.sendMessageEmbeds(embed.build()));
 		logger.info("Bot is ready.");
 	}
 }
@@ -11,6 +11,7 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import utility.Config;
+import utility.MessageDispatcher;
 
 import java.awt.*;
 import java.time.LocalDateTime;
@@ -50,8 +51,7 @@ public class OnGuildJoinEvent extends ListenerAdapter {
 		embed.addField("Date Created", String.valueOf(event.getGuild().getTimeCreated()), true);
 		embed.setFooter(dtf.format(LocalDateTime.now()));
 
-		logs.sendTyping().queue();
-		logs.sendMessageEmbeds(embed.build()).queue();
+		MessageDispatcher.getInstance().sendLog(logs.sendMessageEmbeds(embed.build()));
 
 		manager.query(PrefixTableQueries.addServerPrefix, DatabaseManager.QueryTypes.UPDATE, event.getGuild().getId(), "!");
 		CommandHandler.prefixes.put(event.getGuild().getId(), "!");
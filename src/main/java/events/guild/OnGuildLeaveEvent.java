@@ -9,6 +9,7 @@ import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import utility.MessageDispatcher;
 
 import javax.annotation.Nonnull;
 import java.awt.*;
@@ -50,8 +51,7 @@ public class OnGuildLeaveEvent extends ListenerAdapter {
 		embed.addField("Date Created", String.valueOf(event.getGuild().getTimeCreated()), true);
 		embed.setFooter(dtf.format(LocalDateTime.now()));
 
-		logs.sendTyping().queue();
-		logs.sendMessageEmbeds(embed.build()).queue();
+		MessageDispatcher.getInstance().sendLog(logs.sendMessageEmbeds(embed.build()));
 
 		manager.query(PrefixTableQueries.deleteServerPrefix, DatabaseManager.QueryTypes.UPDATE, event.getGuild().getId());
 		CommandHandler.prefixes.remove(event.getGuild().getId());
@@ -1,19 +1,28 @@
 package games;
 
 import database.DatabaseManager;
+import database.Transaction;
 import database.queries.BlackjackTableQueries;
 import database.queries.UserTableQueries;
+import models.BlackjackStatistics;
 import models.BlackjackStates;
 import models.CardDeck;
 import models.PlayingCards;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utility.Leaderboards;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 public class Blackjack {
 
+	final static Logger logger = LoggerFactory.getLogger(Blackjack.class);
+
 	private final List<PlayingCards> playerHand;
 	private final List<PlayingCards> dealerHand;
 	private final CardDeck deck;
@@ -60,8 +69,18 @@ public class Blackjack {
 	}
 
 	public void updateWallet(@Nullable BlackjackStates state) {
-		ArrayList<String> query = dbManager.query(UserTableQueries.getUserCurrency, DatabaseManager.QueryTypes.RETURN, userId);
-		int playerWallet = Integer.parseInt(query.get(0));
+		try {
+			dbManager.transaction(transaction -> {
+				updateWallet(transaction, state);
+				return null;
+			});
+		} catch (SQLException e) {
+			logger.error(String.format("Failed to update the wallet of user %s: %s", userId, e.getMessage()));
+		}
+	}
+
+	private void updateWallet(@NotNull Transaction transaction, @Nullable BlackjackStates state) throws SQLException {
+		int playerWallet = transaction.queryInt(UserTableQueries.getUserCurrency, userId).orElse(0);
 		int newWallet;
 		if(state == null) {
 			newWallet = playerWallet - playerBet;
@@ -80,7 +99,7 @@ public class Blackjack {
 				newWallet = playerWallet;
 			}
 		}
-		dbManager.query(UserTableQueries.updateUserCurrency, DatabaseManager.QueryTypes.UPDATE, String.valueOf(newWallet), userId);
+		transaction.update(UserTableQueries.updateUserCurrency, newWallet, userId);
 	}
 
 	public void playerHit() {
@@ -149,41 +168,48 @@ public class Blackjack {
 		return state;
 	}
 
+	/**
+	 * Pays out the bet and updates the statistics of the player in one transaction.
+	 */
 	private void updateBlackjackDatabase(BlackjackStates state) {
-		ArrayList<String> query = dbManager.query(BlackjackTableQueries.getUser, DatabaseManager.QueryTypes.RETURN, userId);
-		String wonLastGame = query.get(1);
-		String streak = query.get(2);
-		String totalGames = query.get(3);
-		String totalWins = query.get(4);
-		String totalEarnings = query.get(5);
-		String totalDraws = query.get(6);
-		String highestStreak = query.get(7);
-		String newTotalGames= String.valueOf(Integer.parseInt(totalGames) + 1);
-		String newTotalDraws = String.valueOf(Integer.parseInt(totalDraws) + 1);
-		String newTotalWins = String.valueOf(Integer.parseInt(totalWins) + 1);
-		String newStreak = String.valueOf(Integer.parseInt(streak) + 1);
-		String newHighestStreak;
-		if(Integer.parseInt(newStreak) > Integer.parseInt(highestStreak)) {
-			newHighestStreak = newStreak;
-		} else {
-			newHighestStreak = highestStreak;
-		}
-		updateWallet(state);
-		if(state.equals(BlackjackStates.DRAW)) {
-			dbManager.query(BlackjackTableQueries.updateUserDraw, DatabaseManager.QueryTypes.UPDATE,
-					newTotalGames, newTotalDraws, String.valueOf(Integer.parseInt(totalEarnings)), userId);
-		} else if(state.equals(BlackjackStates.PLAYER_BLACKJACK)) {
-			dbManager.query(BlackjackTableQueries.updateUserWin, DatabaseManager.QueryTypes.UPDATE,
-					newStreak, newTotalGames, newTotalWins, String.valueOf(Integer.parseInt(totalEarnings) + this.winnings),
-					newHighestStreak, userId);
-		} else if(state.equals(BlackjackStates.PLAYER_WIN)) {
-			dbManager.query(BlackjackTableQueries.updateUserWin, DatabaseManager.QueryTypes.UPDATE,
-					newStreak, newTotalGames, newTotalWins, String.valueOf(Integer.parseInt(totalEarnings) + this.winnings),
-					newHighestStreak, userId);
-		} else {
-			// it's a loss;
-			dbManager.query(BlackjackTableQueries.updateUserLoss, DatabaseManager.QueryTypes.UPDATE,
-					newTotalGames, String.valueOf(Integer.parseInt(totalEarnings) - this.winnings), userId);
+		try {
+			// the total earnings and total wins after this game
+			int[] scores = dbManager.transaction(transaction -> {
+				Optional<BlackjackStatistics> query = transaction.queryOne(BlackjackTableQueries.getUser,
+						BlackjackStatistics::map, userId);
+				if (query.isEmpty()) {
+					return null;
+				}
+				BlackjackStatistics stats = query.get();
+				int newTotalGames = stats.getTotalGames() + 1;
+				int newTotalDraws = stats.getTotalDraws() + 1;
+				int newTotalWins = stats.getTotalWins() + 1;
+				int newStreak = stats.getStreak() + 1;
+				int newHighestStreak = Math.max(newStreak, stats.getHighestStreak());
+				int totalEarnings = stats.getTotalEarnings();
+				updateWallet(transaction, state);
+				if (state.equals(BlackjackStates.DRAW)) {
+					transaction.update(BlackjackTableQueries.updateUserDraw, newTotalGames, newTotalDraws,
+							totalEarnings, userId);
+					return new int[]{totalEarnings, stats.getTotalWins()};
+				} else if (state.equals(BlackjackStates.PLAYER_BLACKJACK) || state.equals(BlackjackStates.PLAYER_WIN)) {
+					transaction.update(BlackjackTableQueries.updateUserWin, newStreak, newTotalGames, newTotalWins,
+							totalEarnings + this.winnings, newHighestStreak, userId);
+					return new int[]{totalEarnings + this.winnings, newTotalWins};
+				} else {
+					// it's a loss;
+					transaction.update(BlackjackTableQueries.updateUserLoss, newTotalGames,
+							totalEarnings - this.winnings, userId);
+					return new int[]{totalEarnings - this.winnings, stats.getTotalWins()};
+				}
+			});
+			if (scores != null) {
+				Leaderboards leaderboards = Leaderboards.getInstance();
+				leaderboards.update(Leaderboards.Board.BLACKJACK_EARNINGS, userId, scores[0]);
+				leaderboards.update(Leaderboards.Board.BLACKJACK_WINS, userId, scores[1]);
+			}
+		} catch (SQLException e) {
+			logger.error(String.format("Failed to save the blackjack game of user %s: %s", userId, e.getMessage()));
 		}
 	}
 
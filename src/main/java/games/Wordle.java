@@ -3,15 +3,9 @@ package games;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import utility.Config;
 
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.Locale;
-import java.util.Random;
-import java.util.Scanner;
+import java.util.Objects;
 
 /**
  * Representation of a Wordle game.
@@ -23,93 +17,91 @@ public class Wordle {
 	final static Logger logger = LoggerFactory.getLogger(Wordle.class);
 
 	public final int maxGuesses = 7;
-	public final int wordLength = 5;
+	public final int wordLength = WordleDictionary.wordLength;
 
 	public String word;
 	public int guesses;
 	public boolean guessed;
+	public final boolean hardMode;
 
-	private ArrayList<String> words;
+	private final WordleDictionary dictionary;
+	private final WordleSolver solver;
+	private final WordleSolver.Candidates candidates;
+	private final int packedWord;
+	// scratch space for scoring, the guesses of a game are made one at a time
+	private final int[] letterCounts;
 
 	public Wordle() {
-		loadWordsAsList();
+		this(false);
+	}
 
+	/**
+	 * @param hardMode if the guesses have to use the letters the previous results revealed
+	 */
+	public Wordle(boolean hardMode) {
+		this.dictionary = WordleDictionary.getInstance();
+		this.solver = WordleSolver.getInstance();
+		this.candidates = solver.candidates();
+
+		this.hardMode = hardMode;
 		this.guesses = 0;
 		this.guessed = false;
 		this.word = generateWord();
+		this.packedWord = WordleDictionary.pack(word);
+		this.letterCounts = new int[27];
 	}
 
 	/**
 	 * Makes a guess for the user and checks if the guess was correct.
 	 *
-	 * @return String[] containing the result of the users guess.
-	 * Example:
-	 * [:green_square:, :green_square:, :black_large_square:, :black_large_square:, :yellow_square:]
-	 * A :green_square: means the letter is at the correct position.
-	 * A :yellow_square: means the letter exists in the word.
-	 * A :black_large_square: means the letter does not exist in the word.
+	 * @param guess a word from the dictionary, see {@link #isValidGuess(String)}
+	 * @return the result of the guess packed by {@link WordleScore}, for example green, green, black, black, yellow.
+	 * A green square means the letter is at the correct position.
+	 * A yellow square means the letter exists in the word.
+	 * A black square means the letter does not exist in the word.
 	 */
-	public String[] guessWord(@NotNull String guess) {
+	public int guessWord(@NotNull String guess) {
 		this.guesses++;
-		char[] word = this.word.toCharArray();
-		char[] guessedWord = guess.toLowerCase(Locale.ROOT).toCharArray();
-		String[] result = new String[5];
-		for (int i = 0; i < this.wordLength; i++) {
-			// letter is in the correct position
-			if (guessedWord[i] == word[i]) {
-				result[i] = ":green_square:";
-				// letter is in the word but in the wrong position
-			} else if (this.word.indexOf(guessedWord[i]) != -1) {
-				int totalYellowSquares = 0;
-				int yellowSquaresBefore = 0;
-				for (int j = 0; j < this.wordLength; j++) {
-					if (word[j] == guessedWord[i] && guessedWord[j] != word[j]) {
-						totalYellowSquares++;
-					}
-				}
-				for (int j = 0; j < i; j++) {
-					if (guessedWord[j] == guessedWord[i] && guessedWord[j] != word[j]) {
-						yellowSquaresBefore++;
-					}
-				}
-				if (yellowSquaresBefore < totalYellowSquares) {
-					result[i] = ":yellow_square:";
-				} else {
-					result[i] = ":black_large_square:";
-				}
-				// letter is not in the word at all
-			} else {
-				result[i] = ":black_large_square:";
-			}
-		}
-		if (guess.equals(this.word)) {
+		int packedGuess = WordleDictionary.pack(guess.toLowerCase(Locale.ROOT));
+		int result = WordleScore.score(packedWord, packedGuess, letterCounts);
+		if (result == WordleScore.solved) {
 			this.guessed = true;
+		} else {
+			candidates.apply(packedGuess, result);
 		}
 		return result;
 	}
 
 	/**
-	 * Picks a random word from a list of 5 letter words.
+	 * Checks if the guess is a word from the dictionary, other guesses don't count.
+	 */
+	public boolean isValidGuess(@NotNull String guess) {
+		return dictionary.contains(guess.toLowerCase(Locale.ROOT));
+	}
+
+	/**
+	 * Checks if the guess follows the rules of hard mode, if the game is played in hard mode.
 	 *
-	 * @return The word that was picked
+	 * @param guess a word from the dictionary
 	 */
-	private String generateWord() {
-		return words.get(new Random().nextInt(words.size()));
+	public boolean followsHardMode(@NotNull String guess) {
+		return !hardMode || candidates.allowsInHardMode(WordleDictionary.pack(guess.toLowerCase(Locale.ROOT)));
 	}
 
 	/**
-	 * Loads the wordle_words.txt file into an ArrayList.
+	 * Suggests the guess that tells the most about the word, following hard mode if the game is played in it.
 	 */
-	private void loadWordsAsList() {
-		ClassLoader classloader = Thread.currentThread().getContextClassLoader();
-		InputStream is = classloader.getResourceAsStream(Config.getInstance().wordleWordsPath);
-		InputStreamReader streamReader = new InputStreamReader(is, StandardCharsets.UTF_8);
-		Scanner s = new Scanner(streamReader);
-		ArrayList<String> list = new ArrayList<>();
-		while (s.hasNext()) {
-			list.add(s.next());
-		}
-		s.close();
-		this.words = list;
+	public @NotNull WordleSolver.Suggestion hint() {
+		// the word always fits the results, so there is always a suggestion
+		return Objects.requireNonNull(solver.suggest(candidates, hardMode));
+	}
+
+	/**
+	 * Picks a random word from the dictionary of 5 letter words.
+	 *
+	 * @return The word that was picked
+	 */
+	private String generateWord() {
+		return dictionary.randomWord();
 	}
 }
@@ -0,0 +1,182 @@
+package games;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utility.Config;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The words of Wordle, read once from the words file and shared by every game.
+ * A word is packed into an int with 5 bits per letter, a is 1 and z is 26, so no word packs to 0. The packed words are
+ * kept in an array to pick answers from and in an open addressing hash set to check guesses in constant time.
+ * The dictionary can't be changed after it is loaded, so it is read without locking.
+ * This class is a singleton.
+ */
+public class WordleDictionary {
+
+	final static Logger logger = LoggerFactory.getLogger(WordleDictionary.class);
+
+	public static final int wordLength = 5;
+	private static final int bitsPerLetter = 5;
+
+	private static WordleDictionary instance;
+
+	private final int[] words;
+	// 0 marks an empty slot, the length is a power of two that is at least twice the amount of words
+	private final int[] table;
+	private final int mask;
+
+	/**
+	 * A private constructor since this class is a singleton.
+	 */
+	private WordleDictionary() {
+		this.words = loadWords(Config.getInstance().wordleWordsPath);
+		this.table = new int[Integer.highestOneBit(words.length * 2 - 1) << 1];
+		this.mask = table.length - 1;
+		for (int word : words) {
+			int slot = slot(word);
+			while (table[slot] != 0 && table[slot] != word) {
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = word;
+		}
+		logger.info(String.format("Loaded %d wordle words.", words.length));
+	}
+
+	/**
+	 * Get the only existing instance of this class.
+	 *
+	 * @return The instance of this class.
+	 */
+	public static WordleDictionary getInstance() {
+		if (instance == null) {
+			instance = new WordleDictionary();
+		}
+		return instance;
+	}
+
+	/**
+	 * Reads the words from the file on the classpath, lines that aren't a word of 5 letters are skipped.
+	 *
+	 * @return the packed words, sorted and without duplicates
+	 */
+	private static int[] loadWords(String path) {
+		ClassLoader classloader = Thread.currentThread().getContextClassLoader();
+		InputStream is = classloader.getResourceAsStream(path);
+		if (is == null) {
+			throw new IllegalStateException(String.format("The wordle words file %s can't be found.", path));
+		}
+		int[] words = new int[2048];
+		int size = 0;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				int word = pack(line.trim().toLowerCase(Locale.ROOT));
+				if (word == -1) {
+					continue;
+				}
+				if (size == words.length) {
+					words = Arrays.copyOf(words, size * 2);
+				}
+				words[size++] = word;
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException(String.format("The wordle words file %s can't be read.", path), e);
+		}
+		if (size == 0) {
+			throw new IllegalStateException(String.format("The wordle words file %s has no words.", path));
+		}
+		return Arrays.stream(words, 0, size).sorted().distinct().toArray();
+	}
+
+	/**
+	 * Packs a word of 5 lowercase letters into an int.
+	 *
+	 * @return the packed word, or -1 if it isn't a word of 5 letters from a to z
+	 */
+	public static int pack(@NotNull CharSequence word) {
+		if (word.length() != wordLength) {
+			return -1;
+		}
+		int packed = 0;
+		for (int i = 0; i < wordLength; i++) {
+			char letter = word.charAt(i);
+			if (letter < 'a' || letter > 'z') {
+				return -1;
+			}
+			packed = (packed << bitsPerLetter) | (letter - 'a' + 1);
+		}
+		return packed;
+	}
+
+	/**
+	 * @return the word that was packed into the int
+	 */
+	public static @NotNull String unpack(int packed) {
+		char[] letters = new char[wordLength];
+		for (int i = wordLength - 1; i >= 0; i--) {
+			letters[i] = (char) ('a' - 1 + (packed & ((1 << bitsPerLetter) - 1)));
+			packed >>>= bitsPerLetter;
+		}
+		return new String(letters);
+	}
+
+	/**
+	 * @param word a word in lowercase
+	 * @return true if the word is in the dictionary
+	 */
+	public boolean contains(@NotNull CharSequence word) {
+		int packed = pack(word);
+		if (packed == -1) {
+			return false;
+		}
+		int slot = slot(packed);
+		while (table[slot] != 0) {
+			if (table[slot] == packed) {
+				return true;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return false;
+	}
+
+	/**
+	 * @return a random word from the dictionary
+	 */
+	public @NotNull String randomWord() {
+		return unpack(words[ThreadLocalRandom.current().nextInt(words.length)]);
+	}
+
+	public int size() {
+		return words.length;
+	}
+
+	/**
+	 * @return the packed word at the index, the words are sorted by their packed value
+	 */
+	int get(int index) {
+		return words[index];
+	}
+
+	/**
+	 * @return the index of the packed word, or a negative number if it isn't in the dictionary
+	 */
+	int indexOf(int packed) {
+		return Arrays.binarySearch(words, packed);
+	}
+
+	private int slot(int packed) {
+		// spread the letters over the slots, the low bits alone only hold the last letter
+		int hash = packed * 0x9E3779B9;
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+}
@@ -0,0 +1,117 @@
+package games;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Scores wordle guesses without allocating.
+ * The result of a guess is packed into an int with 2 bits per letter, the first letter in the highest bits, so the
+ * rows of squares can be looked up instead of built. Words are packed the way {@link WordleDictionary#pack} packs
+ * them.
+ */
+public final class WordleScore {
+
+	public static final int black = 0;
+	public static final int yellow = 1;
+	public static final int green = 2;
+
+	private static final int wordLength = WordleDictionary.wordLength;
+	private static final int bitsPerLetter = 5;
+	private static final int letterMask = (1 << bitsPerLetter) - 1;
+	private static final int bitsPerResult = 2;
+	private static final int resultMask = (1 << bitsPerResult) - 1;
+	private static final String[] squares = {":black_large_square:", ":yellow_square:", ":green_square:"};
+	// the row of squares of every packed result, followed by the space the board puts after every square
+	private static final String[] rows = new String[1 << (bitsPerResult * wordLength)];
+
+	/**
+	 * The result of a guess that is the word.
+	 */
+	public static final int solved;
+
+	static {
+		int allGreen = 0;
+		for (int i = 0; i < wordLength; i++) {
+			allGreen = (allGreen << bitsPerResult) | green;
+		}
+		solved = allGreen;
+		for (int result = 0; result < rows.length; result++) {
+			StringBuilder row = new StringBuilder();
+			for (int i = 0; i < wordLength; i++) {
+				int square = get(result, i);
+				if (square >= squares.length) {
+					row = null;
+					break;
+				}
+				row.append(squares[square]).append(' ');
+			}
+			rows[result] = row == null ? null : row.toString();
+		}
+	}
+
+	private WordleScore() {
+	}
+
+	/**
+	 * Scores a guess against the word. Letters that are in the right place are green, the other letters are yellow
+	 * from left to right for as many times as the letter is left in the word, and black after that.
+	 *
+	 * @param word   the packed word
+	 * @param guess  the packed guess
+	 * @param counts scratch space for the letter counts, 27 ints that are all 0, they are 0 again afterwards
+	 * @return the packed result
+	 */
+	public static int score(int word, int guess, int @NotNull [] counts) {
+		int result = 0;
+		// count the letters of the word that the guess doesn't have in the right place
+		for (int shift = 0; shift < wordLength * bitsPerLetter; shift += bitsPerLetter) {
+			int wordLetter = (word >>> shift) & letterMask;
+			if (wordLetter != ((guess >>> shift) & letterMask)) {
+				counts[wordLetter]++;
+			}
+		}
+		for (int i = 0; i < wordLength; i++) {
+			int shift = (wordLength - 1 - i) * bitsPerLetter;
+			int guessLetter = (guess >>> shift) & letterMask;
+			int square;
+			if (guessLetter == ((word >>> shift) & letterMask)) {
+				square = green;
+			} else if (counts[guessLetter] > 0) {
+				counts[guessLetter]--;
+				square = yellow;
+			} else {
+				square = black;
+			}
+			result = (result << bitsPerResult) | square;
+		}
+		for (int shift = 0; shift < wordLength * bitsPerLetter; shift += bitsPerLetter) {
+			counts[(word >>> shift) & letterMask] = 0;
+		}
+		return result;
+	}
+
+	/**
+	 * @return the square of the letter at the position, {@link #black}, {@link #yellow} or {@link #green}
+	 */
+	public static int get(int result, int position) {
+		return (result >>> ((wordLength - 1 - position) * bitsPerResult)) & resultMask;
+	}
+
+	/**
+	 * Appends a guess and its squares to a wordle board, the letters in a code block on one line and the squares on
+	 * the next.
+	 */
+	public static void appendRow(@NotNull StringBuilder board, @NotNull CharSequence guess, int result) {
+		board.append("` ");
+		for (int i = 0; i < wordLength; i++) {
+			board.append(guess.charAt(i)).append(i + 1 == wordLength ? " " : "  ");
+		}
+		board.append("`\n").append(rows[result]).append('\n');
+	}
+
+	/**
+	 * Appends only the squares of a guess to a board, for boards that other players see.
+	 */
+	public static void appendSquares(@NotNull StringBuilder board, int result) {
+		board.append(rows[result]).append('\n');
+	}
+}
@@ -0,0 +1,395 @@
+package games;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds the words that still fit the results of the guesses of a wordle game, and the guess that tells the most about
+ * which of them is the word.
+ * A set of words is a bitset over the words of the {@link WordleDictionary}. There is a mask of the words with a letter
+ * in a position for every position and letter, and a mask of the words with at least some amount of a letter for every
+ * letter and amount, so the result of a guess is applied with a few ANDs per letter.
+ * Guesses are rated by the entropy that is expected to remain after them, the guesses are spread over a fork join pool.
+ * This class is a singleton.
+ */
+public class WordleSolver {
+
+	private static final int wordLength = WordleDictionary.wordLength;
+	private static final int letters = 27;
+	private static final int bitsPerLetter = 5;
+	private static final int letterMask = (1 << bitsPerLetter) - 1;
+	private static final int results = 1 << (2 * wordLength);
+	// the amount of guesses a task rates itself instead of splitting them over two tasks
+	private static final int guessesPerTask = 64;
+
+	private static WordleSolver instance;
+
+	private final WordleDictionary dictionary;
+	private final int size;
+	private final int blocks;
+	private final long[] all;
+	// the words with the letter at the position, by position and letter
+	private final long[][][] positionMasks;
+	// the words with at least the amount of the letter, by letter and amount
+	private final long[][][] countMasks;
+	private final ForkJoinPool pool;
+	private volatile Suggestion opening;
+
+	/**
+	 * A private constructor since this class is a singleton.
+	 */
+	private WordleSolver() {
+		this.dictionary = WordleDictionary.getInstance();
+		this.size = dictionary.size();
+		this.blocks = (size + 63) >>> 6;
+		this.positionMasks = new long[wordLength][letters][blocks];
+		this.countMasks = new long[letters][wordLength + 1][blocks];
+		int[] counts = new int[letters];
+		for (int index = 0; index < size; index++) {
+			int word = dictionary.get(index);
+			for (int position = 0; position < wordLength; position++) {
+				int letter = letterAt(word, position);
+				set(positionMasks[position][letter], index);
+				counts[letter]++;
+			}
+			for (int letter = 0; letter < letters; letter++) {
+				for (int amount = 0; amount <= counts[letter]; amount++) {
+					set(countMasks[letter][amount], index);
+				}
+				counts[letter] = 0;
+			}
+		}
+		// no word has the letter 0, so every word has at least 0 of it
+		this.all = countMasks[0][0];
+		this.pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Get the only existing instance of this class.
+	 *
+	 * @return The instance of this class.
+	 */
+	public static WordleSolver getInstance() {
+		if (instance == null) {
+			instance = new WordleSolver();
+		}
+		return instance;
+	}
+
+	/**
+	 * @return a set of all the words in the dictionary, for a game without guesses
+	 */
+	public @NotNull Candidates candidates() {
+		return new Candidates();
+	}
+
+	/**
+	 * Finds the guess that is expected to leave the least uncertainty about the word.
+	 *
+	 * @param hardMode only suggest guesses that are allowed in hard mode
+	 * @return the best guess, or null if no word fits the results of the guesses
+	 */
+	public @Nullable Suggestion suggest(@NotNull Candidates candidates, boolean hardMode) {
+		if (candidates.size == 0) {
+			return null;
+		}
+		// without guesses every game is the same, so the first guess is only rated once
+		boolean first = candidates.size == size;
+		if (first && opening != null) {
+			return opening;
+		}
+		int[] remaining = new int[candidates.size];
+		int count = 0;
+		for (int index = 0; index < size; index++) {
+			if (isSet(candidates.words, index)) {
+				remaining[count++] = dictionary.get(index);
+			}
+		}
+		long[] allowed = hardMode ? candidates.hardMode : all;
+		Rating best = pool.invoke(new RateTask(remaining, candidates.words, allowed, 0, size));
+		Suggestion suggestion = new Suggestion(WordleDictionary.unpack(dictionary.get(best.index)), best.entropy,
+				best.expectedWords, remaining.length, best.candidate);
+		if (first) {
+			opening = suggestion;
+		}
+		return suggestion;
+	}
+
+	private static int letterAt(int word, int position) {
+		return (word >>> ((wordLength - 1 - position) * bitsPerLetter)) & letterMask;
+	}
+
+	private static void set(long @NotNull [] set, int index) {
+		set[index >>> 6] |= 1L << index;
+	}
+
+	private static boolean isSet(long @NotNull [] set, int index) {
+		return (set[index >>> 6] & (1L << index)) != 0;
+	}
+
+	private static void and(long @NotNull [] set, long @NotNull [] mask) {
+		for (int i = 0; i < set.length; i++) {
+			set[i] &= mask[i];
+		}
+	}
+
+	private static void andNot(long @NotNull [] set, long @NotNull [] mask) {
+		for (int i = 0; i < set.length; i++) {
+			set[i] &= ~mask[i];
+		}
+	}
+
+	/**
+	 * The words that still fit the results of the guesses of a game. A set is changed by one game at a time.
+	 */
+	public class Candidates {
+
+		private final long[] words;
+		// the words that use everything the results revealed, the only guesses that are allowed in hard mode
+		private final long[] hardMode;
+		private int size;
+
+		private Candidates() {
+			this.words = all.clone();
+			this.hardMode = all.clone();
+			this.size = WordleSolver.this.size;
+		}
+
+		/**
+		 * Removes the words that don't fit the result of the guess.
+		 *
+		 * @param guess  the packed guess
+		 * @param result the result of the guess packed by {@link WordleScore}
+		 */
+		public void apply(int guess, int result) {
+			for (int position = 0; position < wordLength; position++) {
+				long[] mask = positionMasks[position][letterAt(guess, position)];
+				if (WordleScore.get(result, position) == WordleScore.green) {
+					and(words, mask);
+					and(hardMode, mask);
+				} else {
+					andNot(words, mask);
+				}
+			}
+			for (int position = 0; position < wordLength; position++) {
+				int letter = letterAt(guess, position);
+				if (position != firstPosition(guess, letter)) {
+					continue;
+				}
+				// every green or yellow square is a letter of the word, a black square means there are no more
+				int found = 0;
+				boolean exhausted = false;
+				for (int other = position; other < wordLength; other++) {
+					if (letterAt(guess, other) == letter) {
+						if (WordleScore.get(result, other) == WordleScore.black) {
+							exhausted = true;
+						} else {
+							found++;
+						}
+					}
+				}
+				and(words, countMasks[letter][found]);
+				and(hardMode, countMasks[letter][found]);
+				if (exhausted) {
+					andNot(words, countMasks[letter][found + 1]);
+				}
+			}
+			int count = 0;
+			for (long block : words) {
+				count += Long.bitCount(block);
+			}
+			size = count;
+		}
+
+		private int firstPosition(int word, int letter) {
+			for (int position = 0; position < wordLength; position++) {
+				if (letterAt(word, position) == letter) {
+					return position;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Checks the hard mode rule, a guess has to keep the green letters in place and use the yellow letters.
+		 *
+		 * @param guess the packed guess
+		 */
+		public boolean allowsInHardMode(int guess) {
+			int index = dictionary.indexOf(guess);
+			return index >= 0 && isSet(hardMode, index);
+		}
+
+		/**
+		 * @return the amount of words that still fit
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * @return the first words that still fit in alphabetical order
+		 */
+		public @NotNull List<String> words(int limit) {
+			List<String> result = new ArrayList<>(Math.min(limit, size));
+			for (int index = 0; index < WordleSolver.this.size && result.size() < limit; index++) {
+				if (isSet(words, index)) {
+					result.add(WordleDictionary.unpack(dictionary.get(index)));
+				}
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * The guess that is expected to leave the least uncertainty about the word.
+	 */
+	public static class Suggestion {
+
+		private final String word;
+		private final double entropy;
+		private final double expectedWords;
+		private final int remaining;
+		private final boolean candidate;
+
+		private Suggestion(String word, double entropy, double expectedWords, int remaining, boolean candidate) {
+			this.word = word;
+			this.entropy = entropy;
+			this.expectedWords = expectedWords;
+			this.remaining = remaining;
+			this.candidate = candidate;
+		}
+
+		public String getWord() {
+			return word;
+		}
+
+		/**
+		 * @return the bits of uncertainty about the word that are expected to be left after the guess
+		 */
+		public double getEntropy() {
+			return entropy;
+		}
+
+		/**
+		 * @return the amount of words that are expected to still fit after the guess
+		 */
+		public double getExpectedWords() {
+			return expectedWords;
+		}
+
+		/**
+		 * @return the amount of words that fit before the guess
+		 */
+		public int getRemaining() {
+			return remaining;
+		}
+
+		/**
+		 * @return true if the guess can be the word itself
+		 */
+		public boolean isCandidate() {
+			return candidate;
+		}
+	}
+
+	private static class Rating {
+		private final int index;
+		private final double entropy;
+		private final double expectedWords;
+		private final boolean candidate;
+
+		private Rating(int index, double entropy, double expectedWords, boolean candidate) {
+			this.index = index;
+			this.entropy = entropy;
+			this.expectedWords = expectedWords;
+			this.candidate = candidate;
+		}
+
+		/**
+		 * @return the rating with the least entropy, a guess that can be the word wins a tie
+		 */
+		private static @Nullable Rating best(@Nullable Rating first, @Nullable Rating second) {
+			if (first == null) {
+				return second;
+			}
+			if (second == null) {
+				return first;
+			}
+			if (first.entropy != second.entropy) {
+				return first.entropy < second.entropy ? first : second;
+			}
+			if (first.candidate != second.candidate) {
+				return first.candidate ? first : second;
+			}
+			return first.index < second.index ? first : second;
+		}
+	}
+
+	/**
+	 * Rates the allowed guesses in a range of the dictionary against the words that still fit.
+	 */
+	private class RateTask extends RecursiveTask<Rating> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int[] remaining;
+		private final long[] candidates;
+		private final long[] allowed;
+		private final int from;
+		private final int to;
+
+		private RateTask(int[] remaining, long[] candidates, long[] allowed, int from, int to) {
+			this.remaining = remaining;
+			this.candidates = candidates;
+			this.allowed = allowed;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Rating compute() {
+			if (to - from > guessesPerTask) {
+				int middle = (from + to) >>> 1;
+				RateTask left = new RateTask(remaining, candidates, allowed, from, middle);
+				left.fork();
+				Rating right = new RateTask(remaining, candidates, allowed, middle, to).compute();
+				return Rating.best(left.join(), right);
+			}
+			int[] buckets = new int[results];
+			int[] counts = new int[letters];
+			Rating best = null;
+			for (int index = from; index < to; index++) {
+				if (!isSet(allowed, index)) {
+					continue;
+				}
+				int guess = dictionary.get(index);
+				Arrays.fill(buckets, 0);
+				for (int word : remaining) {
+					buckets[WordleScore.score(word, guess, counts)]++;
+				}
+				// the entropy left after a result is the log of the amount of words with that result
+				double entropy = 0;
+				double expectedWords = 0;
+				for (int bucket : buckets) {
+					if (bucket > 1) {
+						entropy += bucket * Math.log(bucket);
+						expectedWords += (double) bucket * bucket;
+					} else if (bucket == 1) {
+						expectedWords++;
+					}
+				}
+				entropy /= remaining.length * Math.log(2);
+				expectedWords /= remaining.length;
+				best = Rating.best(best, new Rating(index, entropy, expectedWords, isSet(candidates, index)));
+			}
+			return best;
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package models;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A row of the blackjack table.
+ */
+public class BlackjackStatistics {
+
+	private final int streak;
+	private final int totalGames;
+	private final int totalWins;
+	private final int totalEarnings;
+	private final int totalDraws;
+	private final int highestStreak;
+
+	public BlackjackStatistics(int streak, int totalGames, int totalWins, int totalEarnings, int totalDraws,
+							   int highestStreak) {
+		this.streak = streak;
+		this.totalGames = totalGames;
+		this.totalWins = totalWins;
+		this.totalEarnings = totalEarnings;
+		this.totalDraws = totalDraws;
+		this.highestStreak = highestStreak;
+	}
+
+	public static @NotNull BlackjackStatistics map(@NotNull ResultSet row) throws SQLException {
+		return new BlackjackStatistics(row.getInt("streak"), row.getInt("totalGames"), row.getInt("totalWins"),
+				row.getInt("totalEarnings"), row.getInt("totalDraws"), row.getInt("highestStreak"));
+	}
+
+	public int getStreak() {
+		return streak;
+	}
+
+	public int getTotalGames() {
+		return totalGames;
+	}
+
+	public int getTotalWins() {
+		return totalWins;
+	}
+
+	public int getTotalEarnings() {
+		return totalEarnings;
+	}
+
+	public int getTotalDraws() {
+		return totalDraws;
+	}
+
+	public int getTotalLosses() {
+		return totalGames - totalWins - totalDraws;
+	}
+
+	public int getHighestStreak() {
+		return highestStreak;
+	}
+}
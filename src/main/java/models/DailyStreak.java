@@ -0,0 +1,43 @@
+package models;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * A row of the dailies table.
+ */
+public class DailyStreak {
+
+	private final LocalDateTime lastDailyDate;
+	private final int streak;
+	private final int totalClaimed;
+
+	public DailyStreak(@Nullable LocalDateTime lastDailyDate, int streak, int totalClaimed) {
+		this.lastDailyDate = lastDailyDate;
+		this.streak = streak;
+		this.totalClaimed = totalClaimed;
+	}
+
+	public static @NotNull DailyStreak map(@NotNull ResultSet row) throws SQLException {
+		String lastDailyDate = row.getString("lastDailyDate");
+		// a daily that was never claimed is stored as null
+		LocalDateTime lastDaily = lastDailyDate == null ? null : LocalDateTime.parse(lastDailyDate);
+		return new DailyStreak(lastDaily, row.getInt("streak"), row.getInt("totalClaimed"));
+	}
+
+	public @Nullable LocalDateTime getLastDailyDate() {
+		return lastDailyDate;
+	}
+
+	public int getStreak() {
+		return streak;
+	}
+
+	public int getTotalClaimed() {
+		return totalClaimed;
+	}
+}
@@ -0,0 +1,51 @@
+package models;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A row of the user table.
+ */
+public class UserProfile {
+
+	private final String userId;
+	private final String name;
+	private final int currency;
+	private final int level;
+	private final int experience;
+
+	public UserProfile(String userId, String name, int currency, int level, int experience) {
+		this.userId = userId;
+		this.name = name;
+		this.currency = currency;
+		this.level = level;
+		this.experience = experience;
+	}
+
+	public static @NotNull UserProfile map(@NotNull ResultSet row) throws SQLException {
+		return new UserProfile(row.getString("userId"), row.getString("name"), row.getInt("currency"),
+				row.getInt("level"), row.getInt("experience"));
+	}
+
+	public String getUserId() {
+		return userId;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getCurrency() {
+		return currency;
+	}
+
+	public int getLevel() {
+		return level;
+	}
+
+	public int getExperience() {
+		return experience;
+	}
+}
@@ -0,0 +1,56 @@
+package models;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A row of the wordle table.
+ */
+public class WordleStatistics {
+
+	/**
+	 * The fastest time in seconds, null if the user never guessed a word.
+	 */
+	private final Integer fastestTime;
+	private final int streak;
+	private final int totalGames;
+	private final int highestStreak;
+
+	public WordleStatistics(@Nullable Integer fastestTime, int streak, int totalGames, int highestStreak) {
+		this.fastestTime = fastestTime;
+		this.streak = streak;
+		this.totalGames = totalGames;
+		this.highestStreak = highestStreak;
+	}
+
+	public static @NotNull WordleStatistics map(@NotNull ResultSet row) throws SQLException {
+		int fastestTime = row.getInt("fastestTime");
+		// a fastest time that was never set is stored as null
+		Integer fastest = row.wasNull() ? null : fastestTime;
+		return new WordleStatistics(fastest, row.getInt("streak"), row.getInt("totalGames"),
+				row.getInt("highestStreak"));
+	}
+
+	public boolean hasFastestTime() {
+		return fastestTime != null;
+	}
+
+	public @Nullable Integer getFastestTime() {
+		return fastestTime;
+	}
+
+	public int getStreak() {
+		return streak;
+	}
+
+	public int getTotalGames() {
+		return totalGames;
+	}
+
+	public int getHighestStreak() {
+		return highestStreak;
+	}
+}
@@ -0,0 +1,179 @@
+package utility;
+
+import database.DatabaseManager;
+import database.queries.CommandTrackerTableQueries;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how often every user uses every command.
+ * Usages are counted in memory and written to the command_tracker table in one batch every few seconds, so running a
+ * command never waits on the database.
+ * This class is a singleton.
+ */
+public class CommandTracker {
+
+	final static Logger logger = LoggerFactory.getLogger(CommandTracker.class);
+
+	private static CommandTracker instance;
+
+	private final DatabaseManager manager;
+	private final Map<Usage, LongAdder> pending;
+	private final Map<Usage, Long> flushing;
+	private final ScheduledExecutorService scheduler;
+
+	/**
+	 * A private constructor since this class is a singleton.
+	 */
+	private CommandTracker() {
+		this.manager = DatabaseManager.getInstance();
+		this.pending = new ConcurrentHashMap<>();
+		this.flushing = new ConcurrentHashMap<>();
+		long flushInterval = Config.getInstance().commandTrackerFlushInterval;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "command-tracker");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.scheduler.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Get the only existing instance of this class.
+	 *
+	 * @return The instance of this class.
+	 */
+	public static CommandTracker getInstance() {
+		if (instance == null) {
+			instance = new CommandTracker();
+		}
+		return instance;
+	}
+
+	/**
+	 * Counts a usage of the command by the user.
+	 * The counter is incremented while the map holds the key, so a flush can't remove it in between and lose the usage.
+	 */
+	public void increment(String commandName, String userId) {
+		pending.compute(new Usage(commandName, userId), (usage, counter) -> {
+			LongAdder current = counter == null ? new LongAdder() : counter;
+			current.increment();
+			return current;
+		});
+	}
+
+	/**
+	 * @return the amount of times the user used the command, including the usages that haven't been written yet
+	 */
+	public long getUserAmount(String commandName, String userId) {
+		Usage usage = new Usage(commandName, userId);
+		long amount = manager.queryInt(CommandTrackerTableQueries.checkCommandUsageUserAmount, commandName, userId)
+				.orElse(0);
+		LongAdder counter = pending.get(usage);
+		return amount + (counter == null ? 0 : counter.sum()) + flushing.getOrDefault(usage, 0L);
+	}
+
+	/**
+	 * @return the amount of times the command has been used by anyone, including the usages that haven't been written yet
+	 */
+	public long getGlobalAmount(String commandName) {
+		long amount = manager.queryInt(CommandTrackerTableQueries.checkCommandUsageGlobalAmount, commandName).orElse(0);
+		for (Map.Entry<Usage, LongAdder> entry : pending.entrySet()) {
+			if (entry.getKey().commandName.equals(commandName)) {
+				amount += entry.getValue().sum();
+			}
+		}
+		for (Map.Entry<Usage, Long> entry : flushing.entrySet()) {
+			if (entry.getKey().commandName.equals(commandName)) {
+				amount += entry.getValue();
+			}
+		}
+		return amount;
+	}
+
+	/**
+	 * Writes the counted usages to the database in one transaction.
+	 * A counter is kept while its command is used, and removed at the first flush it has nothing to write, so the
+	 * pairs of users and commands that were used once don't stay in memory.
+	 * If the write fails the usages are counted again, so they are written with the next flush.
+	 */
+	private void flush() {
+		List<Object[]> batch = new ArrayList<>();
+		for (Map.Entry<Usage, LongAdder> entry : pending.entrySet()) {
+			long amount = entry.getValue().sumThenReset();
+			if (amount > 0) {
+				// keep the usages visible to the stats till they are committed
+				flushing.merge(entry.getKey(), amount, Long::sum);
+				batch.add(new Object[]{entry.getKey().commandName, entry.getKey().userId, amount});
+			} else {
+				// only removed if nothing was counted since it was read
+				pending.computeIfPresent(entry.getKey(), (usage, counter) -> counter.sum() == 0 ? null : counter);
+			}
+		}
+		if (batch.isEmpty()) {
+			return;
+		}
+		try {
+			manager.transaction(transaction ->
+					transaction.updateBatch(CommandTrackerTableQueries.addCommandUsageUserAmount, batch));
+			logger.info(String.format("Flushed the usages of %d command and user pair(s).", batch.size()));
+		} catch (SQLException e) {
+			logger.error(String.format("Failed to flush the command tracker: %s", e.getMessage()));
+			flushing.forEach((usage, amount) -> pending.computeIfAbsent(usage, u -> new LongAdder()).add(amount));
+		} finally {
+			flushing.clear();
+		}
+	}
+
+	/**
+	 * Stops the periodic flush and writes the usages that are left.
+	 */
+	public void close() {
+		scheduler.shutdown();
+		try {
+			scheduler.awaitTermination(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		flush();
+	}
+
+	private static class Usage {
+		private final String commandName;
+		private final String userId;
+
+		private Usage(@NotNull String commandName, @NotNull String userId) {
+			this.commandName = commandName;
+			this.userId = userId;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Usage)) {
+				return false;
+			}
+			Usage usage = (Usage) o;
+			return commandName.equals(usage.commandName) && userId.equals(usage.userId);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(commandName, userId);
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package utility;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * The id of a button, it holds everything the handler of the button needs.
+ * An id is written as {@code userId:tag} followed by the payload, separated by colons, for example
+ * {@code 123456789012345678:replayBlackjack:50}. The user id is the only user that may click the button and the tag
+ * decides which handler runs. Discord allows at most 100 characters in an id.
+ */
+public class ComponentId {
+
+	public static final int maxLength = 100;
+	private static final char separator = ':';
+
+	private final String userId;
+	private final String tag;
+	private final String[] payload;
+
+	private ComponentId(String userId, String tag, String[] payload) {
+		this.userId = userId;
+		this.tag = tag;
+		this.payload = payload;
+	}
+
+	/**
+	 * Makes the id of a button.
+	 *
+	 * @param payload the values the handler needs, they can't contain a colon
+	 * @throws IllegalArgumentException if the id is longer than Discord allows
+	 */
+	public static @NotNull String encode(@NotNull String userId, @NotNull String tag, Object @NotNull ... payload) {
+		StringBuilder id = new StringBuilder(userId).append(separator).append(tag);
+		for (Object value : payload) {
+			id.append(separator).append(value);
+		}
+		if (id.length() > maxLength) {
+			throw new IllegalArgumentException(String.format("The id %s is longer than %d characters.", id, maxLength));
+		}
+		return id.toString();
+	}
+
+	/**
+	 * @return the parts of the id, or null if it isn't a valid id
+	 */
+	public static @Nullable ComponentId decode(@NotNull String id) {
+		String[] parts = id.split(String.valueOf(separator));
+		if (parts.length < 2) {
+			return null;
+		}
+		return new ComponentId(parts[0], parts[1], Arrays.copyOfRange(parts, 2, parts.length));
+	}
+
+	public String getUserId() {
+		return userId;
+	}
+
+	public String getTag() {
+		return tag;
+	}
+
+	public int getPayloadSize() {
+		return payload.length;
+	}
+
+	public String getString(int index) {
+		return payload[index];
+	}
+
+	/**
+	 * @throws NumberFormatException if the value isn't a number
+	 */
+	public int getInt(int index) {
+		return Integer.parseInt(payload[index]);
+	}
+}
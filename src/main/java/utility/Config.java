@@ -19,6 +19,8 @@ public class Config {
 
 	final static Logger logger = LoggerFactory.getLogger(Config.class);
 	public static Config instance;
+	// the file is read from the working directory, unless another file is set with -Dconfig=path
+	private static final String configPath = System.getProperty("config", "config.yml");
 
 	public final String botToken;
 	public final String testGuildId;
@@ -30,6 +32,32 @@ public class Config {
 	public final String personalAccessToken;
 	public final String repositoryName;
 	public final String monstersCsvPath;
+	public final int databasePoolSize;
+	public final int statementCacheSize;
+	public final long databaseAcquireTimeout;
+	public final String databaseStorageMode;
+	public final long databaseCommitInterval;
+	public final int databaseWriteBatchSize;
+	public final int databaseMigrationChunkSize;
+	public final int databaseTransactionAttempts;
+	public final long commandTrackerFlushInterval;
+	public final long slowQueryThreshold;
+	public final int commandExecutorThreads;
+	public final int commandExecutorQueueSize;
+	public final long commandTimeout;
+	public final int rateLimitGlobalRate;
+	public final int rateLimitGlobalBurst;
+	public final int rateLimitGuildRate;
+	public final int rateLimitGuildBurst;
+	public final int rateLimitUserRate;
+	public final int rateLimitUserBurst;
+	public final int rateLimitCommandRate;
+	public final int rateLimitCommandBurst;
+	public final long rateLimitWarningWindow;
+	public final String metricsHost;
+	public final int metricsPort;
+	public final long typingInterval;
+	public final int logQueueSize;
 
 	/**
 	 * Instantiates all the configuration fields.
@@ -37,7 +65,7 @@ public class Config {
 	 * @throws FileNotFoundException thrown when the file can't be found
 	 */
 	private Config() throws FileNotFoundException {
-		InputStream inputStream = new FileInputStream("config.yml");
+		InputStream inputStream = new FileInputStream(configPath);
 
 		Yaml yaml = new Yaml();
 		HashMap<String, Object> data = yaml.load(inputStream);
@@ -52,6 +80,32 @@ public class Config {
 		this.personalAccessToken = (String) data.get("personalAccessToken");
 		this.repositoryName = (String) data.get("repositoryName");
 		this.monstersCsvPath = (String) data.get("monstersCsvPath");
+		this.databasePoolSize = ((Number) data.getOrDefault("databasePoolSize", 4)).intValue();
+		this.statementCacheSize = ((Number) data.getOrDefault("statementCacheSize", 64)).intValue();
+		this.databaseAcquireTimeout = ((Number) data.getOrDefault("databaseAcquireTimeout", 10000)).longValue();
+		this.databaseStorageMode = (String) data.getOrDefault("databaseStorageMode", "default");
+		this.databaseCommitInterval = ((Number) data.getOrDefault("databaseCommitInterval", 5)).longValue();
+		this.databaseWriteBatchSize = ((Number) data.getOrDefault("databaseWriteBatchSize", 128)).intValue();
+		this.databaseMigrationChunkSize = ((Number) data.getOrDefault("databaseMigrationChunkSize", 1000)).intValue();
+		this.databaseTransactionAttempts = ((Number) data.getOrDefault("databaseTransactionAttempts", 5)).intValue();
+		this.commandTrackerFlushInterval = ((Number) data.getOrDefault("commandTrackerFlushInterval", 5)).longValue();
+		this.slowQueryThreshold = ((Number) data.getOrDefault("slowQueryThreshold", 100)).longValue();
+		this.commandExecutorThreads = ((Number) data.getOrDefault("commandExecutorThreads", 8)).intValue();
+		this.commandExecutorQueueSize = ((Number) data.getOrDefault("commandExecutorQueueSize", 500)).intValue();
+		this.commandTimeout = ((Number) data.getOrDefault("commandTimeout", 30)).longValue();
+		this.rateLimitGlobalRate = ((Number) data.getOrDefault("rateLimitGlobalRate", 1200)).intValue();
+		this.rateLimitGlobalBurst = ((Number) data.getOrDefault("rateLimitGlobalBurst", 100)).intValue();
+		this.rateLimitGuildRate = ((Number) data.getOrDefault("rateLimitGuildRate", 120)).intValue();
+		this.rateLimitGuildBurst = ((Number) data.getOrDefault("rateLimitGuildBurst", 20)).intValue();
+		this.rateLimitUserRate = ((Number) data.getOrDefault("rateLimitUserRate", 20)).intValue();
+		this.rateLimitUserBurst = ((Number) data.getOrDefault("rateLimitUserBurst", 5)).intValue();
+		this.rateLimitCommandRate = ((Number) data.getOrDefault("rateLimitCommandRate", 600)).intValue();
+		this.rateLimitCommandBurst = ((Number) data.getOrDefault("rateLimitCommandBurst", 50)).intValue();
+		this.rateLimitWarningWindow = ((Number) data.getOrDefault("rateLimitWarningWindow", 10)).longValue();
+		this.metricsHost = (String) data.getOrDefault("metricsHost", "127.0.0.1");
+		this.metricsPort = ((Number) data.getOrDefault("metricsPort", 0)).intValue();
+		this.typingInterval = ((Number) data.getOrDefault("typingInterval", 8)).longValue();
+		this.logQueueSize = ((Number) data.getOrDefault("logQueueSize", 100)).intValue();
 	}
 
 	/**
@@ -63,13 +117,13 @@ public class Config {
 		try {
 			if (instance == null) {
 				instance = new Config();
-				logger.info("config.yml file loaded in.");
+				logger.info(String.format("%s file loaded in.", configPath));
 			}
 			return instance;
 		} catch (FileNotFoundException e) {
-			logger.info("config.yml file not found.");
+			logger.info(String.format("%s file not found.", configPath));
 			logger.error(e.getMessage());
-			throw new IllegalStateException("config.yml file not found.");
+			throw new IllegalStateException(String.format("%s file not found.", configPath));
 		}
 	}
 }
@@ -0,0 +1,137 @@
+package utility;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.TreeMap;
+
+/**
+ * Ranks users by their experience without sorting the user table.
+ * Experience is split into buckets of a fixed width, a Fenwick tree counts the users per bucket so the amount of users
+ * in the buckets above a user is found in O(log n). Users in the same bucket are told apart with a small sorted map.
+ * A user's rank is one more than the amount of users with strictly more experience, so users with equal experience
+ * share a rank.
+ */
+public class ExperienceRanking {
+
+	private static final int bucketWidth = 64;
+
+	private final Map<String, Integer> experienceByUser;
+	private final Map<Integer, TreeMap<Integer, Integer>> bucketContents;
+	private int[] tree;
+	private int userAmount;
+
+	public ExperienceRanking() {
+		this.experienceByUser = new HashMap<>();
+		this.bucketContents = new HashMap<>();
+		this.tree = new int[1024 + 1];
+		this.userAmount = 0;
+	}
+
+	/**
+	 * Adds the user or moves them to their new experience.
+	 */
+	public synchronized void set(@NotNull String userId, int experience) {
+		int newExperience = Math.max(0, experience);
+		Integer oldExperience = experienceByUser.put(userId, newExperience);
+		if (oldExperience != null) {
+			if (oldExperience == newExperience) {
+				return;
+			}
+			removeExperience(oldExperience);
+		} else {
+			userAmount++;
+		}
+		addExperience(newExperience);
+	}
+
+	public synchronized void remove(@NotNull String userId) {
+		Integer oldExperience = experienceByUser.remove(userId);
+		if (oldExperience != null) {
+			removeExperience(oldExperience);
+			userAmount--;
+		}
+	}
+
+	/**
+	 * @return the rank of the user, empty if the user isn't ranked
+	 */
+	public synchronized OptionalInt getRank(@NotNull String userId) {
+		Integer experience = experienceByUser.get(userId);
+		if (experience == null) {
+			return OptionalInt.empty();
+		}
+		int bucket = experience / bucketWidth;
+		int higherBuckets = userAmount - prefixSum(Math.min(bucket + 1, tree.length - 1));
+		int higherInBucket = 0;
+		for (int amount : bucketContents.get(bucket).tailMap(experience, false).values()) {
+			higherInBucket += amount;
+		}
+		return OptionalInt.of(higherBuckets + higherInBucket + 1);
+	}
+
+	public synchronized int getUserAmount() {
+		return userAmount;
+	}
+
+	private void addExperience(int experience) {
+		int bucket = experience / bucketWidth;
+		if (bucket + 1 >= tree.length) {
+			grow(bucket + 1);
+		}
+		bucketContents.computeIfAbsent(bucket, b -> new TreeMap<>()).merge(experience, 1, Integer::sum);
+		add(bucket + 1, 1);
+	}
+
+	private void removeExperience(int experience) {
+		int bucket = experience / bucketWidth;
+		TreeMap<Integer, Integer> contents = bucketContents.get(bucket);
+		if (contents.merge(experience, -1, Integer::sum) == 0) {
+			contents.remove(experience);
+		}
+		if (contents.isEmpty()) {
+			bucketContents.remove(bucket);
+		}
+		add(bucket + 1, -1);
+	}
+
+	/**
+	 * Rebuilds the tree with room for at least this many buckets, from the buckets that hold users.
+	 */
+	private void grow(int minimumSize) {
+		int size = tree.length - 1;
+		while (size < minimumSize + 1) {
+			size *= 2;
+		}
+		tree = new int[size + 1];
+		bucketContents.forEach((bucket, contents) -> {
+			int amount = 0;
+			for (int count : contents.values()) {
+				amount += count;
+			}
+			add(bucket + 1, amount);
+		});
+	}
+
+	/**
+	 * Adds the amount to the bucket at the 1-based index of the tree.
+	 */
+	private void add(int index, int amount) {
+		for (int i = index; i < tree.length; i += i & -i) {
+			tree[i] += amount;
+		}
+	}
+
+	/**
+	 * @return the amount of users in the buckets up to and including the 1-based index of the tree
+	 */
+	private int prefixSum(int index) {
+		int sum = 0;
+		for (int i = index; i > 0; i -= i & -i) {
+			sum += tree[i];
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,329 @@
+package utility;
+
+import database.DatabaseManager;
+import database.queries.BlackjackTableQueries;
+import database.queries.UserTableQueries;
+import database.queries.WordleTableQueries;
+import models.UserProfile;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * Keeps the top of every game leaderboard in memory, so viewing a leaderboard doesn't sort the game tables.
+ * Every board holds the exact top of its players, bounded to twice the amount of places that are shown. The boards are
+ * updated when a game result is persisted. A player whose score drops below the board is left out, and the board is
+ * only refilled from the database once it holds fewer players than it shows.
+ * This class is a singleton.
+ */
+public class Leaderboards {
+
+	final static Logger logger = LoggerFactory.getLogger(Leaderboards.class);
+
+	/**
+	 * The amount of places a leaderboard shows.
+	 */
+	public static final int size = 100;
+	// the amount of user ids that are read from the database in one query, to stay below the limit of parameters
+	private static final int memberChunkSize = 500;
+	private static final Comparator<Entry> order = Comparator.comparingInt((Entry entry) -> entry.score).reversed()
+			.thenComparing(entry -> entry.userId);
+
+	private static Leaderboards instance;
+
+	private final DatabaseManager manager;
+	private final Map<Board, BoundedBoard> boards;
+
+	/**
+	 * A private constructor since this class is a singleton.
+	 */
+	private Leaderboards() {
+		this.manager = DatabaseManager.getInstance();
+		this.boards = new EnumMap<>(Board.class);
+		for (Board board : Board.values()) {
+			boards.put(board, new BoundedBoard(board, size * 2));
+		}
+	}
+
+	/**
+	 * Get the only existing instance of this class.
+	 *
+	 * @return The instance of this class.
+	 */
+	public static Leaderboards getInstance() {
+		if (instance == null) {
+			instance = new Leaderboards();
+		}
+		return instance;
+	}
+
+	/**
+	 * Updates the score of a player after their game result has been persisted.
+	 */
+	public void update(@NotNull Board board, @NotNull String userId, int score) {
+		boards.get(board).update(userId, score);
+	}
+
+	/**
+	 * @return the top of the board, best player first
+	 */
+	public List<Entry> getTop(@NotNull Board board) {
+		return getTop(board, userId -> true);
+	}
+
+	/**
+	 * Filters the players the board keeps track of, this is used to show the leaderboard of a single guild.
+	 * Only players that are among the best of all guilds can be on it.
+	 *
+	 * @return the top of the board of the players that pass the filter, best player first
+	 */
+	public List<Entry> getTop(@NotNull Board board, @NotNull Predicate<String> userFilter) {
+		return boards.get(board).getTop(userFilter);
+	}
+
+	/**
+	 * Reads the top of the board of the players from the database. This is used for the leaderboard of a guild whose
+	 * players aren't all among the best of all guilds. The players are read a chunk at a time, and only the best of
+	 * every chunk are kept.
+	 *
+	 * @return the top of the board of the players, best player first
+	 */
+	public List<Entry> getTopOf(@NotNull Board board, @NotNull Collection<String> userIds) {
+		BoundedBoard bounded = boards.get(board);
+		if (bounded.isComplete()) {
+			Set<String> members = new HashSet<>(userIds);
+			return bounded.getTop(members::contains);
+		}
+		List<String> ids = new ArrayList<>(userIds);
+		TreeSet<Entry> top = new TreeSet<>(order);
+		for (int from = 0; from < ids.size(); from += memberChunkSize) {
+			// the last chunk repeats its last id, so every chunk uses the same cached statement
+			Object[] args = new Object[memberChunkSize + 1];
+			for (int i = 0; i < memberChunkSize; i++) {
+				args[i] = ids.get(Math.min(from + i, ids.size() - 1));
+			}
+			args[memberChunkSize] = size;
+			manager.stream(board.memberQuery, row -> {
+				top.add(new Entry(row.getString(1), row.getString(2), row.getInt(3)));
+				if (top.size() > size) {
+					top.pollLast();
+				}
+				return true;
+			}, args);
+		}
+		return new ArrayList<>(top);
+	}
+
+	/**
+	 * @return true if the board holds every player, then filtering it gives the exact top of any group of players
+	 */
+	public boolean isComplete(@NotNull Board board) {
+		return boards.get(board).isComplete();
+	}
+
+	/**
+	 * @return the ids of every player the board keeps track of
+	 */
+	public List<String> getTrackedUserIds(@NotNull Board board) {
+		return boards.get(board).getUserIds();
+	}
+
+	/**
+	 * A leaderboard and the query that loads its top from the database.
+	 */
+	public enum Board {
+		WORDLE_TOTAL_GAMES("Top Total Games Played", "total games", WordleTableQueries.wordleGetTopTotalGamesPlayed,
+				WordleTableQueries.wordleGetTopTotalGamesPlayedOf),
+		WORDLE_HIGHEST_STREAK("Top Highest Streak", "games", WordleTableQueries.wordleGetTopHighestStreak,
+				WordleTableQueries.wordleGetTopHighestStreakOf),
+		WORDLE_CURRENT_STREAK("Top Current Streak", "games", WordleTableQueries.wordleGetTopCurrentStreak,
+				WordleTableQueries.wordleGetTopCurrentStreakOf),
+		BLACKJACK_EARNINGS("Top Total Earnings", "morbcoins", BlackjackTableQueries.blackjackGetTopTotalEarnings,
+				BlackjackTableQueries.blackjackGetTopTotalEarningsOf),
+		BLACKJACK_WINS("Top Total Wins", "wins", BlackjackTableQueries.blackjackGetTopTotalWins,
+				BlackjackTableQueries.blackjackGetTopTotalWinsOf);
+
+		private final String title;
+		private final String unit;
+		private final String query;
+		// the query for the top of a chunk of users, with a parameter for every user id
+		private final String memberQuery;
+
+		Board(String title, String unit, String query, String memberQuery) {
+			this.title = title;
+			this.unit = unit;
+			this.query = query;
+			this.memberQuery = String.format(memberQuery, String.join(", ", Collections.nCopies(memberChunkSize, "?")));
+		}
+
+		public String getTitle() {
+			return title;
+		}
+
+		public String getUnit() {
+			return unit;
+		}
+	}
+
+	/**
+	 * A player on a leaderboard.
+	 */
+	public static class Entry {
+		private final String userId;
+		private final String name;
+		private final int score;
+
+		private Entry(String userId, String name, int score) {
+			this.userId = userId;
+			this.name = name;
+			this.score = score;
+		}
+
+		public String getUserId() {
+			return userId;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public int getScore() {
+			return score;
+		}
+	}
+
+	/**
+	 * The best players of a single board, ordered by score and then by id.
+	 * The board always holds the exact top of all players, so a player can only join it by beating its last entry.
+	 */
+	private class BoundedBoard {
+		private final Board board;
+		private final int capacity;
+		private final TreeSet<Entry> entries;
+		private final Map<String, Entry> entriesByUser;
+		private boolean loaded;
+		// true if the board holds every player, then any player can join it
+		private boolean complete;
+
+		private BoundedBoard(Board board, int capacity) {
+			this.board = board;
+			this.capacity = capacity;
+			this.entries = new TreeSet<>(order);
+			this.entriesByUser = new HashMap<>();
+		}
+
+		/**
+		 * The name of a player that joins the board is read from the database without holding the board, so a player
+		 * viewing the board doesn't wait on it.
+		 */
+		private void update(String userId, int score) {
+			synchronized (this) {
+				if (!loaded) {
+					// the score is read from the database with the rest of the board
+					return;
+				}
+				Entry previous = entriesByUser.get(userId);
+				if (!joins(userId, score, previous)) {
+					return;
+				}
+				if (previous != null) {
+					add(new Entry(userId, previous.name, score));
+					return;
+				}
+			}
+			Optional<UserProfile> profile = manager.queryOne(UserTableQueries.selectUser, UserProfile::map, userId);
+			Entry entry = new Entry(userId, profile.map(UserProfile::getName).orElse(userId), score);
+			synchronized (this) {
+				// the board can have been loaded or have taken in the player while the name was read
+				if (!loaded || entriesByUser.containsKey(userId) || !joins(userId, score, null)) {
+					return;
+				}
+				add(entry);
+			}
+		}
+
+		/**
+		 * Takes the previous entry of the player off the board, and checks if their new score belongs on it.
+		 *
+		 * @return false if players that aren't on the board could be ahead of the player
+		 */
+		private boolean joins(String userId, int score, Entry previous) {
+			if (previous != null) {
+				entries.remove(previous);
+				entriesByUser.remove(userId);
+			}
+			return complete || (!entries.isEmpty() && order.compare(new Entry(userId, null, score), entries.last()) <= 0);
+		}
+
+		private void add(Entry entry) {
+			entries.add(entry);
+			entriesByUser.put(entry.userId, entry);
+			if (entries.size() > capacity) {
+				Entry last = entries.pollLast();
+				entriesByUser.remove(last.userId);
+				complete = false;
+			}
+		}
+
+		private synchronized boolean isComplete() {
+			if (!loaded || (!complete && entries.size() < size)) {
+				load();
+			}
+			return complete;
+		}
+
+		private synchronized List<Entry> getTop(Predicate<String> userFilter) {
+			if (!loaded || (!complete && entries.size() < size)) {
+				load();
+			}
+			List<Entry> top = new ArrayList<>(size);
+			for (Entry entry : entries) {
+				if (top.size() == size) {
+					break;
+				}
+				if (userFilter.test(entry.userId)) {
+					top.add(entry);
+				}
+			}
+			return top;
+		}
+
+		private synchronized List<String> getUserIds() {
+			if (!loaded || (!complete && entries.size() < size)) {
+				load();
+			}
+			return new ArrayList<>(entriesByUser.keySet());
+		}
+
+		/**
+		 * Reads the top of the board from the database.
+		 */
+		private void load() {
+			entries.clear();
+			entriesByUser.clear();
+			int rows = manager.stream(board.query, row -> {
+				Entry entry = new Entry(row.getString(1), row.getString(2), row.getInt(3));
+				entries.add(entry);
+				entriesByUser.put(entry.userId, entry);
+				return true;
+			}, capacity);
+			complete = rows < capacity;
+			loaded = true;
+			logger.info(String.format("Loaded %d entries of the %s leaderboard.", rows, board));
+		}
+	}
+}
@@ -0,0 +1,288 @@
+package utility;
+
+import net.dv8tion.jda.api.entities.MessageChannel;
+import net.dv8tion.jda.api.requests.RestAction;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Sends the REST calls that tend to pile up when users click quickly, so less of them count against the rate limits
+ * of Discord.
+ * Edits of a message are coalesced: while an edit is on its way only the latest next edit is kept, the edits in
+ * between would be overwritten anyway. Typing indicators are dropped while the last one in the channel is still shown.
+ * Messages to the log channel are sent one at a time and wait for the acknowledgements of interactions that were on
+ * their way when the message was logged, since those fail when they aren't sent within three seconds. Acknowledgements
+ * that start later don't hold the message up, so a steady stream of interactions doesn't stall the logs.
+ * This class is a singleton.
+ */
+public class MessageDispatcher {
+
+	final static Logger logger = LoggerFactory.getLogger(MessageDispatcher.class);
+
+	private static MessageDispatcher instance;
+
+	// the longest a log message waits for acknowledgements, so a busy bot still logs
+	private static final long maxLogDelay = TimeUnit.SECONDS.toNanos(2);
+
+	// the edit that waits for the edit that is on its way, per message id
+	private final ConcurrentHashMap<String, PendingEdit> edits;
+	// the time the last typing indicator was sent, per channel
+	private final ConcurrentHashMap<Long, Long> typing;
+	private final long typingInterval;
+	private final BlockingQueue<QueuedLog> logs;
+	private final Object acknowledgeLock;
+	// the numbers of the acknowledgements that are on their way, guarded by the lock
+	private final TreeSet<Long> acknowledging;
+	// the number of the last acknowledgement that was started, guarded by the lock
+	private long acknowledgements;
+	private final LongAdder coalescedEdits;
+	private final LongAdder droppedTypings;
+
+	/**
+	 * A private constructor since this class is a singleton.
+	 */
+	private MessageDispatcher() {
+		Config config = Config.getInstance();
+		this.edits = new ConcurrentHashMap<>();
+		this.typing = new ConcurrentHashMap<>();
+		this.typingInterval = TimeUnit.SECONDS.toNanos(config.typingInterval);
+		this.logs = new LinkedBlockingQueue<>(config.logQueueSize);
+		this.acknowledgeLock = new Object();
+		this.acknowledging = new TreeSet<>();
+		this.coalescedEdits = new LongAdder();
+		this.droppedTypings = new LongAdder();
+		Thread logSender = new Thread(this::sendLogs, "log-sender");
+		logSender.setDaemon(true);
+		logSender.start();
+		ScheduledExecutorService cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "typing-cleaner");
+			thread.setDaemon(true);
+			return thread;
+		});
+		cleaner.scheduleAtFixedRate(this::removeExpiredTyping, 1, 1, TimeUnit.MINUTES);
+	}
+
+	/**
+	 * Get the only existing instance of this class.
+	 *
+	 * @return The instance of this class.
+	 */
+	public static MessageDispatcher getInstance() {
+		if (instance == null) {
+			instance = new MessageDispatcher();
+		}
+		return instance;
+	}
+
+	/**
+	 * Edits a message. If an edit of the message is still on its way, this edit is sent once it is done and replaces
+	 * any other edit that was waiting for it.
+	 *
+	 * @param messageId the id of the message that is edited
+	 * @param edit      the edit, it isn't queued yet
+	 */
+	public void edit(@NotNull String messageId, @NotNull RestAction<?> edit) {
+		edit(messageId, () -> edit);
+	}
+
+	/**
+	 * Edits a message with an edit that is only made once it is sent, so an edit that is replaced before it is sent
+	 * is never made. Use it when making the edit is expensive, like rendering a board that changes often.
+	 *
+	 * @param messageId the id of the message that is edited
+	 * @param edit      makes the edit, it can run on the thread of the edit that was on its way
+	 */
+	public void edit(@NotNull String messageId, @NotNull Supplier<? extends RestAction<?>> edit) {
+		boolean[] send = {false};
+		edits.compute(messageId, (id, pending) -> {
+			if (pending == null) {
+				send[0] = true;
+				return new PendingEdit();
+			}
+			if (pending.next != null) {
+				coalescedEdits.increment();
+			}
+			pending.next = edit;
+			return pending;
+		});
+		if (send[0]) {
+			queueEdit(messageId, edit);
+		}
+	}
+
+	private void queueEdit(String messageId, @NotNull Supplier<? extends RestAction<?>> edit) {
+		RestAction<?> action;
+		try {
+			action = edit.get();
+		} catch (RuntimeException e) {
+			logger.warn(String.format("Failed to make the edit of message %s: %s", messageId, e.getMessage()));
+			finishEdit(messageId);
+			return;
+		}
+		action.queue(success -> finishEdit(messageId), failure -> {
+			logger.warn(String.format("Failed to edit message %s: %s", messageId, failure.getMessage()));
+			finishEdit(messageId);
+		});
+	}
+
+	private void finishEdit(String messageId) {
+		List<Supplier<? extends RestAction<?>>> next = new ArrayList<>(1);
+		edits.computeIfPresent(messageId, (id, pending) -> {
+			if (pending.next == null) {
+				return null;
+			}
+			next.add(pending.next);
+			pending.next = null;
+			return pending;
+		});
+		if (!next.isEmpty()) {
+			queueEdit(messageId, next.get(0));
+		}
+	}
+
+	/**
+	 * Shows that the bot is typing in the channel, unless it is already shown.
+	 */
+	public void sendTyping(@NotNull MessageChannel channel) {
+		long now = System.nanoTime();
+		boolean[] send = {false};
+		typing.compute(channel.getIdLong(), (id, sent) -> {
+			if (sent != null && now - sent < typingInterval) {
+				return sent;
+			}
+			send[0] = true;
+			return now;
+		});
+		if (send[0]) {
+			channel.sendTyping().queue();
+		} else {
+			droppedTypings.increment();
+		}
+	}
+
+	private void removeExpiredTyping() {
+		long now = System.nanoTime();
+		typing.values().removeIf(sent -> now - sent >= typingInterval);
+	}
+
+	/**
+	 * Acknowledges an interaction right away, log messages wait until it is sent.
+	 */
+	public void acknowledge(@NotNull RestAction<?> acknowledgement) {
+		long number;
+		synchronized (acknowledgeLock) {
+			number = ++acknowledgements;
+			acknowledging.add(number);
+		}
+		acknowledgement.queue(success -> finishAcknowledge(number), failure -> {
+			logger.warn(String.format("Failed to acknowledge an interaction: %s", failure.getMessage()));
+			finishAcknowledge(number);
+		});
+	}
+
+	private void finishAcknowledge(long number) {
+		synchronized (acknowledgeLock) {
+			acknowledging.remove(number);
+			// the log sender only waits for the oldest acknowledgement
+			if (acknowledging.isEmpty() || acknowledging.first() > number) {
+				acknowledgeLock.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Sends a message to the log channel after the messages that were logged before it.
+	 * The message is dropped if too many are waiting.
+	 */
+	public void sendLog(@NotNull RestAction<?> message) {
+		long lastAcknowledgement;
+		synchronized (acknowledgeLock) {
+			lastAcknowledgement = acknowledgements;
+		}
+		if (!logs.offer(new QueuedLog(message, lastAcknowledgement))) {
+			logger.warn("Too many log messages are waiting, dropped a log message.");
+		}
+	}
+
+	private void sendLogs() {
+		while (true) {
+			QueuedLog log;
+			try {
+				log = logs.take();
+				awaitAcknowledgements(log.lastAcknowledgement);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			try {
+				log.message.submit().join();
+			} catch (CompletionException e) {
+				logger.warn(String.format("Failed to send a log message: %s", e.getCause().getMessage()));
+			}
+		}
+	}
+
+	/**
+	 * Waits until the acknowledgements up to the number are sent, or for at most {@link #maxLogDelay}.
+	 */
+	private void awaitAcknowledgements(long lastAcknowledgement) throws InterruptedException {
+		long deadline = System.nanoTime() + maxLogDelay;
+		synchronized (acknowledgeLock) {
+			long remaining = maxLogDelay;
+			while (!acknowledging.isEmpty() && acknowledging.first() <= lastAcknowledgement && remaining > 0) {
+				TimeUnit.NANOSECONDS.timedWait(acknowledgeLock, remaining);
+				remaining = deadline - System.nanoTime();
+			}
+		}
+	}
+
+	/**
+	 * @return the amount of edits that were replaced by a later edit of the same message before they were sent
+	 */
+	public long getCoalescedEdits() {
+		return coalescedEdits.sum();
+	}
+
+	/**
+	 * @return the amount of typing indicators that weren't sent because one was already shown
+	 */
+	public long getDroppedTypings() {
+		return droppedTypings.sum();
+	}
+
+	/**
+	 * @return the amount of log messages that wait to be sent
+	 */
+	public int getQueuedLogs() {
+		return logs.size();
+	}
+
+	private static class QueuedLog {
+		private final RestAction<?> message;
+		// the acknowledgements up to this number were started before the message was logged
+		private final long lastAcknowledgement;
+
+		private QueuedLog(RestAction<?> message, long lastAcknowledgement) {
+			this.message = message;
+			this.lastAcknowledgement = lastAcknowledgement;
+		}
+	}
+
+	private static class PendingEdit {
+		private Supplier<? extends RestAction<?>> next;
+	}
+}
@@ -0,0 +1,187 @@
+package utility;
+
+import database.Histogram;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Records how often commands and buttons are used, how often they fail and how long every stage of them takes.
+ * Gauges can be registered for anything else that should be exported, like the size of an in-memory registry.
+ * Everything is written in the Prometheus text format by {@link #writePrometheus(StringBuilder)}.
+ * This class is a singleton.
+ */
+public class Metrics {
+
+	private static final double[] quantiles = {0.5, 0.95, 0.99};
+
+	private static Metrics instance;
+
+	private final Map<String, DispatchStats> commands;
+	private final Map<String, DispatchStats> buttons;
+	private final Map<String, Gauge> gauges;
+
+	/**
+	 * A private constructor since this class is a singleton.
+	 */
+	private Metrics() {
+		this.commands = new ConcurrentHashMap<>();
+		this.buttons = new ConcurrentHashMap<>();
+		this.gauges = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Get the only existing instance of this class.
+	 *
+	 * @return The instance of this class.
+	 */
+	public static Metrics getInstance() {
+		if (instance == null) {
+			instance = new Metrics();
+		}
+		return instance;
+	}
+
+	/**
+	 * The stages a command or button goes through.
+	 */
+	public enum Stage {
+		PARSE,
+		CHECKS,
+		DATABASE,
+		EXECUTE
+	}
+
+	/**
+	 * Records how long a stage of a command took.
+	 */
+	public void recordCommand(@NotNull String command, @NotNull Stage stage, long nanos) {
+		commands.computeIfAbsent(command, name -> new DispatchStats()).record(stage, nanos);
+	}
+
+	/**
+	 * Counts a command that was handed to the workers.
+	 */
+	public void countCommand(@NotNull String command) {
+		commands.computeIfAbsent(command, name -> new DispatchStats()).count.increment();
+	}
+
+	public void countCommandError(@NotNull String command) {
+		commands.computeIfAbsent(command, name -> new DispatchStats()).errors.increment();
+	}
+
+	/**
+	 * Records how long a stage of a button click took.
+	 */
+	public void recordButton(@NotNull String type, @NotNull Stage stage, long nanos) {
+		buttons.computeIfAbsent(type, name -> new DispatchStats()).record(stage, nanos);
+	}
+
+	public void countButton(@NotNull String type) {
+		buttons.computeIfAbsent(type, name -> new DispatchStats()).count.increment();
+	}
+
+	public void countButtonError(@NotNull String type) {
+		buttons.computeIfAbsent(type, name -> new DispatchStats()).errors.increment();
+	}
+
+	/**
+	 * Registers a gauge that is read every time the metrics are written.
+	 *
+	 * @param name the name of the metric, without the prefix of the bot
+	 */
+	public void registerGauge(@NotNull String name, @NotNull String help, @NotNull Supplier<Number> value) {
+		gauges.put(name, new Gauge(help, value));
+	}
+
+	/**
+	 * Writes every metric in the Prometheus text format.
+	 */
+	public void writePrometheus(@NotNull StringBuilder out) {
+		writeDispatch(out, "command", commands);
+		writeDispatch(out, "button", buttons);
+		gauges.forEach((name, gauge) -> {
+			String metric = String.format("milobot_%s", name);
+			out.append(String.format("# HELP %s %s\n", metric, gauge.help));
+			out.append(String.format("# TYPE %s gauge\n", metric));
+			out.append(String.format("%s %s\n", metric, gauge.value.get()));
+		});
+	}
+
+	private void writeDispatch(@NotNull StringBuilder out, String kind, @NotNull Map<String, DispatchStats> stats) {
+		String total = String.format("milobot_%ss_total", kind);
+		out.append(String.format("# HELP %s The amount of %ss that were handled.\n", total, kind));
+		out.append(String.format("# TYPE %s counter\n", total));
+		stats.forEach((name, stat) -> out.append(String.format("%s{name=\"%s\"} %d\n", total, escape(name),
+				stat.count.sum())));
+
+		String errors = String.format("milobot_%s_errors_total", kind);
+		out.append(String.format("# HELP %s The amount of %ss that failed.\n", errors, kind));
+		out.append(String.format("# TYPE %s counter\n", errors));
+		stats.forEach((name, stat) -> out.append(String.format("%s{name=\"%s\"} %d\n", errors, escape(name),
+				stat.errors.sum())));
+
+		String seconds = String.format("milobot_%s_stage_seconds", kind);
+		out.append(String.format("# HELP %s The time every stage of a %s took.\n", seconds, kind));
+		out.append(String.format("# TYPE %s summary\n", seconds));
+		stats.forEach((name, stat) -> stat.stages.forEach((stage, histogram) -> {
+			if (histogram.getCount() == 0) {
+				return;
+			}
+			String labels = String.format("name=\"%s\",stage=\"%s\"", escape(name),
+					stage.name().toLowerCase(Locale.ROOT));
+			for (double quantile : quantiles) {
+				out.append(String.format("%s{%s,quantile=\"%s\"} %s\n", seconds, labels, quantile,
+						toSeconds(histogram.getValueAtPercentile(quantile * 100))));
+			}
+			out.append(String.format("%s_sum{%s} %s\n", seconds, labels, toSeconds(histogram.getTotal())));
+			out.append(String.format("%s_count{%s} %d\n", seconds, labels, histogram.getCount()));
+		}));
+	}
+
+	private static double toSeconds(long nanos) {
+		return nanos / (double) TimeUnit.SECONDS.toNanos(1);
+	}
+
+	/**
+	 * Escapes a label value as the Prometheus text format requires.
+	 */
+	public static @NotNull String escape(@NotNull String value) {
+		return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+
+	private static class DispatchStats {
+		private final LongAdder count;
+		private final LongAdder errors;
+		private final Map<Stage, Histogram> stages;
+
+		private DispatchStats() {
+			this.count = new LongAdder();
+			this.errors = new LongAdder();
+			this.stages = new EnumMap<>(Stage.class);
+			for (Stage stage : Stage.values()) {
+				stages.put(stage, new Histogram());
+			}
+		}
+
+		private void record(Stage stage, long nanos) {
+			stages.get(stage).record(nanos);
+		}
+	}
+
+	private static class Gauge {
+		private final String help;
+		private final Supplier<Number> value;
+
+		private Gauge(String help, Supplier<Number> value) {
+			this.help = help;
+			this.value = value;
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package utility;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import commands.RateLimiter;
+import database.DatabaseManager;
+import database.QueryMetrics;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves the metrics of the bot on /metrics in the Prometheus text format, with the HTTP server of the JDK.
+ * Next to the {@link Metrics} of the commands it exports the query statistics, the rate limits and what the
+ * {@link MessageDispatcher} saved.
+ */
+public class MetricsServer {
+
+	final static Logger logger = LoggerFactory.getLogger(MetricsServer.class);
+
+	private final HttpServer server;
+
+	/**
+	 * Binds the server to the host and port, it starts serving once {@link #start()} is called.
+	 *
+	 * @throws IOException if the port can't be bound
+	 */
+	public MetricsServer(@NotNull String host, int port) throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress(host, port), 0);
+		server.createContext("/metrics", this::handle);
+		server.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "metrics-server");
+			thread.setDaemon(true);
+			return thread;
+		}));
+	}
+
+	public void start() {
+		server.start();
+		logger.info(String.format("Serving metrics on %s.", server.getAddress()));
+	}
+
+	public void close() {
+		server.stop(0);
+	}
+
+	private void handle(@NotNull HttpExchange exchange) throws IOException {
+		if (!exchange.getRequestMethod().equals("GET")) {
+			exchange.sendResponseHeaders(405, -1);
+			exchange.close();
+			return;
+		}
+		StringBuilder out = new StringBuilder();
+		Metrics.getInstance().writePrometheus(out);
+		writeQueries(out);
+		writeRateLimits(out);
+		writeOutbound(out);
+		byte[] body = out.toString().getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream stream = exchange.getResponseBody()) {
+			stream.write(body);
+		}
+	}
+
+	private void writeQueries(@NotNull StringBuilder out) {
+		String seconds = "milobot_query_seconds";
+		out.append(String.format("# HELP %s The time the database queries took.\n", seconds));
+		out.append(String.format("# TYPE %s summary\n", seconds));
+		for (QueryMetrics.QuerySnapshot snapshot : DatabaseManager.getInstance().getMetrics().snapshot()) {
+			String labels = String.format("query=\"%s\"", Metrics.escape(snapshot.getName()));
+			out.append(String.format("%s{%s,quantile=\"0.5\"} %s\n", seconds, labels, snapshot.getP50Millis() / 1000));
+			out.append(String.format("%s{%s,quantile=\"0.95\"} %s\n", seconds, labels, snapshot.getP95Millis() / 1000));
+			out.append(String.format("%s{%s,quantile=\"0.99\"} %s\n", seconds, labels, snapshot.getP99Millis() / 1000));
+			out.append(String.format("%s_sum{%s} %s\n", seconds, labels, snapshot.getTotalMillis() / 1000));
+			out.append(String.format("%s_count{%s} %d\n", seconds, labels, snapshot.getCount()));
+		}
+	}
+
+	private void writeRateLimits(@NotNull StringBuilder out) {
+		RateLimiter.Snapshot snapshot = RateLimiter.getInstance().snapshot();
+		out.append("# HELP milobot_rate_limit_accepted_total The amount of commands the rate limits let through.\n");
+		out.append("# TYPE milobot_rate_limit_accepted_total counter\n");
+		out.append(String.format("milobot_rate_limit_accepted_total %d\n", snapshot.getAccepted()));
+		out.append("# HELP milobot_rate_limit_rejected_total The amount of commands the rate limits rejected.\n");
+		out.append("# TYPE milobot_rate_limit_rejected_total counter\n");
+		for (RateLimiter.Level level : RateLimiter.Level.values()) {
+			out.append(String.format("milobot_rate_limit_rejected_total{level=\"%s\"} %d\n",
+					level.name().toLowerCase(Locale.ROOT), snapshot.getRejected(level)));
+		}
+		out.append("# HELP milobot_rate_limit_global_tokens The tokens left in the global bucket.\n");
+		out.append("# TYPE milobot_rate_limit_global_tokens gauge\n");
+		out.append(String.format("milobot_rate_limit_global_tokens %s\n", snapshot.getGlobalTokens()));
+		out.append("# HELP milobot_rate_limit_buckets The amount of buckets that are tracked.\n");
+		out.append("# TYPE milobot_rate_limit_buckets gauge\n");
+		out.append(String.format("milobot_rate_limit_buckets{level=\"guild\"} %d\n", snapshot.getGuildBuckets()));
+		out.append(String.format("milobot_rate_limit_buckets{level=\"user\"} %d\n", snapshot.getUserBuckets()));
+		out.append(String.format("milobot_rate_limit_buckets{level=\"command\"} %d\n", snapshot.getCommandBuckets()));
+	}
+
+	private void writeOutbound(@NotNull StringBuilder out) {
+		MessageDispatcher dispatcher = MessageDispatcher.getInstance();
+		out.append("# HELP milobot_coalesced_edits_total The edits that were replaced by a later edit before they were sent.\n");
+		out.append("# TYPE milobot_coalesced_edits_total counter\n");
+		out.append(String.format("milobot_coalesced_edits_total %d\n", dispatcher.getCoalescedEdits()));
+		out.append("# HELP milobot_dropped_typing_total The typing indicators that weren't sent because one was shown.\n");
+		out.append("# TYPE milobot_dropped_typing_total counter\n");
+		out.append(String.format("milobot_dropped_typing_total %d\n", dispatcher.getDroppedTypings()));
+	}
+}
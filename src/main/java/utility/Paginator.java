@@ -3,17 +3,30 @@ package utility;
 import net.dv8tion.jda.api.EmbedBuilder;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
 
 public class Paginator {
 
-	public final static Map<String, Paginator> paginatorInstances = new HashMap<>();
+	public final static Map<String, Paginator> paginatorInstances = new ConcurrentHashMap<>();
 
 	private final List<EmbedBuilder> pages;
+	private final IntFunction<EmbedBuilder> pageBuilder;
 	private int currentPage;
 
 	public Paginator(EmbedBuilder embed) {
 		pages = new ArrayList<>();
 		pages.add(embed);
+		this.pageBuilder = null;
+		this.currentPage = 0;
+	}
+
+	/**
+	 * A paginator that builds every page the first time it is shown, instead of building all pages up front.
+	 */
+	public Paginator(int pageCount, IntFunction<EmbedBuilder> pageBuilder) {
+		pages = new ArrayList<>(Collections.nCopies(Math.max(1, pageCount), null));
+		this.pageBuilder = pageBuilder;
 		this.currentPage = 0;
 	}
 
@@ -32,7 +45,7 @@ public class Paginator {
 	public Optional<EmbedBuilder> nextPage() {
 		if(currentPage + 1 < pages.size()) {
 			currentPage++;
-			return Optional.of(pages.get(currentPage));
+			return Optional.of(getPage(currentPage));
 		}
 		return Optional.empty();
 	}
@@ -40,12 +53,21 @@ public class Paginator {
 	public Optional<EmbedBuilder> previousPage() {
 		if(currentPage - 1 >= 0) {
 			currentPage--;
-			return Optional.of(pages.get(currentPage));
+			return Optional.of(getPage(currentPage));
 		}
 		return Optional.empty();
 	}
 
 	public EmbedBuilder currentPage() {
-		return pages.get(currentPage);
+		return getPage(currentPage);
+	}
+
+	private EmbedBuilder getPage(int page) {
+		EmbedBuilder embed = pages.get(page);
+		if (embed == null) {
+			embed = pageBuilder.apply(page);
+			pages.set(page, embed);
+		}
+		return embed;
 	}
 }
@@ -0,0 +1,93 @@
+package utility;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A hashed timing wheel that finds the keys that expired without scanning every key.
+ * A key is put in the slot of the tick it expires in, and every tick the keys of one slot are handed to the expiry.
+ * Keys that expire after a full turn of the wheel share a slot with earlier keys, the expiry keeps them for a later turn.
+ * Scheduling a key and ticking are lock free.
+ */
+public class TimingWheel<K> {
+
+	private final ConcurrentLinkedQueue<K>[] slots;
+	private final long tickNanos;
+	private final Expiry<K> expiry;
+	private final long start;
+	private long currentTick;
+
+	/**
+	 * Starts the wheel on its own daemon thread.
+	 *
+	 * @param name      the name of the thread that ticks
+	 * @param size      the amount of slots, a turn of the wheel takes this many ticks
+	 * @param tickNanos the time between ticks
+	 */
+	@SuppressWarnings("unchecked")
+	public TimingWheel(@NotNull String name, int size, long tickNanos, @NotNull Expiry<K> expiry) {
+		this.slots = (ConcurrentLinkedQueue<K>[]) new ConcurrentLinkedQueue<?>[size];
+		for (int i = 0; i < size; i++) {
+			slots[i] = new ConcurrentLinkedQueue<>();
+		}
+		this.tickNanos = tickNanos;
+		this.expiry = expiry;
+		this.start = System.nanoTime();
+		this.currentTick = 0;
+		ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, name);
+			thread.setDaemon(true);
+			return thread;
+		});
+		ticker.scheduleAtFixedRate(this::tick, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Decides what happens to a key when its slot comes up.
+	 */
+	@FunctionalInterface
+	public interface Expiry<K> {
+		/**
+		 * Removes what the key belongs to if it expired.
+		 *
+		 * @return false if the key expires later and has to stay in the wheel
+		 */
+		boolean expire(@NotNull K key, long now);
+	}
+
+	/**
+	 * Hands the key to the expiry on the first tick after it expires.
+	 *
+	 * @param expiresAt the {@link System#nanoTime()} the key expires at
+	 */
+	public void schedule(@NotNull K key, long expiresAt) {
+		long expiryTick = (expiresAt - start + tickNanos - 1) / tickNanos;
+		slots[(int) (Math.max(0, expiryTick) % slots.length)].add(key);
+	}
+
+	/**
+	 * Hands the keys of the slots that came up since the last tick to the expiry.
+	 */
+	private void tick() {
+		long now = System.nanoTime();
+		long targetTick = (now - start) / tickNanos;
+		while (currentTick < targetTick) {
+			currentTick++;
+			ConcurrentLinkedQueue<K> slot = slots[(int) (currentTick % slots.length)];
+			int size = slot.size();
+			for (int i = 0; i < size; i++) {
+				K key = slot.poll();
+				if (key == null) {
+					break;
+				}
+				if (!expiry.expire(key, now)) {
+					slot.add(key);
+				}
+			}
+		}
+	}
+}
@@ -5,6 +5,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import database.DatabaseManager;
 import database.queries.UserTableQueries;
+import models.UserProfile;
 import net.dv8tion.jda.api.entities.MessageChannel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,9 +18,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.spi.FileSystemProvider;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Optional;
+import java.util.OptionalInt;
 
 /**
  * All methods related to users.
@@ -32,6 +34,7 @@ public class User {
 	private static User instance;
 	public final HashMap<Integer, Integer> levels;
 	private final DatabaseManager manager;
+	private final ExperienceRanking ranking;
 	private final String levelsJsonPath;
 	public int maxLevel;
 
@@ -40,7 +43,9 @@ public class User {
 		Config config = Config.getInstance();
 		this.levelsJsonPath = config.levelsJsonPath;
 		this.levels = new HashMap<>();
+		this.ranking = new ExperienceRanking();
 		loadLevelsAsMap();
+		loadRanking();
 	}
 
 	/**
@@ -62,12 +67,28 @@ public class User {
 	 * @return true if the user exists, false if not
 	 */
 	public boolean checkIfUserExists(String userId) {
-		boolean exists = false;
-		ArrayList<String> result = manager.query(UserTableQueries.selectUser, DatabaseManager.QueryTypes.RETURN, userId);
-		if (result.size() > 0) {
-			exists = true;
-		}
-		return exists;
+		return manager.exists(UserTableQueries.selectUser, userId);
+	}
+
+	/**
+	 * Adds a new user to the ranking.
+	 */
+	public void addToRanking(String userId, int experience) {
+		ranking.set(userId, experience);
+	}
+
+	/**
+	 * @return the rank of the user by their experience, empty if the user is unknown
+	 */
+	public OptionalInt getRank(String userId) {
+		return ranking.getRank(userId);
+	}
+
+	/**
+	 * @return the amount of users in the ranking
+	 */
+	public int getUserAmount() {
+		return ranking.getUserAmount();
 	}
 
 	/**
@@ -78,10 +99,15 @@ public class User {
 	 */
 	public void updateExperience(String userId, int experience, String asMention, MessageChannel channel) {
 		// load in their current experience and level
-		ArrayList<String> query = manager.query(UserTableQueries.getUserExperienceAndLevel, DatabaseManager.QueryTypes.RETURN, userId);
-		int currentExperience = Integer.parseInt(query.get(0));
-		int currentLevel = Integer.parseInt(query.get(1));
+		Optional<UserProfile> profile = manager.queryOne(UserTableQueries.selectUser, UserProfile::map, userId);
+		if (profile.isEmpty()) {
+			logger.error(String.format("Can't update the experience of unknown user %s.", userId));
+			return;
+		}
+		int currentExperience = profile.get().getExperience();
+		int currentLevel = profile.get().getLevel();
 		int newExperience = currentExperience + experience;
+		ranking.set(userId, newExperience);
 		// check if they leveled up
 		if (currentLevel < maxLevel) {
 			int nextLevel = currentLevel + 1;
@@ -105,6 +131,17 @@ public class User {
 		}
 	}
 
+	/**
+	 * Loads the experience of every user into the ranking.
+	 */
+	private void loadRanking() {
+		int users = manager.stream(UserTableQueries.getAllUserIdsAndExperience, row -> {
+			ranking.set(row.getString("userId"), row.getInt("experience"));
+			return true;
+		});
+		logger.info(String.format("Ranked %d users by their experience.", users));
+	}
+
 	/**
 	 * Loads the levels.json file into a HashMap.
 	 */
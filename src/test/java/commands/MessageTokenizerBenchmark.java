@@ -0,0 +1,111 @@
+package commands;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a mix of chat and commands the way the message handler does, with the lazy tokens and with the regex split and
+ * lowercase list the handler used before. A command reads its first argument and the handler looks for the help flag.
+ * Run it with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=MessageTokenizer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageTokenizerBenchmark {
+
+	private static final String prefix = "!";
+	private static final Set<String> commands = new HashSet<>(Arrays.asList("wordle", "blackjack", "profile",
+			"leaderboard", "help", "daily", "bug"));
+	private static final String[] chat = {
+			"hey, is anyone up for a game tonight?",
+			"lol",
+			"!!! that was close",
+			"I think the word was crane but I guessed slate first, which left way too many words",
+			"!not a command at all, just shouting"
+	};
+	private static final String[] commandMessages = {
+			"!wordle play",
+			"!wordle solve crane bgybb slate bbgyb hard",
+			"!blackjack 500",
+			"!leaderboard wordle highestStreak",
+			"!help wordle --help",
+			"!bug report The Leaderboard Does Not Show My Name After The Race Ended Yesterday Evening"
+	};
+
+	// the share of messages that are commands, in percent
+	@Param({"5", "50"})
+	public int commandShare;
+
+	private String[] messages;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		messages = new String[1024];
+		for (int i = 0; i < messages.length; i++) {
+			messages[i] = random.nextInt(100) < commandShare ?
+					commandMessages[random.nextInt(commandMessages.length)] :
+					chat[random.nextInt(chat.length)];
+		}
+	}
+
+	@Benchmark
+	public void lazyTokens(Blackhole blackhole) {
+		for (String content : messages) {
+			if (!content.regionMatches(true, 0, prefix, 0, prefix.length())) {
+				continue;
+			}
+			int nameEnd = MessageTokenizer.tokenEnd(content, prefix.length());
+			if (!commands.contains(content.substring(prefix.length(), nameEnd))) {
+				continue;
+			}
+			consume(blackhole, MessageTokenizer.tokenize(content, nameEnd));
+		}
+	}
+
+	@Benchmark
+	public void regexSplit(Blackhole blackhole) {
+		for (String content : messages) {
+			if (!content.startsWith(prefix)) {
+				continue;
+			}
+			List<String> tokens = new ArrayList<>();
+			for (String token : content.substring(prefix.length()).split("\\s+")) {
+				tokens.add(token.toLowerCase(Locale.ROOT));
+			}
+			if (!commands.contains(tokens.get(0))) {
+				continue;
+			}
+			consume(blackhole, tokens.subList(1, tokens.size()));
+		}
+	}
+
+	private static void consume(Blackhole blackhole, List<String> args) {
+		blackhole.consume(args.contains("--help"));
+		if (!args.isEmpty()) {
+			blackhole.consume(args.get(0));
+		}
+	}
+}
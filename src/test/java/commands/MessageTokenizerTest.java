@@ -0,0 +1,61 @@
+package commands;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the tokens with the lowercase {@code \s+} split the handler used before.
+ */
+class MessageTokenizerTest {
+
+	@Test
+	void splitsLikeTheRegex() {
+		Random random = new Random(7);
+		String characters = "aBz-\u0130 \t\n\rhelp";
+		for (int n = 0; n < 100_000; n++) {
+			StringBuilder content = new StringBuilder();
+			int length = random.nextInt(20);
+			for (int i = 0; i < length; i++) {
+				content.append(characters.charAt(random.nextInt(characters.length())));
+			}
+			int start = random.nextInt(content.length() + 1);
+			List<String> expected = split(content.substring(start));
+			List<String> tokens = MessageTokenizer.tokenize(content.toString(), start);
+			assertEquals(expected, tokens);
+			for (String value : new String[]{"--help", "help", "b", "i\u0307", "x"}) {
+				assertEquals(expected.contains(value),
+						MessageTokenizer.tokenize(content.toString(), start).contains(value), value);
+			}
+		}
+	}
+
+	@Test
+	void readsTheArgumentsAfterTheCommandName() {
+		String content = "!wordle SOLVE  crane bgybb --HELP";
+		List<String> args = MessageTokenizer.tokenize(content, MessageTokenizer.tokenEnd(content, 1));
+		assertEquals(List.of("solve", "crane", "bgybb", "--help"), args);
+		assertTrue(args.contains("--help"));
+		assertFalse(args.contains("--stats"));
+		assertEquals(List.of("crane", "bgybb", "--help"), args.subList(1, args.size()));
+		assertThrows(UnsupportedOperationException.class, () -> args.remove(0));
+	}
+
+	private static List<String> split(String content) {
+		List<String> tokens = new ArrayList<>();
+		for (String token : content.split("\\s+")) {
+			if (!token.isEmpty()) {
+				tokens.add(token.toLowerCase(Locale.ROOT));
+			}
+		}
+		return tokens;
+	}
+}
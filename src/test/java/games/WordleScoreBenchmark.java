@@ -0,0 +1,92 @@
+package games;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores one word against every guess in the dictionary, packed and the way guesses were scored before, with the
+ * squares built as strings.
+ * Run it with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=WordleScore}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WordleScoreBenchmark {
+
+	private String[] words;
+	private int[] packed;
+	private int[] counts;
+	private String word;
+	private int packedWord;
+
+	@Setup
+	public void setup() throws IOException {
+		List<String> list = WordleScoreTest.readWords();
+		this.words = list.toArray(new String[0]);
+		this.packed = list.stream().mapToInt(WordleDictionary::pack).toArray();
+		this.counts = new int[27];
+		this.word = "speed";
+		this.packedWord = WordleDictionary.pack(word);
+	}
+
+	@Benchmark
+	public void packed(Blackhole blackhole) {
+		for (int guess : packed) {
+			blackhole.consume(WordleScore.score(packedWord, guess, counts));
+		}
+	}
+
+	@Benchmark
+	public void strings(Blackhole blackhole) {
+		for (String guess : words) {
+			blackhole.consume(scoreToSquares(word, guess));
+		}
+	}
+
+	/**
+	 * The scoring of {@link Wordle} before the results were packed.
+	 */
+	private static String[] scoreToSquares(String word, String guess) {
+		char[] letters = word.toCharArray();
+		char[] guessed = guess.toCharArray();
+		String[] result = new String[letters.length];
+		for (int i = 0; i < letters.length; i++) {
+			if (guessed[i] == letters[i]) {
+				result[i] = ":green_square:";
+			} else if (word.indexOf(guessed[i]) != -1) {
+				int totalYellowSquares = 0;
+				int yellowSquaresBefore = 0;
+				for (int j = 0; j < letters.length; j++) {
+					if (letters[j] == guessed[i] && guessed[j] != letters[j]) {
+						totalYellowSquares++;
+					}
+				}
+				for (int j = 0; j < i; j++) {
+					if (guessed[j] == guessed[i] && guessed[j] != letters[j]) {
+						yellowSquaresBefore++;
+					}
+				}
+				result[i] = yellowSquaresBefore < totalYellowSquares ? ":yellow_square:" : ":black_large_square:";
+			} else {
+				result[i] = ":black_large_square:";
+			}
+		}
+		return result;
+	}
+}
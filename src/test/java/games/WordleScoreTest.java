@@ -0,0 +1,125 @@
+package games;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Compares {@link WordleScore#score} with the way a guess was scored before results were packed, for every pair of
+ * words.
+ */
+class WordleScoreTest {
+
+	private static final int length = WordleDictionary.wordLength;
+
+	@Test
+	void scoresEveryPairOfDictionaryWords() throws IOException {
+		assertScoresMatch(readWords());
+	}
+
+	@Test
+	void scoresEveryPairOfWordsWithRepeatedLetters() {
+		// every word of 3 letters scores every way repeated letters can line up
+		List<String> words = new ArrayList<>();
+		char[] letters = new char[length];
+		for (int i = 0; i < Math.pow(3, length); i++) {
+			int value = i;
+			for (int j = length - 1; j >= 0; j--) {
+				letters[j] = (char) ('a' + value % 3);
+				value /= 3;
+			}
+			words.add(new String(letters));
+		}
+		assertScoresMatch(words);
+	}
+
+	@Test
+	void solvedIsAllGreen() {
+		int word = WordleDictionary.pack("crane");
+		assertEquals(WordleScore.solved, WordleScore.score(word, word, new int[27]));
+		for (int i = 0; i < length; i++) {
+			assertEquals(WordleScore.green, WordleScore.get(WordleScore.solved, i));
+		}
+	}
+
+	@Test
+	void appendsTheSquaresOfAResult() {
+		int result = WordleScore.score(WordleDictionary.pack("abbey"), WordleDictionary.pack("babes"), new int[27]);
+		StringBuilder board = new StringBuilder();
+		WordleScore.appendSquares(board, result);
+		assertEquals(":yellow_square: :yellow_square: :green_square: :green_square: :black_large_square: \n",
+				board.toString());
+	}
+
+	private static void assertScoresMatch(@NotNull List<String> words) {
+		int[] packed = words.stream().mapToInt(WordleDictionary::pack).toArray();
+		int[] counts = new int[27];
+		for (int w = 0; w < packed.length; w++) {
+			for (int g = 0; g < packed.length; g++) {
+				int result = WordleScore.score(packed[w], packed[g], counts);
+				int expected = referenceScore(words.get(w), words.get(g));
+				if (result != expected) {
+					assertEquals(expected, result, String.format("%s guessed as %s", words.get(w), words.get(g)));
+				}
+			}
+			assertArrayEquals(new int[27], counts, "the counts are left at 0");
+		}
+	}
+
+	/**
+	 * Scores a guess the way {@link Wordle} did before the results were packed, letter by letter.
+	 */
+	private static int referenceScore(@NotNull String word, @NotNull String guess) {
+		int result = 0;
+		for (int i = 0; i < length; i++) {
+			int square;
+			if (guess.charAt(i) == word.charAt(i)) {
+				square = WordleScore.green;
+			} else if (word.indexOf(guess.charAt(i)) != -1) {
+				int totalYellowSquares = 0;
+				int yellowSquaresBefore = 0;
+				for (int j = 0; j < length; j++) {
+					if (word.charAt(j) == guess.charAt(i) && guess.charAt(j) != word.charAt(j)) {
+						totalYellowSquares++;
+					}
+				}
+				for (int j = 0; j < i; j++) {
+					if (guess.charAt(j) == guess.charAt(i) && guess.charAt(j) != word.charAt(j)) {
+						yellowSquaresBefore++;
+					}
+				}
+				square = yellowSquaresBefore < totalYellowSquares ? WordleScore.yellow : WordleScore.black;
+			} else {
+				square = WordleScore.black;
+			}
+			result = (result << 2) | square;
+		}
+		return result;
+	}
+
+	static @NotNull List<String> readWords() throws IOException {
+		InputStream is = WordleScoreTest.class.getClassLoader().getResourceAsStream("wordle_words.txt");
+		assertNotNull(is, "wordle_words.txt is on the classpath");
+		List<String> words = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (WordleDictionary.pack(line.trim()) != -1) {
+					words.add(line.trim());
+				}
+			}
+		}
+		return words;
+	}
+}
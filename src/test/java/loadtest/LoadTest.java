@@ -0,0 +1,469 @@
+package loadtest;
+
+import commands.CommandExecutor;
+import commands.CommandHandler;
+import commands.CommandLoader;
+import commands.games.blackjack.BlackjackPlayCmd;
+import commands.games.wordle.WordleSessionRouter;
+import database.DatabaseManager;
+import database.Histogram;
+import database.QueryMetrics;
+import events.OnButtonInteractionEvent;
+import games.Blackjack;
+import games.Wordle;
+import games.WordleDictionary;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.*;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.interactions.components.buttons.ButtonInteraction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import utility.CommandTracker;
+import utility.ComponentId;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import static java.util.Map.entry;
+
+/**
+ * Replays synthetic traffic through the {@link CommandHandler} and the {@link OnButtonInteractionEvent} without a
+ * connection to Discord, so a drop in throughput shows up before the bot is deployed.
+ * Every simulated user sends a command from a weighted mix, waits for the reply and sends the next one. The blackjack
+ * flow plays a game through the hit and stand buttons, and the wordle flow plays a game by sending guesses to the
+ * {@link WordleSessionRouter}. The bot runs against a new SQLite file in a temporary directory with rate limits that
+ * don't get in the way, and JDA is replaced by {@link StandIns} that record the outbound calls.
+ * <p>
+ * Usage: {@code mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--users 20 --duration 30 --timeout 5
+ * --mix help=3,wallet=3,blackjack=3,wordle=3"}
+ */
+public class LoadTest {
+
+	private static final String defaultMix = "help=3,wallet=3,profile=2,usage=1,daily=1,blackjack=3,wordle=3";
+	private static final long guildId = 900000000000000000L;
+	private static final long firstUserId = 800000000000000000L;
+	private static final long channelId = guildId + 1;
+	private static final String prefix = "!";
+
+	private final int users;
+	private final long duration;
+	private final long timeout;
+	private final List<String> steps;
+	private final List<Integer> weights;
+	private final int totalWeight;
+
+	private final StandIns standIns;
+	private final Map<String, LongAdder> calls;
+	private final AtomicLong messageIds;
+	private final ScheduledExecutorService rateLimitPool;
+	private JDA jda;
+	private Guild guild;
+	private CommandHandler commandHandler;
+	private OnButtonInteractionEvent buttonHandler;
+	private WordleSessionRouter wordleRouter;
+
+	private final Histogram latencies;
+	private final Map<String, Histogram> stepLatencies;
+	private final Map<String, LongAdder> stepTimeouts;
+
+	private LoadTest(int users, long duration, long timeout, @NotNull String mix) {
+		this.users = users;
+		this.duration = duration;
+		this.timeout = timeout;
+		this.steps = new ArrayList<>();
+		this.weights = new ArrayList<>();
+		int total = 0;
+		for (String part : mix.split(",")) {
+			String[] stepAndWeight = part.split("=");
+			int weight = stepAndWeight.length > 1 ? Integer.parseInt(stepAndWeight[1].trim()) : 1;
+			if (weight <= 0) {
+				throw new IllegalArgumentException(String.format("The weight of %s has to be positive.", part));
+			}
+			steps.add(stepAndWeight[0].trim());
+			weights.add(weight);
+			total += weight;
+		}
+		this.totalWeight = total;
+		this.standIns = new StandIns();
+		this.calls = new ConcurrentHashMap<>();
+		this.messageIds = new AtomicLong(700000000000000000L);
+		this.rateLimitPool = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "load-test-rate-limit-pool");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.latencies = new Histogram();
+		this.stepLatencies = new ConcurrentHashMap<>();
+		this.stepTimeouts = new ConcurrentHashMap<>();
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		Map<String, String> options = new HashMap<>();
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			if (!args[i].startsWith("--")) {
+				throw new IllegalArgumentException(String.format("Expected an option instead of %s.", args[i]));
+			}
+			options.put(args[i].substring(2), args[i + 1]);
+		}
+		Path directory = Files.createTempDirectory("milobot-load-test");
+		// the config is read once, so it has to point to the test database before anything uses it
+		System.setProperty("config", writeConfig(directory).toString());
+		LoadTest loadTest = new LoadTest(
+				Integer.parseInt(options.getOrDefault("users", "20")),
+				Long.parseLong(options.getOrDefault("duration", "30")),
+				Long.parseLong(options.getOrDefault("timeout", "5")),
+				options.getOrDefault("mix", defaultMix));
+		try {
+			loadTest.run();
+		} finally {
+			try (var files = Files.walk(directory)) {
+				files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+			}
+		}
+		// the singletons of the bot keep their worker threads alive
+		System.exit(0);
+	}
+
+	private static @NotNull Path writeConfig(@NotNull Path directory) throws IOException {
+		Path config = directory.resolve("config.yml");
+		String yaml = String.join("\n",
+				"token: load-test",
+				String.format("testGuildId: %d", guildId),
+				"loggingChannelName: logs",
+				"levelsJsonPath: /levels.json",
+				String.format("connectionUrl: jdbc:sqlite:%s", directory.resolve("milobot.db")),
+				"wordleWordsPath: wordle_words.txt",
+				String.format("prefix: \"%s\"", prefix),
+				"personalAccessToken: load-test",
+				"repositoryName: load-test/load-test",
+				"monstersCsvPath: monsters.csv",
+				// the load test measures the bot, not the rate limits
+				"rateLimitGlobalRate: 100000000",
+				"rateLimitGlobalBurst: 100000000",
+				"rateLimitGuildRate: 100000000",
+				"rateLimitGuildBurst: 100000000",
+				"rateLimitUserRate: 100000000",
+				"rateLimitUserBurst: 100000000",
+				"rateLimitCommandRate: 100000000",
+				"rateLimitCommandBurst: 100000000",
+				"");
+		Files.writeString(config, yaml, StandardCharsets.UTF_8);
+		return config;
+	}
+
+	private void run() throws InterruptedException {
+		DatabaseManager manager = DatabaseManager.getInstance();
+		if (manager.connect() == null) {
+			manager.createNewDatabase();
+		}
+		manager.createAllTables();
+
+		Request background = Request.background();
+		standIns.register(Message.class, this::sentMessage);
+		this.guild = standIns.create(Guild.class, background, Map.of(
+				"getIdLong", args -> guildId,
+				"getName", args -> "Load Test",
+				"getJDA", args -> jda));
+		User selfUser = standIns.create(SelfUser.class, background, Map.of(
+				"getIdLong", args -> 1L,
+				"getName", args -> "MiloBot",
+				"isBot", args -> true));
+		this.jda = standIns.create(JDA.class, background, Map.of(
+				"getGuildById", args -> guild,
+				"getGuilds", args -> List.of(guild),
+				"getSelfUser", args -> selfUser,
+				"getRateLimitPool", args -> rateLimitPool,
+				"getGatewayPing", args -> 0L));
+		CommandLoader.loadAllCommands(jda);
+		CommandHandler.prefixes.put(Long.toString(guildId), prefix);
+		this.commandHandler = new CommandHandler();
+		this.buttonHandler = new OnButtonInteractionEvent();
+		this.wordleRouter = WordleSessionRouter.getInstance();
+		WordleDictionary.getInstance();
+		long queriesBefore = countQueries(manager);
+
+		List<Thread> threads = new ArrayList<>();
+		long started = System.nanoTime();
+		long deadline = started + TimeUnit.SECONDS.toNanos(duration);
+		for (int i = 0; i < users; i++) {
+			long userId = firstUserId + i;
+			String name = String.format("load-test-user-%d", i);
+			Thread thread = new Thread(() -> simulateUser(userId, deadline), name);
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		long elapsed = System.nanoTime() - started;
+
+		// let the queued commands and database writes finish, so their queries are counted
+		CommandExecutor commandExecutor = CommandExecutor.getInstance();
+		long idleDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeout);
+		while (commandExecutor.getPending() > 0 && System.nanoTime() < idleDeadline) {
+			Thread.sleep(10);
+		}
+		commandExecutor.close();
+		CommandTracker.getInstance().close();
+		long queries = countQueries(manager) - queriesBefore;
+		manager.close();
+
+		report(elapsed, queries);
+	}
+
+	private void simulateUser(long userId, long deadline) {
+		try {
+			while (System.nanoTime() < deadline) {
+				String step = pickStep();
+				if (step.equals("blackjack")) {
+					playBlackjack(userId);
+				} else if (step.equals("wordle")) {
+					playWordle(userId);
+				} else {
+					sendMessage(step, userId);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private @NotNull String pickStep() {
+		int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+		for (int i = 0; i < steps.size(); i++) {
+			pick -= weights.get(i);
+			if (pick < 0) {
+				return steps.get(i);
+			}
+		}
+		return steps.get(steps.size() - 1);
+	}
+
+	/**
+	 * Plays a game of blackjack, the user hits once and then stands as long as the game isn't over.
+	 */
+	private void playBlackjack(long userId) throws InterruptedException {
+		sendMessage("blackjack play", userId);
+		if (isPlaying(userId)) {
+			clickButton("hit", userId);
+		}
+		if (isPlaying(userId)) {
+			clickButton("stand", userId);
+		}
+	}
+
+	private boolean isPlaying(long userId) {
+		Blackjack game = BlackjackPlayCmd.blackjackGames.get(Long.toString(userId));
+		return game != null && !game.isFinished() && !game.isPlayerStand();
+	}
+
+	/**
+	 * Plays a game of wordle with random words from the dictionary, until the game is over or out of guesses.
+	 */
+	private void playWordle(long userId) throws InterruptedException {
+		sendMessage("wordle play", userId);
+		WordleDictionary dictionary = WordleDictionary.getInstance();
+		Wordle game = awaitWordle(userId);
+		// a guess that timed out can still be handled later, so the guesses are capped as well
+		for (int i = 0; game != null && i < game.maxGuesses && wordleRouter.getGame(channelId, userId) == game; i++) {
+			String guess = dictionary.randomWord();
+			measure("wordle guess", request -> dispatch(messageEvent(request, userId, guess)));
+		}
+	}
+
+	/**
+	 * The game starts in the callback of the reply to the play command, which runs right after the reply ends the
+	 * latency of the request, so it can take a moment longer.
+	 *
+	 * @return the game of the user, or null if it didn't start in time
+	 */
+	private @Nullable Wordle awaitWordle(long userId) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeout);
+		Wordle game;
+		while ((game = wordleRouter.getGame(channelId, userId)) == null && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+		return game;
+	}
+
+	private void sendMessage(@NotNull String command, long userId) throws InterruptedException {
+		String content = prefix + command;
+		measure(command, request -> dispatch(messageEvent(request, userId, content)));
+	}
+
+	/**
+	 * Hands the message to every listener that reads messages, like JDA does.
+	 */
+	private void dispatch(@NotNull MessageReceivedEvent event) {
+		commandHandler.onEvent(event);
+		wordleRouter.onEvent(event);
+	}
+
+	private void clickButton(@NotNull String tag, long userId) throws InterruptedException {
+		String componentId = ComponentId.encode(Long.toString(userId), tag);
+		measure(String.format("button %s", tag), request -> buttonHandler.onEvent(buttonEvent(request, userId,
+				componentId)));
+	}
+
+	/**
+	 * Sends the request and waits for the reply to the user.
+	 */
+	private void measure(@NotNull String step, @NotNull Consumer<Request> send) throws InterruptedException {
+		Request request = new Request(calls);
+		send.accept(request);
+		long latency = request.awaitAnswer(timeout, TimeUnit.SECONDS);
+		if (latency < 0) {
+			stepTimeouts.computeIfAbsent(step, key -> new LongAdder()).increment();
+			return;
+		}
+		latencies.record(latency);
+		stepLatencies.computeIfAbsent(step, key -> new Histogram()).record(latency);
+	}
+
+	private @NotNull MessageReceivedEvent messageEvent(@NotNull Request request, long userId, @NotNull String content) {
+		User user = user(request, userId);
+		Member member = member(request, user);
+		TextChannel channel = channel(request);
+		long messageId = messageIds.incrementAndGet();
+		Message message = standIns.create(Message.class, request, Map.ofEntries(
+				entry("getContentRaw", args -> content),
+				entry("getContentDisplay", args -> content),
+				entry("getAuthor", args -> user),
+				entry("getMember", args -> member),
+				entry("getChannel", args -> channel),
+				entry("getTextChannel", args -> channel),
+				entry("getGuild", args -> guild),
+				entry("getJDA", args -> jda),
+				entry("getIdLong", args -> messageId),
+				entry("getTimeCreated", args -> OffsetDateTime.now()),
+				entry("isFromGuild", args -> true),
+				entry("getChannelType", args -> ChannelType.TEXT)));
+		return new MessageReceivedEvent(jda, 0, message);
+	}
+
+	private @NotNull ButtonInteractionEvent buttonEvent(@NotNull Request request, long userId,
+														@NotNull String componentId) {
+		User user = user(request, userId);
+		Member member = member(request, user);
+		TextChannel channel = channel(request);
+		Message message = sentMessage(request);
+		ButtonInteraction interaction = standIns.create(ButtonInteraction.class, request, Map.ofEntries(
+				entry("getComponentId", args -> componentId),
+				entry("getUser", args -> user),
+				entry("getMember", args -> member),
+				entry("getMessage", args -> message),
+				entry("getMessageId", args -> message.getId()),
+				entry("getMessageIdLong", args -> message.getIdLong()),
+				entry("getChannel", args -> channel),
+				entry("getMessageChannel", args -> channel),
+				entry("getTextChannel", args -> channel),
+				entry("getGuild", args -> guild),
+				entry("getJDA", args -> jda)));
+		return new ButtonInteractionEvent(jda, 0, interaction);
+	}
+
+	private @NotNull User user(@NotNull Request request, long userId) {
+		String name = String.format("user%d", userId - firstUserId);
+		return standIns.create(User.class, request, Map.of(
+				"getIdLong", args -> userId,
+				"getName", args -> name,
+				"getAsTag", args -> String.format("%s#0001", name),
+				"getAsMention", args -> String.format("<@%d>", userId),
+				"isBot", args -> false,
+				"getJDA", args -> jda));
+	}
+
+	private @NotNull Member member(@NotNull Request request, @NotNull User user) {
+		return standIns.create(Member.class, request, Map.of(
+				"getIdLong", args -> user.getIdLong(),
+				"getUser", args -> user,
+				"getEffectiveName", args -> user.getName(),
+				"getGuild", args -> guild,
+				"getJDA", args -> jda,
+				"getPermissions", args -> EnumSet.allOf(Permission.class),
+				"getTimeJoined", args -> OffsetDateTime.now()));
+	}
+
+	private @NotNull TextChannel channel(@NotNull Request request) {
+		return standIns.create(TextChannel.class, request, Map.of(
+				"getIdLong", args -> channelId,
+				"getName", args -> "load-test",
+				"getType", args -> ChannelType.TEXT,
+				"getGuild", args -> guild,
+				"getJDA", args -> jda));
+	}
+
+	/**
+	 * Makes the message a RestAction results in, every message gets a new id.
+	 */
+	private @NotNull Message sentMessage(@NotNull Request request) {
+		long messageId = messageIds.incrementAndGet();
+		return standIns.create(Message.class, request, Map.of(
+				"getIdLong", args -> messageId,
+				"getGuild", args -> guild,
+				"getJDA", args -> jda,
+				"getTimeCreated", args -> OffsetDateTime.now(),
+				"isFromGuild", args -> true,
+				"getChannelType", args -> ChannelType.TEXT));
+	}
+
+	private static long countQueries(@NotNull DatabaseManager manager) {
+		long queries = 0;
+		for (QueryMetrics.QuerySnapshot snapshot : manager.getMetrics().snapshot()) {
+			queries += snapshot.getCount();
+		}
+		return queries;
+	}
+
+	private void report(long elapsed, long queries) {
+		double seconds = elapsed / 1e9;
+		long answered = latencies.getCount();
+		long timedOut = 0;
+		for (LongAdder timeouts : stepTimeouts.values()) {
+			timedOut += timeouts.sum();
+		}
+		long requests = answered + timedOut;
+		StringBuilder out = new StringBuilder();
+		out.append(String.format("Load test with %d users for %.1f seconds.\n", users, seconds));
+		out.append(String.format("Requests: %d (%.1f/s), answered: %d, timed out after %d seconds: %d.\n", requests,
+				requests / seconds, answered, timeout, timedOut));
+		out.append(String.format("Latency: p50 %s, p95 %s, p99 %s, max %s.\n",
+				millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(95)),
+				millis(latencies.getValueAtPercentile(99)), millis(latencies.getMax())));
+		out.append(String.format("Database queries: %d (%.2f per request).\n", queries,
+				requests == 0 ? 0 : queries / (double) requests));
+		out.append(String.format("\n%-20s %8s %10s %10s %10s %9s\n", "Step", "Answered", "p50", "p95", "p99",
+				"Timeouts"));
+		Set<String> stepNames = new TreeSet<>(stepLatencies.keySet());
+		stepNames.addAll(stepTimeouts.keySet());
+		for (String step : stepNames) {
+			Histogram histogram = stepLatencies.getOrDefault(step, new Histogram());
+			LongAdder timeouts = stepTimeouts.get(step);
+			out.append(String.format("%-20s %8d %10s %10s %10s %9d\n", step, histogram.getCount(),
+					millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(95)),
+					millis(histogram.getValueAtPercentile(99)), timeouts == null ? 0 : timeouts.sum()));
+		}
+		out.append("\nOutbound calls:\n");
+		new TreeMap<>(calls).forEach((origin, count) ->
+				out.append(String.format("%-20s %8d\n", origin, count.sum())));
+		System.out.print(out);
+	}
+
+	private static @NotNull String millis(long nanos) {
+		return String.format("%.2fms", nanos / 1e6);
+	}
+}
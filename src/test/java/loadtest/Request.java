@@ -0,0 +1,68 @@
+package loadtest;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One message or button click of a simulated user. The stand-ins that are made while it is handled belong to it, so
+ * the outbound calls they make are recorded here and the first reply to the user ends its latency.
+ */
+class Request {
+
+	// calls that don't answer the user, so they don't end the latency of a request
+	private static final Set<String> silentCalls = Set.of("sendTyping", "deferEdit", "deferReply", "addReaction",
+			"clearReactions", "updateCommands", "addCommands");
+
+	private final Map<String, LongAdder> calls;
+	private final CountDownLatch answered;
+	private final long started;
+	private final AtomicLong answeredAt;
+
+	/**
+	 * @param calls the amount of outbound calls by the method that made them, shared by all requests
+	 */
+	Request(@NotNull Map<String, LongAdder> calls) {
+		this.calls = calls;
+		this.answered = new CountDownLatch(1);
+		this.started = System.nanoTime();
+		this.answeredAt = new AtomicLong();
+	}
+
+	/**
+	 * A request for the calls that don't belong to a user, like the registration of the slash commands.
+	 */
+	static @NotNull Request background() {
+		return new Request(new ConcurrentHashMap<>());
+	}
+
+	/**
+	 * Records an outbound call.
+	 *
+	 * @param origin the name of the method that made the call, for example sendMessage
+	 */
+	void record(@NotNull String origin) {
+		calls.computeIfAbsent(origin, key -> new LongAdder()).increment();
+		if (!silentCalls.contains(origin) && answeredAt.compareAndSet(0, System.nanoTime())) {
+			answered.countDown();
+		}
+	}
+
+	/**
+	 * Waits till the user gets a reply.
+	 *
+	 * @return the nanoseconds between the start of the request and the first reply, or -1 if there was no reply in time
+	 */
+	long awaitAnswer(long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+		if (!answered.await(timeout, unit)) {
+			return -1;
+		}
+		return answeredAt.get() - started;
+	}
+}
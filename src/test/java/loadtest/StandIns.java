@@ -0,0 +1,240 @@
+package loadtest;
+
+import net.dv8tion.jda.api.requests.RestAction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Makes stand-ins for the JDA entities with dynamic proxies, so only the methods the bot depends on need an answer.
+ * A method without an answer runs its default implementation if it has one, returns the stand-in itself if it returns
+ * its own type, and otherwise returns a new stand-in, an empty collection or the default value of its return type.
+ * A {@link RestAction} isn't sent anywhere: queueing it records the call on the {@link Request} the stand-in belongs to,
+ * and completes it right away with a stand-in of its result.
+ */
+class StandIns {
+
+	private static final Set<String> sendMethods = Set.of("queue", "submit", "complete", "queueAfter", "submitAfter",
+			"completeAfter");
+
+	private final Map<Class<?>, Function<Request, ?>> factories;
+
+	StandIns() {
+		this.factories = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Answers a call to a stand-in.
+	 */
+	@FunctionalInterface
+	interface Answer {
+		Object answer(Object[] args);
+	}
+
+	/**
+	 * Sets how stand-ins of the type are made when a method or a RestAction returns one, for example to give every sent
+	 * message an id.
+	 */
+	<T> void register(@NotNull Class<T> type, @NotNull Function<Request, T> factory) {
+		factories.put(type, factory);
+	}
+
+	/**
+	 * Makes a stand-in.
+	 *
+	 * @param request the request the outbound calls of the stand-in and the stand-ins it returns are recorded on
+	 * @param answers the answers by method name, methods with the same name get the same answer
+	 */
+	<T> @NotNull T create(@NotNull Class<T> type, @NotNull Request request, @NotNull Map<String, Answer> answers) {
+		return type.cast(create(type, request, answers, type.getSimpleName(), null));
+	}
+
+	private Object create(Class<?> type, Request request, Map<String, Answer> answers, String origin,
+						  @Nullable Class<?> resultType) {
+		Handler handler = new Handler(type, request, answers, origin, resultType);
+		return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+	}
+
+	private Object returnValue(@Nullable Method method, Class<?> type, Request request) {
+		if (type == void.class || type == Void.class) {
+			return null;
+		}
+		if (type.isPrimitive()) {
+			return defaultValue(type);
+		}
+		Function<Request, ?> factory = factories.get(type);
+		if (factory != null) {
+			return factory.apply(request);
+		}
+		if (type == List.class || type == Collection.class || type == Iterable.class) {
+			return List.of();
+		}
+		if (type == Set.class) {
+			return Set.of();
+		}
+		if (type == Map.class) {
+			return Map.of();
+		}
+		if (!type.isInterface() || type.getName().startsWith("java.")) {
+			return null;
+		}
+		Class<?> resultType = null;
+		if (method != null && RestAction.class.isAssignableFrom(type)) {
+			resultType = resultType(method.getGenericReturnType(), Map.of());
+		}
+		return create(type, request, Map.of(), method == null ? type.getSimpleName() : method.getName(), resultType);
+	}
+
+	private static Object defaultValue(Class<?> type) {
+		if (type == boolean.class) {
+			return false;
+		}
+		if (type == char.class) {
+			return '\0';
+		}
+		if (type == long.class) {
+			return 0L;
+		}
+		if (type == float.class) {
+			return 0f;
+		}
+		if (type == double.class) {
+			return 0d;
+		}
+		if (type == byte.class) {
+			return (byte) 0;
+		}
+		if (type == short.class) {
+			return (short) 0;
+		}
+		return 0;
+	}
+
+	/**
+	 * Finds the type a RestAction results in, by following the type arguments up to {@link RestAction}.
+	 *
+	 * @return the type of the result, or null if it can't be found
+	 */
+	private static @Nullable Class<?> resultType(Type type, Map<TypeVariable<?>, Type> bindings) {
+		Class<?> raw;
+		if (type instanceof ParameterizedType) {
+			ParameterizedType parameterized = (ParameterizedType) type;
+			raw = (Class<?>) parameterized.getRawType();
+			TypeVariable<?>[] variables = raw.getTypeParameters();
+			Map<TypeVariable<?>, Type> parentBindings = new HashMap<>();
+			for (int i = 0; i < variables.length; i++) {
+				Type argument = parameterized.getActualTypeArguments()[i];
+				parentBindings.put(variables[i], bindings.getOrDefault(argument, argument));
+			}
+			if (raw == RestAction.class) {
+				Type result = parentBindings.get(variables[0]);
+				if (result instanceof ParameterizedType) {
+					return (Class<?>) ((ParameterizedType) result).getRawType();
+				}
+				return result instanceof Class ? (Class<?>) result : null;
+			}
+			bindings = parentBindings;
+		} else if (type instanceof Class) {
+			raw = (Class<?>) type;
+		} else {
+			return null;
+		}
+		for (Type parent : raw.getGenericInterfaces()) {
+			Class<?> result = resultType(parent, bindings);
+			if (result != null) {
+				return result;
+			}
+		}
+		return null;
+	}
+
+	private class Handler implements InvocationHandler {
+
+		private final Class<?> type;
+		private final Request request;
+		private final Map<String, Answer> answers;
+		private final String origin;
+		private final Class<?> resultType;
+
+		private Handler(Class<?> type, Request request, Map<String, Answer> answers, String origin,
+						@Nullable Class<?> resultType) {
+			this.type = type;
+			this.request = request;
+			this.answers = answers;
+			this.origin = origin;
+			this.resultType = resultType;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (args == null) {
+				args = new Object[0];
+			}
+			if (method.getDeclaringClass() == Object.class) {
+				switch (name) {
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					default:
+						return String.format("StandIn[%s]", type.getSimpleName());
+				}
+			}
+			Answer answer = answers.get(name);
+			if (answer != null) {
+				return answer.answer(args);
+			}
+			if (proxy instanceof RestAction && sendMethods.contains(name)) {
+				return send(name, args);
+			}
+			if (method.isDefault()) {
+				return MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup())
+						.unreflectSpecial(method, method.getDeclaringClass())
+						.bindTo(proxy)
+						.asFixedArity()
+						.invokeWithArguments(args);
+			}
+			Class<?> returnType = method.getReturnType();
+			if (returnType != Object.class && returnType.isInstance(proxy)) {
+				return proxy;
+			}
+			return returnValue(method, returnType, request);
+		}
+
+		@SuppressWarnings("unchecked")
+		private Object send(String name, Object[] args) {
+			request.record(origin);
+			Object result = resultType == null ? null : returnValue(null, resultType, request);
+			switch (name) {
+				case "queue":
+				case "queueAfter":
+					// the success callback is the first callback, queueAfter takes the delay before it
+					for (Object arg : args) {
+						if (arg instanceof Consumer) {
+							((Consumer<Object>) arg).accept(result);
+							break;
+						}
+					}
+					return null;
+				case "submit":
+				case "submitAfter":
+					return CompletableFuture.completedFuture(result);
+				default:
+					return result;
+			}
+		}
+	}
+}